@@ -0,0 +1,42 @@
+package project.rayedchan.custom.objects;
+
+/**
+ * @author rayedchan
+ * A record of a delimited flat file with its values bound to the attribute names
+ * in the header of the file. Created by DelimitedRecordSchema.parseRecord.
+ */
+public class DelimitedRecord 
+{
+    private DelimitedRecordSchema schema;
+    private String [] values;
+    
+    public DelimitedRecord(DelimitedRecordSchema schema, String [] values)
+    {
+        this.schema = schema;
+        this.values = values;
+    }
+    
+    /*
+     * @param   attributeName   attribute name as given when the schema was created
+     * @return  value of the attribute; null if the attribute is not in the header
+     */
+    public String getValue(String attributeName)
+    {
+        int columnIndex = schema.getColumnIndex(attributeName);
+        return columnIndex == -1 ? null : values[columnIndex];
+    }
+    
+    /*
+     * @param   columnIndex     column index in the file
+     * @return  value of the column
+     */
+    public String getValue(int columnIndex)
+    {
+        return this.values[columnIndex];
+    }
+    
+    public int size()
+    {
+        return this.values.length;
+    }
+}
@@ -0,0 +1,260 @@
+package project.rayedchan.custom.objects;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import project.rayedchan.exception.BadFileFormatException;
+import project.rayedchan.exception.MissingHeaderException;
+import project.rayedchan.exception.MissingRequiredFieldException;
+
+/**
+ * @author rayedchan
+ * Parses the records of a delimited flat file whose first line names the attribute of each column.
+ * The valid and required attribute names are given when the schema is created. The header line 
+ * is validated and bound to column indexes once; each record is then split and returned as a 
+ * DelimitedRecord whose values are looked up by attribute name through the column indexes of the header.
+ *
+ * The delimiter is a literal string and is never treated as a regular expression. Empty values are kept.
+ * A value may be enclosed in double quotes to contain the delimiter; a double quote inside a quoted 
+ * value is written as two double quotes [E.g. "Smith, John" or "say ""hi"""]. Files written
+ * with join are read back with the same values.
+ */
+public class DelimitedRecordSchema
+{
+    private String delimiter;
+    private boolean isCaseSensitive;
+    private HashMap<String,String> validAttributeNames = new HashMap<String,String>(); //attribute name as matched to attribute name as given
+    private ArrayList<String> validAttributeNameList = new ArrayList<String>();
+    private String [] requiredAttributeNames;
+    private ArrayList<String> columnAttributeNames = new ArrayList<String>(); //attribute name of each column in the file
+    private HashMap<String,Integer> columnIndexes = new HashMap<String,Integer>();
+
+    /*
+     * @param   delimiter               Use to separate values in file
+     * @param   validAttributeNames     attribute names that may appear in the header
+     * @param   requiredAttributeNames  attribute names that must appear in the header
+     * @param   isCaseSensitive         boolean value to indicate if the header is matched case sensitive
+     */
+    public DelimitedRecordSchema(String delimiter, String [] validAttributeNames, String [] requiredAttributeNames, boolean isCaseSensitive)
+    {
+        if(delimiter == null || delimiter.isEmpty())
+        {
+            throw new IllegalArgumentException("Delimiter must not be empty.");
+        }
+        
+        this.delimiter = delimiter;
+        this.isCaseSensitive = isCaseSensitive;
+        this.requiredAttributeNames = requiredAttributeNames;
+
+        for(String attributeName : validAttributeNames)
+        {
+            this.validAttributeNames.put(this.toKey(attributeName), attributeName);
+            this.validAttributeNameList.add(attributeName);
+        }
+    }
+
+    /*
+     * Validate the header line and bind each attribute name to its column.
+     * @param   header  first line of the file; null if the file is empty
+     */
+    public void bindHeader(String header) throws MissingHeaderException, BadFileFormatException, MissingRequiredFieldException
+    {
+        if(header == null)
+        {
+            throw new MissingHeaderException(String.format("Here are all the possible attribute names for file header: %s", validAttributeNameList));
+        }
+
+        columnAttributeNames.clear();
+        columnIndexes.clear();
+        
+        for(String headerName : split(header, delimiter))
+        {
+            String attributeName = validAttributeNames.get(this.toKey(headerName.trim()));
+
+            if(attributeName == null)
+            {
+                throw new BadFileFormatException(String.format("Attribute name %s is invalid.\nHere are all the possible attribute names: %s", headerName, validAttributeNameList));
+            }
+
+            if(columnIndexes.containsKey(attributeName))
+            {
+                throw new BadFileFormatException(String.format("Attribute name %s is specified more than once.", headerName));
+            }
+
+            columnIndexes.put(attributeName, columnAttributeNames.size());
+            columnAttributeNames.add(attributeName);
+        }
+
+        for(String attributeName : requiredAttributeNames)
+        {
+            if(!columnIndexes.containsKey(attributeName))
+            {
+                throw new MissingRequiredFieldException("'"+ attributeName + "' is a required attribute to be specified in file");
+            }
+        }
+    }
+
+    /*
+     * Split a record and bind its values to the attribute names in the header.
+     * @param   line        record as it appears in the file
+     * @return  the record; null if the number of values does not match the header
+     */
+    public DelimitedRecord parseRecord(String line)
+    {
+        String [] values = split(line, delimiter);
+
+        if(values.length != columnAttributeNames.size())
+        {
+            return null;
+        }
+
+        return new DelimitedRecord(this, values);
+    }
+
+    /*
+     * @return  attribute names of the columns in the order they appear in the header
+     */
+    public ArrayList<String> getAttributeNames()
+    {
+        return this.columnAttributeNames;
+    }
+
+    public boolean hasAttribute(String attributeName)
+    {
+        return columnIndexes.containsKey(attributeName);
+    }
+
+    /*
+     * @param   attributeName   attribute name as given when the schema was created
+     * @return  column index of the attribute; -1 if the attribute is not in the header
+     */
+    public int getColumnIndex(String attributeName)
+    {
+        Integer columnIndex = columnIndexes.get(attributeName);
+        return columnIndex == null ? -1 : columnIndex;
+    }
+
+    public String getDelimiter()
+    {
+        return this.delimiter;
+    }
+
+    /*
+     * Split a line on a literal delimiter. Values enclosed in double quotes may contain
+     * the delimiter; two double quotes inside a quoted value are read as one double quote.
+     * @param   line        line to split
+     * @param   delimiter   literal delimiter
+     * @return  values of the line; empty values are kept
+     */
+    public static String [] split(String line, String delimiter)
+    {
+        ArrayList<String> values = new ArrayList<String>();
+        int length = line.length();
+        int delimiterLength = delimiter.length();
+        int position = 0;
+
+        while(true)
+        {
+            //Quoted value
+            if(position < length && line.charAt(position) == '"')
+            {
+                StringBuilder value = new StringBuilder();
+                int i = position + 1;
+
+                while(i < length)
+                {
+                    char c = line.charAt(i);
+
+                    if(c == '"' && i + 1 < length && line.charAt(i + 1) == '"')
+                    {
+                        value.append('"');
+                        i += 2;
+                    }
+
+                    else if(c == '"')
+                    {
+                        break;
+                    }
+
+                    else
+                    {
+                        value.append(c);
+                        i++;
+                    }
+                }
+
+                int end = line.indexOf(delimiter, Math.min(i + 1, length));
+                
+                //Text between the closing quote and the delimiter is kept
+                value.append(line, Math.min(i + 1, length), end == -1 ? length : end);
+                values.add(value.toString());
+
+                if(end == -1)
+                {
+                    break;
+                }
+
+                position = end + delimiterLength;
+            }
+
+            else
+            {
+                int end = line.indexOf(delimiter, position);
+
+                if(end == -1)
+                {
+                    values.add(line.substring(position));
+                    break;
+                }
+
+                values.add(line.substring(position, end));
+                position = end + delimiterLength;
+            }
+        }
+
+        return values.toArray(new String[values.size()]);
+    }
+
+    /*
+     * Join values into a line that split reads back as the same values. A value is enclosed
+     * in double quotes if it contains the delimiter or a double quote.
+     * @param   values      values of the line; a null value is written as null
+     * @param   delimiter   literal delimiter
+     * @return  line without a line terminator
+     */
+    public static String join(String [] values, String delimiter)
+    {
+        StringBuilder line = new StringBuilder();
+
+        for(int i = 0; i < values.length; i++)
+        {
+            if(i > 0)
+            {
+                line.append(delimiter);
+            }
+
+            line.append(quote(String.valueOf(values[i]), delimiter));
+        }
+
+        return line.toString();
+    }
+
+    /*
+     * @param   value       value to write
+     * @param   delimiter   literal delimiter
+     * @return  the value enclosed in double quotes if it contains the delimiter or a double quote; otherwise the value
+     */
+    public static String quote(String value, String delimiter)
+    {
+        if(!value.contains(delimiter) && value.indexOf('"') == -1)
+        {
+            return value;
+        }
+
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private String toKey(String attributeName)
+    {
+        return isCaseSensitive ? attributeName : attributeName.toLowerCase();
+    }
+}
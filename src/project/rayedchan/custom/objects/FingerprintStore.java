@@ -0,0 +1,97 @@
+package project.rayedchan.custom.objects;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * @author rayedchan
+ * A local store of the fingerprints of the last load of each target (lookup, process form, resource object).
+ * A fingerprint is made up of the hash of the input file and a fingerprint of the target in OIM.
+ * If neither has changed since the last load, the load can be skipped.
+ *
+ * The store is saved as a properties file with a record for each target.
+ * <operation>:<target name>=<file hash>:<server fingerprint>
+ */
+public class FingerprintStore
+{
+    private File storeFile;
+    private Properties fingerprints = new Properties();
+
+    /*
+     * Opens an existing store or creates a new one.
+     * @param   storeFileName   Path of the store file on local machine
+     */
+    public FingerprintStore(String storeFileName) throws IOException
+    {
+        this.storeFile = new File(storeFileName);
+
+        if(storeFile.exists())
+        {
+            FileInputStream fstream = new FileInputStream(storeFile);
+
+            try
+            {
+                fingerprints.load(fstream);
+            }
+
+            finally
+            {
+                fstream.close();
+            }
+        }
+    }
+
+    /*
+     * Determine if the input file and the target are the same as the last recorded load.
+     * @param   target              name of the operation and target (E.g. "lookup.sync:Lookup.AD.Groups")
+     * @param   fileHash            hash of the input file
+     * @param   serverFingerprint   fingerprint of the target in OIM
+     * @return  boolean value to indicate if neither has changed
+     */
+    public synchronized boolean isUnchanged(String target, String fileHash, String serverFingerprint)
+    {
+        return (fileHash + ":" + serverFingerprint).equals(fingerprints.getProperty(target));
+    }
+
+    /*
+     * Record the fingerprint of a load and save the store.
+     * @param   target              name of the operation and target
+     * @param   fileHash            hash of the input file
+     * @param   serverFingerprint   fingerprint of the target in OIM after the load
+     */
+    public synchronized void record(String target, String fileHash, String serverFingerprint) throws IOException
+    {
+        fingerprints.setProperty(target, fileHash + ":" + serverFingerprint);
+        this.save();
+    }
+
+    /*
+     * Remove the fingerprint of a target and save the store.
+     * @param   target  name of the operation and target
+     */
+    public synchronized void remove(String target) throws IOException
+    {
+        if(fingerprints.remove(target) != null)
+        {
+            this.save();
+        }
+    }
+
+    private void save() throws IOException
+    {
+        FileOutputStream fstream = new FileOutputStream(storeFile);
+
+        try
+        {
+            fingerprints.store(fstream, "Fingerprints of the last load of each target");
+        }
+
+        finally
+        {
+            fstream.close();
+        }
+    }
+}
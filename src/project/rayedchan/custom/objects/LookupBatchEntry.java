@@ -0,0 +1,94 @@
+package project.rayedchan.custom.objects;
+
+/**
+ * @author rayedchan
+ * An class-object representation of a record in a lookup batch manifest
+ * along with the outcome of running it.
+ */
+public class LookupBatchEntry 
+{
+    private String lookupName;
+    private String fileName;
+    private String delimiter;
+    private String operation; //add, delete, sync, or export
+    private int lineNumber; //Line number in manifest
+    private boolean success = false;
+    private long elapsedTime = 0; //milliseconds
+    private String errorMessage = null;
+    
+    public LookupBatchEntry(String lookupName, String fileName, String delimiter, String operation, int lineNumber)
+    {
+        this.lookupName = lookupName;
+        this.fileName = fileName;
+        this.delimiter = delimiter;
+        this.operation = operation;
+        this.lineNumber = lineNumber;
+    }
+    
+    /*
+     * Getter methods
+     */
+    public String getLookupName()
+    {
+        return this.lookupName;
+    }
+    
+    public String getFileName()
+    {
+        return this.fileName;
+    }
+    
+    public String getDelimiter()
+    {
+        return this.delimiter;
+    }
+    
+    public String getOperation()
+    {
+        return this.operation;
+    }
+    
+    public int getLineNumber()
+    {
+        return this.lineNumber;
+    }
+    
+    public boolean getSuccess()
+    {
+        return this.success;
+    }
+    
+    public long getElapsedTime()
+    {
+        return this.elapsedTime;
+    }
+    
+    public String getErrorMessage()
+    {
+        return this.errorMessage;
+    }
+    
+    /*
+     * Setter methods
+     */
+    public void setSuccess(boolean success)
+    {
+        this.success = success;
+    }
+    
+    public void setElapsedTime(long elapsedTime)
+    {
+        this.elapsedTime = elapsedTime;
+    }
+    
+    public void setErrorMessage(String errorMessage)
+    {
+        this.errorMessage = errorMessage;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return String.format("Line %s: %s %s [%s]", lineNumber, operation, lookupName, fileName);
+    }
+}
@@ -0,0 +1,139 @@
+package project.rayedchan.custom.objects;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.HashSet;
+import project.rayedchan.exception.BadFileFormatException;
+
+/**
+ * @author rayedchan
+ * An append-only journal of the lookup entries that have been applied to OIM.
+ * Used to resume a lookup load that was interrupted without validating the
+ * applied entries against OIM again.
+ *
+ * Code keys are buffered and written to the journal in batches of FLUSH_BATCH_SIZE.
+ * If the load is interrupted, at most one batch of applied entries is not in the journal;
+ * those entries are validated against OIM again when the load is resumed.
+ *
+ * File Format - the first line is the lookup name followed by a code key on each line
+ * <lookup name>
+ * <code key>
+ * <code key>
+ */
+public class LookupLoadJournal
+{
+    public static int FLUSH_BATCH_SIZE = 100; //Number of code keys written to the journal at a time
+
+    private File journalFile;
+    private HashSet<String> appliedCodeKeys = new HashSet<String>();
+    private BufferedWriter writer;
+    private int numUnflushed = 0;
+
+    /*
+     * Opens an existing journal or creates a new one.
+     * @param   journalFileName     Path of the journal file on local machine
+     * @param   lookupName          Name of the lookup the journal belongs to
+     */
+    public LookupLoadJournal(String journalFileName, String lookupName) throws IOException, BadFileFormatException
+    {
+        this.journalFile = new File(journalFileName);
+        boolean isNewJournal = !journalFile.exists() || journalFile.length() == 0;
+
+        if(!isNewJournal)
+        {
+            BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(journalFile), "UTF-8"));
+
+            try
+            {
+                String journalLookupName = br.readLine();
+
+                if(!lookupName.equals(journalLookupName))
+                {
+                    throw new BadFileFormatException(String.format("Journal %s belongs to lookup %s.", journalFileName, journalLookupName));
+                }
+
+                String codeKey;
+
+                while((codeKey = br.readLine()) != null)
+                {
+                    appliedCodeKeys.add(codeKey);
+                }
+            }
+
+            finally
+            {
+                br.close();
+            }
+        }
+
+        this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(journalFile, true), "UTF-8"));
+
+        if(isNewJournal)
+        {
+            writer.write(lookupName);
+            writer.write('\n');
+            writer.flush();
+        }
+    }
+
+    /*
+     * Determine if an entry has been applied in a previous run.
+     * @param   codeKey     code key of the entry
+     * @return  boolean value to indicate if the entry is in the journal
+     */
+    public boolean isApplied(String codeKey)
+    {
+        return appliedCodeKeys.contains(codeKey);
+    }
+
+    public int getNumApplied()
+    {
+        return appliedCodeKeys.size();
+    }
+
+    /*
+     * Record an entry that has been applied. The journal is flushed
+     * once FLUSH_BATCH_SIZE entries have been recorded.
+     * @param   codeKey     code key of the entry
+     */
+    public void recordApplied(String codeKey) throws IOException
+    {
+        if(appliedCodeKeys.add(codeKey))
+        {
+            writer.write(codeKey);
+            writer.write('\n');
+            numUnflushed++;
+
+            if(numUnflushed >= FLUSH_BATCH_SIZE)
+            {
+                this.flush();
+            }
+        }
+    }
+
+    public void flush() throws IOException
+    {
+        writer.flush();
+        numUnflushed = 0;
+    }
+
+    public void close() throws IOException
+    {
+        writer.close();
+    }
+
+    /*
+     * Removes the journal file. The journal must be closed first.
+     * @return  boolean value to indicate if the journal was removed
+     */
+    public boolean delete()
+    {
+        return journalFile.delete();
+    }
+}
@@ -0,0 +1,75 @@
+package project.rayedchan.custom.objects;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * @author rayedchan
+ * A cache of the names of all the lookup definitions (LKU_TYPE_STRING_KEY).
+ * Used to answer if a lookup exists without fetching the entries of the lookup.
+ * Lookup names are case sensitive in OIM; the registry also keeps a case insensitive
+ * index to find a lookup name that differs only by case.
+ */
+public class LookupRegistry 
+{
+    private HashMap<String,String> lookupNames = new HashMap<String,String>(); //lowercase name -> lookup name
+    private HashSet<String> exactLookupNames = new HashSet<String>();
+    private long loadedTime;
+    
+    public LookupRegistry(Collection<String> lookupNames)
+    {
+        for(String lookupName : lookupNames)
+        {
+            this.add(lookupName);
+        }
+        
+        this.loadedTime = System.currentTimeMillis();
+    }
+    
+    /*
+     * Determine if a lookup exists. Case sensitive.
+     * @param   lookupName  Name of the lookup definition
+     * @return  boolean value to indicate if lookup is in the registry
+     */
+    public synchronized boolean exists(String lookupName)
+    {
+        return exactLookupNames.contains(lookupName);
+    }
+    
+    /*
+     * Get the lookup name as it is defined in OIM. Case insensitive.
+     * @param   lookupName  Name of the lookup definition
+     * @return  name of the lookup in OIM; null if the lookup does not exist
+     */
+    public synchronized String getLookupName(String lookupName)
+    {
+        return lookupNames.get(lookupName.toLowerCase());
+    }
+    
+    public synchronized void add(String lookupName)
+    {
+        exactLookupNames.add(lookupName);
+        lookupNames.put(lookupName.toLowerCase(), lookupName);
+    }
+    
+    public synchronized void remove(String lookupName)
+    {
+        exactLookupNames.remove(lookupName);
+        
+        if(lookupName.equals(lookupNames.get(lookupName.toLowerCase())))
+        {
+            lookupNames.remove(lookupName.toLowerCase());
+        }
+    }
+    
+    public synchronized int size()
+    {
+        return exactLookupNames.size();
+    }
+    
+    public long getLoadedTime()
+    {
+        return this.loadedTime;
+    }
+}
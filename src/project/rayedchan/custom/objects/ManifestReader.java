@@ -0,0 +1,155 @@
+package project.rayedchan.custom.objects;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import project.rayedchan.exception.BadFileFormatException;
+import project.rayedchan.exception.MissingHeaderException;
+import project.rayedchan.exception.MissingRequiredFieldException;
+
+/**
+ * @author rayedchan
+ * Reads the records of a batch manifest file. A manifest is tab delimited with a newline for
+ * each record and has no header; the columns are given when the reader is created and each
+ * record is returned as a DelimitedRecord whose values are looked up by column name.
+ *
+ * Blank lines are skipped. Values are trimmed and consecutive tabs separate one column, so the
+ * columns may be aligned with extra tabs. A record with a different number of columns is rejected.
+ *
+ * Example
+ * <object name>    <file name>    <delimiter>
+ * AD User          /home/oracle/ad_reconfields.txt      tab
+ */
+public class ManifestReader
+{
+    public static String COLUMN_DELIMITER = "\t";
+
+    //Column names
+    public static String OBJECT_NAME_COLUMN = "object_name";
+    public static String FILE_NAME_COLUMN = "file_name";
+    public static String DELIMITER_COLUMN = "delimiter";
+    public static String OPERATION_COLUMN = "operation";
+
+    private DelimitedRecordSchema schema;
+    private BufferedReader br;
+    private String line;
+    private int lineNumber = 0;
+
+    /*
+     * @param   manifestFileName    Path of the manifest file on local machine
+     * @param   columnNames         name of each column in the order they appear in a record
+     */
+    public ManifestReader(String manifestFileName, String [] columnNames) throws FileNotFoundException
+    {
+        this.schema = new DelimitedRecordSchema(COLUMN_DELIMITER, columnNames, columnNames, true);
+
+        //A manifest has no header line; the columns are bound as if it had one
+        try
+        {
+            schema.bindHeader(DelimitedRecordSchema.join(columnNames, COLUMN_DELIMITER));
+        }
+
+        catch (MissingHeaderException ex)
+        {
+            throw new IllegalArgumentException(ex.getMessage());
+        }
+
+        catch (MissingRequiredFieldException ex)
+        {
+            throw new IllegalArgumentException(ex.getMessage());
+        }
+
+        catch (BadFileFormatException ex)
+        {
+            throw new IllegalArgumentException(ex.getMessage());
+        }
+
+        this.br = new BufferedReader(new InputStreamReader(new FileInputStream(manifestFileName)));
+    }
+
+    /*
+     * Read the next record.
+     * @return  the record; null at the end of the file
+     */
+    public DelimitedRecord nextRecord() throws IOException, BadFileFormatException
+    {
+        while((line = br.readLine()) != null)
+        {
+            lineNumber++;
+
+            if(line.trim().isEmpty())
+            {
+                continue;
+            }
+
+            ArrayList<String> values = new ArrayList<String>();
+
+            for(String value : DelimitedRecordSchema.split(line, COLUMN_DELIMITER))
+            {
+                if(!value.trim().isEmpty())
+                {
+                    values.add(value.trim());
+                }
+            }
+
+            if(values.size() != schema.getAttributeNames().size())
+            {
+                System.out.println("[Error]: File format is incorrect. Fix Line["+ lineNumber +"]: " + line);
+                throw new BadFileFormatException(String.format("File format is incorrect. Fix Line[%s]: %s ", lineNumber, line));
+            }
+
+            return new DelimitedRecord(schema, values.toArray(new String[values.size()]));
+        }
+
+        return null;
+    }
+
+    /*
+     * @return  the last line read as it appears in the file
+     */
+    public String getLine()
+    {
+        return this.line;
+    }
+
+    /*
+     * @return  line number of the last line read; starts at 1
+     */
+    public int getLineNumber()
+    {
+        return this.lineNumber;
+    }
+
+    public void close() throws IOException
+    {
+        br.close();
+    }
+
+    /*
+     * Get the delimiter named in a manifest record.
+     * @param   delimiterName   tab, comma, semicolon, or a literal delimiter
+     * @return  the delimiter
+     */
+    public static String toDelimiter(String delimiterName)
+    {
+        if(delimiterName.equalsIgnoreCase("tab"))
+        {
+            return "\t";
+        }
+
+        else if(delimiterName.equalsIgnoreCase("comma"))
+        {
+            return ",";
+        }
+
+        else if(delimiterName.equalsIgnoreCase("semicolon"))
+        {
+            return ";";
+        }
+
+        return delimiterName;
+    }
+}
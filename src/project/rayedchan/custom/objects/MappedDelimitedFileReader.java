@@ -0,0 +1,185 @@
+package project.rayedchan.custom.objects;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+
+/**
+ * @author rayedchan
+ * Reads a delimited flat file one record at a time by memory-mapping the file.
+ * The file is mapped in windows of MAP_WINDOW_SIZE bytes so only one window is mapped
+ * at any time and the file content is never loaded onto the heap as a whole.
+ * Newlines and delimiters are located by scanning the mapped bytes; only the fields
+ * of the current record are decoded into Strings using the given charset.
+ *
+ * Fields are split the same way as StringTokenizer: every character in the delimiter
+ * is a delimiter and empty fields are skipped. A trailing carriage return is removed.
+ *
+ * Note: The charset must encode the newline and every delimiter character as a single byte
+ * that does not occur inside multi-byte characters (E.g. UTF-8, ISO-8859-1, US-ASCII).
+ */
+public class MappedDelimitedFileReader
+{
+    public static int MAP_WINDOW_SIZE = 64 * 1024 * 1024; //Number of bytes mapped at a time
+
+    private FileInputStream fstream;
+    private FileChannel channel;
+    private long fileSize;
+    private long windowStart; //position of the current window in the file
+    private MappedByteBuffer window;
+    private Charset charset;
+    private boolean [] isDelimiter = new boolean[256];
+    private byte [] lineBytes = new byte[1024]; //bytes of the current record
+    private int lineLength;
+    private int lineNumber = 0;
+
+    /*
+     * @param   fileName      Path of file on local machine
+     * @param   delimiter     Delimiter that separates each field in file
+     * @param   charsetName   Name of the charset the file is encoded in
+     */
+    public MappedDelimitedFileReader(String fileName, String delimiter, String charsetName) throws IOException
+    {
+        this.charset = Charset.forName(charsetName);
+
+        if("\n".getBytes(charset).length != 1)
+        {
+            throw new IllegalArgumentException(String.format("Charset '%s' is not supported.", charsetName));
+        }
+
+        for(int i = 0; i < delimiter.length(); i++)
+        {
+            byte [] delimiterBytes = delimiter.substring(i, i + 1).getBytes(charset);
+
+            if(delimiterBytes.length != 1)
+            {
+                throw new IllegalArgumentException(String.format("Delimiter '%s' must be a single byte in charset '%s'.", delimiter.charAt(i), charsetName));
+            }
+
+            this.isDelimiter[delimiterBytes[0] & 0xFF] = true;
+        }
+
+        this.fstream = new FileInputStream(fileName);
+        this.channel = fstream.getChannel();
+        this.fileSize = channel.size();
+        this.mapWindow(0);
+    }
+
+    /*
+     * Read the next record of the file.
+     * @return  fields of the record; null if the end of the file has been reached
+     */
+    public String [] nextRecord() throws IOException
+    {
+        if(!this.readLine())
+        {
+            return null;
+        }
+
+        ArrayList<String> fields = new ArrayList<String>();
+        int fieldStart = 0;
+
+        for(int i = 0; i <= lineLength; i++)
+        {
+            if(i == lineLength || isDelimiter[lineBytes[i] & 0xFF])
+            {
+                if(i > fieldStart)
+                {
+                    fields.add(new String(lineBytes, fieldStart, i - fieldStart, charset));
+                }
+
+                fieldStart = i + 1;
+            }
+        }
+
+        return fields.toArray(new String[fields.size()]);
+    }
+
+    /*
+     * @return  the current record as it appears in the file
+     */
+    public String getLine()
+    {
+        return new String(lineBytes, 0, lineLength, charset);
+    }
+
+    /*
+     * @return  line number of the current record
+     */
+    public int getLineNumber()
+    {
+        return this.lineNumber;
+    }
+
+    public void close() throws IOException
+    {
+        this.window = null;
+        this.channel.close();
+        this.fstream.close();
+    }
+
+    /*
+     * Copy the bytes of the next line into lineBytes.
+     * A new window is mapped if the line continues past the current window.
+     * @return  false if the end of the file has been reached
+     */
+    private boolean readLine() throws IOException
+    {
+        if(!window.hasRemaining() && windowStart + window.limit() >= fileSize)
+        {
+            return false;
+        }
+
+        lineLength = 0;
+
+        while(true)
+        {
+            while(window.hasRemaining())
+            {
+                byte b = window.get();
+
+                if(b == '\n')
+                {
+                    return this.endLine();
+                }
+
+                if(lineLength == lineBytes.length)
+                {
+                    byte [] largerLineBytes = new byte[lineBytes.length * 2];
+                    System.arraycopy(lineBytes, 0, largerLineBytes, 0, lineLength);
+                    lineBytes = largerLineBytes;
+                }
+
+                lineBytes[lineLength++] = b;
+            }
+
+            //End of the file without a trailing newline
+            if(windowStart + window.limit() >= fileSize)
+            {
+                return this.endLine();
+            }
+
+            this.mapWindow(windowStart + window.limit());
+        }
+    }
+
+    private boolean endLine()
+    {
+        if(lineLength > 0 && lineBytes[lineLength - 1] == '\r')
+        {
+            lineLength--;
+        }
+
+        lineNumber++;
+        return true;
+    }
+
+    private void mapWindow(long position) throws IOException
+    {
+        this.windowStart = position;
+        this.window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_WINDOW_SIZE, fileSize - position));
+    }
+}
@@ -0,0 +1,115 @@
+package project.rayedchan.custom.objects;
+
+import java.util.ArrayList;
+
+/**
+ * @author rayedchan
+ * A structural diff of the changes that would be made to a metadata xml
+ * (E.g. ReconField tags added to a resource xml) without the modified xml being written.
+ * Each change is a tag identified by its tag name and "name" attribute.
+ *
+ * Format of each change
+ * <+|~|-> <tag name> "<name>"
+ * + tag is added
+ * ~ tag with the same name already exists; the import utility merges it with the existing tag
+ * - tag is removed
+ */
+public class MetadataChangePlan
+{
+    public static String ADDED = "+";
+    public static String UPDATED = "~";
+    public static String REMOVED = "-";
+
+    private ArrayList<String> changes = new ArrayList<String>();
+    private ArrayList<String> warnings = new ArrayList<String>();
+    private int numAdded = 0;
+    private int numUpdated = 0;
+    private int numRemoved = 0;
+
+    /*
+     * Record a change to a tag.
+     * @param   changeType  ADDED, UPDATED or REMOVED
+     * @param   tagName     tag name of the element [E.g. ReconField]
+     * @param   name        value of the name attribute of the element
+     */
+    public void addChange(String changeType, String tagName, String name)
+    {
+        if(ADDED.equals(changeType))
+        {
+            numAdded++;
+        }
+
+        else if(UPDATED.equals(changeType))
+        {
+            numUpdated++;
+        }
+
+        else if(REMOVED.equals(changeType))
+        {
+            numRemoved++;
+        }
+
+        changes.add(String.format("%s %s \"%s\"", changeType, tagName, name));
+    }
+
+    /*
+     * Record a change that cannot be applied to the xml.
+     * @param   warning     description of the change
+     */
+    public void addWarning(String warning)
+    {
+        warnings.add(warning);
+    }
+
+    /*
+     * Getter methods
+     */
+    public ArrayList<String> getChanges()
+    {
+        return this.changes;
+    }
+
+    public ArrayList<String> getWarnings()
+    {
+        return this.warnings;
+    }
+
+    public int getNumAdded()
+    {
+        return this.numAdded;
+    }
+
+    public int getNumUpdated()
+    {
+        return this.numUpdated;
+    }
+
+    public int getNumRemoved()
+    {
+        return this.numRemoved;
+    }
+
+    public boolean isEmpty()
+    {
+        return changes.isEmpty();
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder plan = new StringBuilder();
+
+        for(String change : changes)
+        {
+            plan.append(change).append("\n");
+        }
+
+        for(String warning : warnings)
+        {
+            plan.append("[Warning]: ").append(warning).append("\n");
+        }
+
+        plan.append(String.format("%s added, %s updated, %s removed.", numAdded, numUpdated, numRemoved));
+        return plan.toString();
+    }
+}
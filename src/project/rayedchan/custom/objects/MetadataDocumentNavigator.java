@@ -0,0 +1,249 @@
+package project.rayedchan.custom.objects;
+
+import java.util.HashMap;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * @author rayedchan
+ * Navigates a metadata xml Document (E.g. resource, process, process form or lookup xml).
+ * XPath expressions are compiled once, and anchor nodes and update timestamps are
+ * resolved once per document, so adding or removing many tags does not search the
+ * document for each tag.
+ *
+ * Named elements (tags with a "name" attribute) at a path are indexed by name the first
+ * time one of them is requested. Names are compared as values, never put in an expression.
+ * Tags appended or removed through the navigator keep the index up to date; the document
+ * should not be changed by other means while the navigator is used.
+ *
+ * Not thread safe.
+ */
+public class MetadataDocumentNavigator
+{
+    public static String NAME_ATTR = "name";
+
+    private Document document;
+    private XPath xpath = XPathFactory.newInstance().newXPath();
+    private HashMap<String,XPathExpression> expressions = new HashMap<String,XPathExpression>();
+    private HashMap<String,Node> nodesByPath = new HashMap<String,Node>();
+    private HashMap<String,String> textByPath = new HashMap<String,String>();
+    private HashMap<String,String> textByTagName = new HashMap<String,String>();
+    private HashMap<String,String> textByNamedElement = new HashMap<String,String>(); //path + "\n" + name + "\n" + child tag name
+    private HashMap<String,HashMap<String,Element>> namedElementsByPath = new HashMap<String,HashMap<String,Element>>();
+
+    /*
+     * @param   document    object representation of a metadata xml
+     */
+    public MetadataDocumentNavigator(Document document)
+    {
+        this.document = document;
+    }
+
+    public Document getDocument()
+    {
+        return this.document;
+    }
+
+    /*
+     * Compile an XPath expression. Each expression is compiled once.
+     * @param   expression  XPath expression
+     * @return  compiled expression
+     */
+    public XPathExpression compile(String expression) throws XPathExpressionException
+    {
+        XPathExpression compiledExpression = expressions.get(expression);
+
+        if(compiledExpression == null)
+        {
+            compiledExpression = xpath.compile(expression);
+            expressions.put(expression, compiledExpression);
+        }
+
+        return compiledExpression;
+    }
+
+    /*
+     * Get the first node at a path. The node is resolved once.
+     * @param   path    XPath expression evaluated against the document [E.g. xl-ddm-data/Resource]
+     * @return  first node at the path; null if there is no node at the path
+     */
+    public Node getNode(String path) throws XPathExpressionException
+    {
+        if(!nodesByPath.containsKey(path))
+        {
+            nodesByPath.put(path, (Node) this.compile(path).evaluate(document, XPathConstants.NODE));
+        }
+
+        return nodesByPath.get(path);
+    }
+
+    /*
+     * Get the text of the first node at a path. The text is resolved once.
+     * @param   path    XPath expression evaluated against the document [E.g. xl-ddm-data/Lookup/LKU_UPDATE]
+     * @return  text content of the node; null if there is no node at the path
+     */
+    public String getText(String path) throws XPathExpressionException
+    {
+        if(!textByPath.containsKey(path))
+        {
+            Node node = this.getNode(path);
+            textByPath.put(path, node == null ? null : node.getTextContent());
+        }
+
+        return textByPath.get(path);
+    }
+
+    /*
+     * Get the text of the first element with the given tag name regardless of depth.
+     * The text is resolved once.
+     * @param   tagName     tag name of the element [E.g. OBJ_UPDATE]
+     * @return  text content of the element; null if no element has the tag name
+     */
+    public String getFirstElementText(String tagName)
+    {
+        if(!textByTagName.containsKey(tagName))
+        {
+            Node node = document.getElementsByTagName(tagName).item(0);
+            textByTagName.put(tagName, node == null ? null : node.getTextContent());
+        }
+
+        return textByTagName.get(tagName);
+    }
+
+    /*
+     * Get an element at a path by its name attribute. Case sensitive.
+     * @param   path    path of the elements [E.g. xl-ddm-data/Resource/ReconField]
+     * @param   name    value of the name attribute
+     * @return  element; null if there is no element at the path with the name
+     */
+    public Element getNamedElement(String path, String name) throws XPathExpressionException
+    {
+        return this.getNamedElements(path).get(name);
+    }
+
+    /*
+     * Get the text of the first element with the given tag name inside a named element.
+     * The text is resolved once.
+     * @param   path            path of the named elements [E.g. xl-ddm-data/*]
+     * @param   name            value of the name attribute
+     * @param   childTagName    tag name of the child element regardless of depth [E.g. SDK_UPDATE]
+     * @return  text content of the child element; null if there is no such named element or child element
+     */
+    public String getNamedElementText(String path, String name, String childTagName) throws XPathExpressionException
+    {
+        String key = path + "\n" + name + "\n" + childTagName;
+
+        if(!textByNamedElement.containsKey(key))
+        {
+            Element element = this.getNamedElement(path, name);
+            Node node = element == null ? null : element.getElementsByTagName(childTagName).item(0);
+            textByNamedElement.put(key, node == null ? null : node.getTextContent());
+        }
+
+        return textByNamedElement.get(key);
+    }
+
+    /*
+     * Append an element to the first node at the parent path.
+     * @param   parentPath  path of the parent node [E.g. xl-ddm-data/Resource]
+     * @param   element     element created by the document of the navigator
+     * @return  boolean value to indicate if the parent node was found and the element appended
+     */
+    public boolean appendChild(String parentPath, Element element) throws XPathExpressionException
+    {
+        Node parentNode = this.getNode(parentPath);
+
+        if(parentNode == null)
+        {
+            return false;
+        }
+
+        parentNode.appendChild(element);
+        HashMap<String,Element> namedElements = namedElementsByPath.get(parentPath + "/" + element.getTagName());
+
+        if(namedElements != null && !namedElements.containsKey(element.getAttribute(NAME_ATTR)))
+        {
+            namedElements.put(element.getAttribute(NAME_ATTR), element);
+        }
+
+        return true;
+    }
+
+    /*
+     * Append an element to the element at the parent path whose name attribute matches. Case sensitive.
+     * @param   parentPath  path of the parent elements [E.g. xl-ddm-data/*]
+     * @param   parentName  value of the name attribute of the parent element
+     * @param   element     element created by the document of the navigator
+     * @return  boolean value to indicate if the parent element was found and the element appended
+     */
+    public boolean appendChild(String parentPath, String parentName, Element element) throws XPathExpressionException
+    {
+        Element parentElement = this.getNamedElement(parentPath, parentName);
+
+        if(parentElement == null)
+        {
+            return false;
+        }
+
+        parentElement.appendChild(element);
+        namedElementsByPath.remove(parentPath + "/" + element.getTagName()); //indexed across all the parents; built again when requested
+        return true;
+    }
+
+    /*
+     * Remove an element at a path by its name attribute. Case sensitive.
+     * @param   path    path of the elements [E.g. xl-ddm-data/Resource/ReconField]
+     * @param   name    value of the name attribute
+     * @return  boolean value to indicate if the element was found and removed
+     */
+    public boolean removeNamedElement(String path, String name) throws XPathExpressionException
+    {
+        Element element = this.getNamedElements(path).remove(name);
+
+        if(element == null)
+        {
+            return false;
+        }
+
+        element.getParentNode().removeChild(element);
+        return true;
+    }
+
+    /*
+     * Index the elements at a path by name. The first element found with a name is kept.
+     * @param   path    path of the elements
+     * @return  elements by name attribute
+     */
+    private HashMap<String,Element> getNamedElements(String path) throws XPathExpressionException
+    {
+        HashMap<String,Element> namedElements = namedElementsByPath.get(path);
+
+        if(namedElements == null)
+        {
+            NodeList nodes = (NodeList) this.compile(path).evaluate(document, XPathConstants.NODESET);
+            int numNodes = nodes.getLength();
+            namedElements = new HashMap<String,Element>(numNodes * 2);
+
+            for(int i = 0; i < numNodes; i++)
+            {
+                Element element = (Element) nodes.item(i);
+
+                if(!namedElements.containsKey(element.getAttribute(NAME_ATTR)))
+                {
+                    namedElements.put(element.getAttribute(NAME_ATTR), element);
+                }
+            }
+
+            namedElementsByPath.put(path, namedElements);
+        }
+
+        return namedElements;
+    }
+}
@@ -0,0 +1,55 @@
+package project.rayedchan.custom.objects;
+
+import java.io.IOException;
+
+/**
+ * @author rayedchan
+ * Options of a flat file change that is imported into the metadata xml of an object
+ * [E.g. ReconFieldUtility.addReconFieldsDSFF, ProcessTaskUtility.createUpdateProcessTaskDSFF].
+ * Every option other than the snapshot is off by default, which is the behavior of the methods without options.
+ * A snapshot is taken in MetadataSnapshotStore.getDefaultStore unless another store, or null, is set.
+ */
+public class MetadataImportOptions
+{
+    private boolean preloadReconFields = false; //validate against a ReconFieldIndex instead of a query per record
+    private boolean planOnly = false; //print the changes without importing
+    private boolean useDefaultSnapshotStore = true;
+    private MetadataSnapshotStore snapshotStore = null; //store of the xml before import; null to not take a snapshot
+
+    /*
+     * Getter methods
+     */
+    public boolean getPreloadReconFields()
+    {
+        return this.preloadReconFields;
+    }
+
+    public boolean getPlanOnly()
+    {
+        return this.planOnly;
+    }
+
+    public MetadataSnapshotStore getSnapshotStore() throws IOException
+    {
+        return this.useDefaultSnapshotStore ? MetadataSnapshotStore.getDefaultStore() : this.snapshotStore;
+    }
+
+    /*
+     * Setter methods
+     */
+    public void setPreloadReconFields(boolean preloadReconFields)
+    {
+        this.preloadReconFields = preloadReconFields;
+    }
+
+    public void setPlanOnly(boolean planOnly)
+    {
+        this.planOnly = planOnly;
+    }
+
+    public void setSnapshotStore(MetadataSnapshotStore snapshotStore)
+    {
+        this.useDefaultSnapshotStore = false;
+        this.snapshotStore = snapshotStore;
+    }
+}
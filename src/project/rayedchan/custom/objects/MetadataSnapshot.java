@@ -0,0 +1,53 @@
+package project.rayedchan.custom.objects;
+
+import java.util.Date;
+
+/**
+ * @author rayedchan
+ * An class-object representation of a record in the index of a MetadataSnapshotStore.
+ * A snapshot is the metadata xml of an object exported before it was imported.
+ */
+public class MetadataSnapshot
+{
+    private String snapshotId; //SHA-256 of the xml
+    private long createTime; //milliseconds since epoch
+    private String objectType; //Deployment Manager type [E.g. Resource, Process]
+    private String objectName;
+
+    public MetadataSnapshot(String snapshotId, long createTime, String objectType, String objectName)
+    {
+        this.snapshotId = snapshotId;
+        this.createTime = createTime;
+        this.objectType = objectType;
+        this.objectName = objectName;
+    }
+
+    /*
+     * Getter methods
+     */
+    public String getSnapshotId()
+    {
+        return this.snapshotId;
+    }
+
+    public long getCreateTime()
+    {
+        return this.createTime;
+    }
+
+    public String getObjectType()
+    {
+        return this.objectType;
+    }
+
+    public String getObjectName()
+    {
+        return this.objectName;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s %s %s [%s]", snapshotId.substring(0, 12), new Date(createTime), objectType, objectName);
+    }
+}
@@ -0,0 +1,307 @@
+package project.rayedchan.custom.objects;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.StringTokenizer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @author rayedchan
+ * A local store of the metadata xml of objects taken before they are imported, so an import
+ * can be rolled back by importing the snapshot.
+ *
+ * Each xml is saved once, compressed, in a file named by the SHA-256 of its content
+ * [<snapshot id>.xml.gz]; taking a snapshot of an unchanged object does not save the xml again.
+ * The index is a tab delimited file with a record appended for each snapshot taken.
+ * <snapshot id>    <create time in milliseconds>    <object type>    <object name>
+ *
+ * The imports of metadata xml take a snapshot in the default store [getDefaultStore] unless
+ * another store, or no store, is given.
+ */
+public class MetadataSnapshotStore
+{
+    public static String INDEX_FILE_NAME = "snapshots.txt";
+    public static String SNAPSHOT_FILE_EXTENSION = ".xml.gz";
+    public static String DEFAULT_SNAPSHOT_DIRECTORY = "snapshots"; //relative to the working directory
+    public static final int LOAD_BUFFER_SIZE = 64 * 1024; //Size of the read buffer and initial capacity of a loaded xml
+
+    private static MetadataSnapshotStore defaultStore = null;
+    private File snapshotDirectory;
+    private File indexFile;
+
+    /*
+     * Opens an existing store or creates a new one.
+     * @param   snapshotDirectoryName   Path of the snapshot directory on local machine
+     */
+    public MetadataSnapshotStore(String snapshotDirectoryName) throws IOException
+    {
+        this.snapshotDirectory = new File(snapshotDirectoryName);
+        this.indexFile = new File(snapshotDirectory, INDEX_FILE_NAME);
+
+        if(!snapshotDirectory.isDirectory() && !snapshotDirectory.mkdirs())
+        {
+            throw new IOException(String.format("Snapshot directory %s could not be created.", snapshotDirectoryName));
+        }
+    }
+
+    /*
+     * Get the store used when no snapshot store is given. The store is opened in 
+     * DEFAULT_SNAPSHOT_DIRECTORY the first time it is requested.
+     * @return  the default snapshot store
+     */
+    public static synchronized MetadataSnapshotStore getDefaultStore() throws IOException
+    {
+        if(defaultStore == null)
+        {
+            defaultStore = new MetadataSnapshotStore(DEFAULT_SNAPSHOT_DIRECTORY);
+        }
+
+        return defaultStore;
+    }
+
+    /*
+     * Save the xml of an object and record the snapshot in the index.
+     * @param   objectType  type of the object in the Deployment Manager [E.g. Resource, Process]
+     * @param   objectName  name of the object
+     * @param   xml         exported xml of the object
+     * @return  the snapshot
+     */
+    public synchronized MetadataSnapshot save(String objectType, String objectName, String xml) throws IOException
+    {
+        byte [] content = xml.getBytes("UTF-8");
+        String snapshotId = getContentHash(content);
+        File snapshotFile = new File(snapshotDirectory, snapshotId + SNAPSHOT_FILE_EXTENSION);
+
+        //Content addressed; an identical xml is already saved
+        if(!snapshotFile.exists())
+        {
+            File tempFile = new File(snapshotDirectory, snapshotId + SNAPSHOT_FILE_EXTENSION + ".tmp");
+            OutputStream out = new GZIPOutputStream(new FileOutputStream(tempFile));
+
+            try
+            {
+                out.write(content);
+            }
+
+            finally
+            {
+                out.close();
+            }
+
+            if(!tempFile.renameTo(snapshotFile))
+            {
+                tempFile.delete();
+                throw new IOException(String.format("Snapshot file %s could not be saved.", snapshotFile));
+            }
+        }
+
+        MetadataSnapshot snapshot = new MetadataSnapshot(snapshotId, System.currentTimeMillis(), objectType, objectName);
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(indexFile, true), "UTF-8"));
+
+        try
+        {
+            writer.write(String.format("%s\t%s\t%s\t%s", snapshot.getSnapshotId(), snapshot.getCreateTime(), objectType, objectName));
+            writer.newLine();
+        }
+
+        finally
+        {
+            writer.close();
+        }
+
+        return snapshot;
+    }
+
+    /*
+     * Save the xml of an object in a snapshot store before it is imported.
+     * @param   snapshotStore   store of the xml before import; null to not take a snapshot
+     * @param   objectType      type of the object in the Deployment Manager [E.g. Resource, Process]
+     * @param   objectName      name of the object
+     * @param   xml             exported xml of the object
+     * @return  the snapshot; null if snapshotStore is null
+     */
+    public static MetadataSnapshot saveSnapshot(MetadataSnapshotStore snapshotStore, String objectType, String objectName, String xml) throws IOException
+    {
+        if(snapshotStore == null)
+        {
+            return null;
+        }
+
+        MetadataSnapshot snapshot = snapshotStore.save(objectType, objectName, xml);
+        System.out.println("[Info]: Saved snapshot " + snapshot);
+        return snapshot;
+    }
+
+    /*
+     * Get the xml of a snapshot. The content is verified against the snapshot id.
+     * @param   snapshotId  id of the snapshot
+     * @return  the xml of the object when the snapshot was taken
+     */
+    public synchronized String load(String snapshotId) throws IOException
+    {
+        File snapshotFile = new File(snapshotDirectory, snapshotId + SNAPSHOT_FILE_EXTENSION);
+
+        if(!snapshotId.matches("[0-9a-f]{64}") || !snapshotFile.exists())
+        {
+            throw new IOException(String.format("Snapshot %s does not exist.", snapshotId));
+        }
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream(LOAD_BUFFER_SIZE);
+        InputStream in = new GZIPInputStream(new FileInputStream(snapshotFile));
+
+        try
+        {
+            byte [] buffer = new byte[LOAD_BUFFER_SIZE];
+            int numBytesRead;
+
+            while((numBytesRead = in.read(buffer)) != -1)
+            {
+                content.write(buffer, 0, numBytesRead);
+            }
+        }
+
+        finally
+        {
+            in.close();
+        }
+
+        if(!snapshotId.equals(getContentHash(content.toByteArray())))
+        {
+            throw new IOException(String.format("Snapshot %s is corrupted.", snapshotId));
+        }
+
+        return content.toString("UTF-8");
+    }
+
+    /*
+     * Get all the snapshots recorded in the index.
+     * @return  snapshots in the order they were taken
+     */
+    public synchronized ArrayList<MetadataSnapshot> getSnapshots() throws IOException
+    {
+        ArrayList<MetadataSnapshot> snapshots = new ArrayList<MetadataSnapshot>();
+
+        if(!indexFile.exists())
+        {
+            return snapshots;
+        }
+
+        BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), "UTF-8"));
+
+        try
+        {
+            String strLine;
+
+            while((strLine = br.readLine()) != null)
+            {
+                StringTokenizer st = new StringTokenizer(strLine, "\t");
+
+                //Skip a record that was not completely written
+                if(st.countTokens() != 4)
+                {
+                    continue;
+                }
+
+                String snapshotId = st.nextToken();
+                long createTime = Long.parseLong(st.nextToken());
+                snapshots.add(new MetadataSnapshot(snapshotId, createTime, st.nextToken(), st.nextToken()));
+            }
+        }
+
+        finally
+        {
+            br.close();
+        }
+
+        return snapshots;
+    }
+
+    /*
+     * Get the snapshots of an object.
+     * @param   objectType  type of the object in the Deployment Manager
+     * @param   objectName  name of the object. Case insensitive.
+     * @return  snapshots of the object in the order they were taken
+     */
+    public synchronized ArrayList<MetadataSnapshot> getSnapshots(String objectType, String objectName) throws IOException
+    {
+        ArrayList<MetadataSnapshot> snapshots = new ArrayList<MetadataSnapshot>();
+
+        for(MetadataSnapshot snapshot : this.getSnapshots())
+        {
+            if(snapshot.getObjectType().equals(objectType) && snapshot.getObjectName().equalsIgnoreCase(objectName))
+            {
+                snapshots.add(snapshot);
+            }
+        }
+
+        return snapshots;
+    }
+
+    /*
+     * Find a snapshot by its id or the beginning of its id [E.g. the 12 characters printed by MetadataSnapshot.toString].
+     * @param   snapshotIdPrefix    id or beginning of the id of the snapshot
+     * @return  latest record of the snapshot; null if no snapshot matches or more than one snapshot matches
+     */
+    public synchronized MetadataSnapshot getSnapshot(String snapshotIdPrefix) throws IOException
+    {
+        MetadataSnapshot match = null;
+
+        for(MetadataSnapshot snapshot : this.getSnapshots())
+        {
+            if(!snapshot.getSnapshotId().startsWith(snapshotIdPrefix.toLowerCase()))
+            {
+                continue;
+            }
+
+            if(match != null && !match.getSnapshotId().equals(snapshot.getSnapshotId()))
+            {
+                System.out.println("[Warning]: More than one snapshot starts with " + snapshotIdPrefix + ".");
+                return null;
+            }
+
+            match = snapshot;
+        }
+
+        return match;
+    }
+
+    /*
+     * Computes the SHA-256 hash of the content of a snapshot.
+     * @param   content     bytes to be hashed
+     * @return  hex representation of the hash; the snapshot id
+     */
+    private static String getContentHash(byte [] content)
+    {
+        try
+        {
+            byte [] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+
+            for(byte b : hash)
+            {
+                hex.append(String.format("%02x", b));
+            }
+
+            return hex.toString();
+        }
+
+        catch (NoSuchAlgorithmException ex)
+        {
+            //Every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+}
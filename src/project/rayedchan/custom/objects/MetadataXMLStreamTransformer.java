@@ -0,0 +1,437 @@
+package project.rayedchan.custom.objects;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartDocument;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * @author rayedchan
+ * Applies insertions and removals of elements to a metadata xml (E.g. resource or process xml
+ * exported by the Deployment Manager) without parsing the xml into a Document. The xml is
+ * copied event by event from the reader to the writer; only the elements to be inserted are
+ * held in memory.
+ *
+ * Elements are identified by the path of tag names from the root element
+ * [E.g. xl-ddm-data/Resource/ReconField]. Inserted elements are appended as the last children
+ * of the first element found at the parent path, which is the same as Node.appendChild, or of
+ * the element at the parent path with a given "name" attribute when the xml holds many objects.
+ * Removed elements are identified by their tag name and "name" attribute. Names are compared
+ * as values, never evaluated as expressions.
+ *
+ * Unlike the DOM Transformer, the attributes of the copied tags keep their original order.
+ *
+ * The changes can also be planned without writing the xml [plan], which only reads the xml
+ * and reports the tags that would be added, updated, or removed.
+ */
+public class MetadataXMLStreamTransformer
+{
+    public static String NAME_ATTR = "name";
+
+    private LinkedHashMap<String,ArrayList<Element>> insertionsByParentKey = new LinkedHashMap<String,ArrayList<Element>>(); //parent path, or parent path + "\n" + name
+    private LinkedHashMap<String,LinkedHashSet<String>> removalsByPath = new LinkedHashMap<String,LinkedHashSet<String>>(); //element path -> values of name attribute
+    private HashSet<String> removed = new HashSet<String>(); //path + "/" + name of each element removed
+    private XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+
+    /*
+     * Append an element to the first element found at the parent path.
+     * @param   parentPath  path of the parent element [E.g. xl-ddm-data/Resource]
+     * @param   element     element to insert; may belong to any Document
+     */
+    public void appendChild(String parentPath, Element element)
+    {
+        this.addInsertion(parentPath, element);
+    }
+
+    /*
+     * Append an element to the element at the parent path whose name attribute matches. Case sensitive.
+     * @param   parentPath  path of the parent element [E.g. xl-ddm-data/Resource]
+     * @param   parentName  value of the name attribute of the parent element
+     * @param   element     element to insert; may belong to any Document
+     */
+    public void appendChild(String parentPath, String parentName, Element element)
+    {
+        this.addInsertion(getParentKey(parentPath, parentName), element);
+    }
+
+    /*
+     * Remove every element at the path whose name attribute matches. Case sensitive.
+     * @param   path    path of the element [E.g. xl-ddm-data/Resource/ReconField]
+     * @param   name    value of the name attribute of the element to remove
+     */
+    public void removeElement(String path, String name)
+    {
+        LinkedHashSet<String> names = removalsByPath.get(path);
+
+        if(names == null)
+        {
+            names = new LinkedHashSet<String>();
+            removalsByPath.put(path, names);
+        }
+
+        names.add(name);
+    }
+
+    /*
+     * Determine if an element was removed by the last transform.
+     * @param   path    path of the element
+     * @param   name    value of the name attribute of the element
+     * @return  boolean value to indicate if the element was found and removed
+     */
+    public boolean wasRemoved(String path, String name)
+    {
+        return removed.contains(path + "/" + name);
+    }
+
+    /*
+     * @param   xmlContent  metadata xml
+     * @return  metadata xml with the insertions and removals applied
+     */
+    public String transform(String xmlContent) throws XMLStreamException
+    {
+        StringWriter output = new StringWriter(xmlContent.length());
+        this.transform(new StringReader(xmlContent), output);
+        return output.toString();
+    }
+
+    /*
+     * Copy the metadata xml from the reader to the writer applying the insertions and removals.
+     * An XMLStreamException is thrown after the xml is copied if no element was found at the
+     * parent path of an insertion; the output must then be discarded.
+     * @param   input   metadata xml
+     * @param   output  destination of the transformed xml
+     */
+    public void transform(Reader input, Writer output) throws XMLStreamException
+    {
+        XMLEventReader reader = XMLInputFactory.newInstance().createXMLEventReader(input);
+        XMLEventWriter writer = XMLOutputFactory.newInstance().createXMLEventWriter(output);
+        ArrayList<String> pathStack = new ArrayList<String>(); //path of each open element
+        ArrayList<String> nameStack = new ArrayList<String>(); //name attribute of each open element; null if it has none
+        HashSet<String> insertedParentKeys = new HashSet<String>();
+        int skipDepth = 0; //depth inside an element being removed
+        removed.clear();
+
+        try
+        {
+            while(reader.hasNext())
+            {
+                XMLEvent event = reader.nextEvent();
+
+                if(event.isStartElement())
+                {
+                    StartElement startElement = event.asStartElement();
+                    String parentPath = pathStack.isEmpty() ? "" : pathStack.get(pathStack.size() - 1) + "/";
+                    String path = parentPath + startElement.getName().getLocalPart();
+                    Attribute nameAttr = startElement.getAttributeByName(new QName(NAME_ATTR));
+                    pathStack.add(path);
+                    nameStack.add(nameAttr == null ? null : nameAttr.getValue());
+
+                    if(skipDepth > 0)
+                    {
+                        skipDepth++;
+                        continue;
+                    }
+
+                    LinkedHashSet<String> names = removalsByPath.get(path);
+
+                    if(names != null && nameAttr != null && names.contains(nameAttr.getValue()))
+                    {
+                        removed.add(path + "/" + nameAttr.getValue());
+                        skipDepth = 1;
+                        continue;
+                    }
+                }
+
+                else if(event.isEndElement())
+                {
+                    String path = pathStack.remove(pathStack.size() - 1);
+                    String name = nameStack.remove(nameStack.size() - 1);
+
+                    if(skipDepth > 0)
+                    {
+                        skipDepth--;
+                        continue;
+                    }
+
+                    //Only the first element found at the parent path, or with the parent name, receives the insertions
+                    for(String parentKey : getParentKeys(path, name))
+                    {
+                        ArrayList<Element> insertions = insertionsByParentKey.get(parentKey);
+
+                        if(insertions != null && insertedParentKeys.add(parentKey))
+                        {
+                            for(Element element : insertions)
+                            {
+                                this.writeElement(writer, element);
+                            }
+                        }
+                    }
+                }
+
+                else if(skipDepth > 0)
+                {
+                    continue;
+                }
+
+                else if(event.isStartDocument() && ((StartDocument) event).encodingSet())
+                {
+                    //Keep the encoding declared in the xml declaration
+                    StartDocument startDocument = (StartDocument) event;
+                    event = eventFactory.createStartDocument(startDocument.getCharacterEncodingScheme(), startDocument.getVersion());
+                }
+
+                writer.add(event);
+            }
+
+            writer.flush();
+        }
+
+        finally
+        {
+            reader.close();
+            writer.close();
+        }
+
+        //An insertion whose parent is missing would otherwise be dropped without notice
+        for(String parentKey : insertionsByParentKey.keySet())
+        {
+            if(!insertedParentKeys.contains(parentKey))
+            {
+                throw new XMLStreamException(String.format("%s element(s) cannot be added. No element found at %s.", insertionsByParentKey.get(parentKey).size(), getParentDescription(parentKey)));
+            }
+        }
+    }
+
+    /*
+     * @param   xmlContent  metadata xml
+     * @return  changes the transform would make to the xml
+     */
+    public MetadataChangePlan plan(String xmlContent) throws XMLStreamException
+    {
+        return this.plan(new StringReader(xmlContent));
+    }
+
+    /*
+     * Determine the changes the transform would make to the metadata xml without writing it.
+     * An inserted element is an update if an element with the same tag name and name attribute
+     * already exists in the parent element it would be appended to.
+     * @param   input   metadata xml
+     * @return  changes the transform would make to the xml
+     */
+    public MetadataChangePlan plan(Reader input) throws XMLStreamException
+    {
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(input);
+        ArrayList<String> pathStack = new ArrayList<String>(); //path of each open element
+        ArrayList<String[]> parentKeyStack = new ArrayList<String[]>(); //parent keys of each open element
+        HashSet<String> foundParentKeys = new HashSet<String>(); //parent keys found for the insertions
+        HashSet<String> closedParentKeys = new HashSet<String>(); //parent keys whose first element has ended
+        HashSet<String> existingNames = new HashSet<String>(); //parent key + "/" + tag name + "/" + name of each element in the first element of a parent key
+        HashSet<String> foundNames = new HashSet<String>(); //path + "/" + name of each element to remove that was found
+
+        try
+        {
+            while(reader.hasNext())
+            {
+                int eventType = reader.next();
+
+                if(eventType == XMLStreamConstants.START_ELEMENT)
+                {
+                    String parentPath = pathStack.isEmpty() ? "" : pathStack.get(pathStack.size() - 1);
+                    String path = (parentPath.isEmpty() ? "" : parentPath + "/") + reader.getLocalName();
+                    String name = reader.getAttributeValue(null, NAME_ATTR);
+                    String [] parentKeys = getParentKeys(path, name);
+                    String [] enclosingParentKeys = parentKeyStack.isEmpty() ? new String[0] : parentKeyStack.get(parentKeyStack.size() - 1);
+                    pathStack.add(path);
+                    parentKeyStack.add(parentKeys);
+
+                    for(String parentKey : parentKeys)
+                    {
+                        if(insertionsByParentKey.containsKey(parentKey))
+                        {
+                            foundParentKeys.add(parentKey);
+                        }
+                    }
+
+                    if(name == null)
+                    {
+                        continue;
+                    }
+
+                    for(String parentKey : enclosingParentKeys)
+                    {
+                        if(insertionsByParentKey.containsKey(parentKey) && !closedParentKeys.contains(parentKey))
+                        {
+                            existingNames.add(parentKey + "/" + reader.getLocalName() + "/" + name);
+                        }
+                    }
+
+                    LinkedHashSet<String> names = removalsByPath.get(path);
+
+                    if(names != null && names.contains(name))
+                    {
+                        foundNames.add(path + "/" + name);
+                    }
+                }
+
+                else if(eventType == XMLStreamConstants.END_ELEMENT)
+                {
+                    pathStack.remove(pathStack.size() - 1);
+
+                    for(String parentKey : parentKeyStack.remove(parentKeyStack.size() - 1))
+                    {
+                        closedParentKeys.add(parentKey);
+                    }
+                }
+            }
+        }
+
+        finally
+        {
+            reader.close();
+        }
+
+        MetadataChangePlan plan = new MetadataChangePlan();
+
+        for(String parentKey : insertionsByParentKey.keySet())
+        {
+            for(Element element : insertionsByParentKey.get(parentKey))
+            {
+                String name = element.getAttribute(NAME_ATTR);
+
+                if(!foundParentKeys.contains(parentKey))
+                {
+                    plan.addWarning(String.format("%s \"%s\" cannot be added. No element found at %s.", element.getTagName(), name, getParentDescription(parentKey)));
+                }
+
+                else if(existingNames.contains(parentKey + "/" + element.getTagName() + "/" + name))
+                {
+                    plan.addChange(MetadataChangePlan.UPDATED, element.getTagName(), name);
+                }
+
+                else
+                {
+                    plan.addChange(MetadataChangePlan.ADDED, element.getTagName(), name);
+                }
+            }
+        }
+
+        for(String path : removalsByPath.keySet())
+        {
+            String tagName = path.substring(path.lastIndexOf('/') + 1);
+
+            for(String name : removalsByPath.get(path))
+            {
+                if(foundNames.contains(path + "/" + name))
+                {
+                    plan.addChange(MetadataChangePlan.REMOVED, tagName, name);
+                }
+
+                else
+                {
+                    plan.addWarning(String.format("%s \"%s\" cannot be removed. It is not in the xml.", tagName, name));
+                }
+            }
+        }
+
+        return plan;
+    }
+
+    private void addInsertion(String parentKey, Element element)
+    {
+        ArrayList<Element> insertions = insertionsByParentKey.get(parentKey);
+
+        if(insertions == null)
+        {
+            insertions = new ArrayList<Element>();
+            insertionsByParentKey.put(parentKey, insertions);
+        }
+
+        insertions.add(element);
+    }
+
+    /*
+     * A parent key is the parent path, or the parent path and the name attribute of the parent.
+     * A newline cannot be part of a tag name, so the two kinds of keys never collide.
+     */
+    private static String getParentKey(String path, String name)
+    {
+        return path + "\n" + name;
+    }
+
+    /*
+     * @param   path    path of an element
+     * @param   name    name attribute of the element; null if it has none
+     * @return  keys of the insertions the element may receive
+     */
+    private static String [] getParentKeys(String path, String name)
+    {
+        return name == null ? new String[] {path} : new String[] {path, getParentKey(path, name)};
+    }
+
+    private static String getParentDescription(String parentKey)
+    {
+        int separator = parentKey.indexOf('\n');
+        return separator == -1 ? parentKey : String.format("%s with name \"%s\"", parentKey.substring(0, separator), parentKey.substring(separator + 1));
+    }
+
+    /*
+     * Write an element and all of its descendants as events.
+     * @param   writer      destination of the events
+     * @param   element     element to write
+     */
+    private void writeElement(XMLEventWriter writer, Element element) throws XMLStreamException
+    {
+        String tagName = element.getTagName();
+        NamedNodeMap attributes = element.getAttributes();
+        ArrayList<Attribute> eventAttributes = new ArrayList<Attribute>(attributes.getLength());
+
+        for(int i = 0; i < attributes.getLength(); i++)
+        {
+            Node attribute = attributes.item(i);
+            eventAttributes.add(eventFactory.createAttribute(attribute.getNodeName(), attribute.getNodeValue()));
+        }
+
+        Iterator<Attribute> attributeIterator = eventAttributes.iterator();
+        writer.add(eventFactory.createStartElement("", "", tagName, attributeIterator, null));
+        NodeList children = element.getChildNodes();
+
+        for(int i = 0; i < children.getLength(); i++)
+        {
+            Node child = children.item(i);
+
+            if(child.getNodeType() == Node.ELEMENT_NODE)
+            {
+                this.writeElement(writer, (Element) child);
+            }
+
+            else if(child.getNodeType() == Node.TEXT_NODE || child.getNodeType() == Node.CDATA_SECTION_NODE)
+            {
+                writer.add(eventFactory.createCharacters(child.getNodeValue()));
+            }
+        }
+
+        writer.add(eventFactory.createEndElement("", "", tagName));
+    }
+}
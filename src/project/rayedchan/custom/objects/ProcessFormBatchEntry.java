@@ -0,0 +1,142 @@
+package project.rayedchan.custom.objects;
+
+/**
+ * @author rayedchan
+ * An class-object representation of a process form in a batch job [manifest record or export]
+ * along with the metadata of the process form and the outcome of running it.
+ */
+public class ProcessFormBatchEntry 
+{
+    private String processFormName;
+    private String fileName;
+    private String delimiter;
+    private int lineNumber; //Line number in manifest
+    private long processFormKey = -1; //SDK_KEY
+    private int processFormVersion = -1; //version the fields are added to
+    private boolean versionLocked = false; //latest version was locked when the metadata was fetched
+    private boolean newVersionCreated = false;
+    private int numFields = 0; //Number of fields exported
+    private boolean success = false;
+    private long elapsedTime = 0; //milliseconds
+    private String errorMessage = null;
+    
+    public ProcessFormBatchEntry(String processFormName, String fileName, String delimiter, int lineNumber)
+    {
+        this.processFormName = processFormName;
+        this.fileName = fileName;
+        this.delimiter = delimiter;
+        this.lineNumber = lineNumber;
+    }
+    
+    /*
+     * Getter methods
+     */
+    public String getProcessFormName()
+    {
+        return this.processFormName;
+    }
+    
+    public String getFileName()
+    {
+        return this.fileName;
+    }
+    
+    public String getDelimiter()
+    {
+        return this.delimiter;
+    }
+    
+    public int getLineNumber()
+    {
+        return this.lineNumber;
+    }
+    
+    public long getProcessFormKey()
+    {
+        return this.processFormKey;
+    }
+    
+    public int getProcessFormVersion()
+    {
+        return this.processFormVersion;
+    }
+    
+    public boolean getVersionLocked()
+    {
+        return this.versionLocked;
+    }
+    
+    public boolean getNewVersionCreated()
+    {
+        return this.newVersionCreated;
+    }
+    
+    public int getNumFields()
+    {
+        return this.numFields;
+    }
+    
+    public boolean getSuccess()
+    {
+        return this.success;
+    }
+    
+    public long getElapsedTime()
+    {
+        return this.elapsedTime;
+    }
+    
+    public String getErrorMessage()
+    {
+        return this.errorMessage;
+    }
+    
+    /*
+     * Setter methods
+     */
+    public void setProcessFormKey(long processFormKey)
+    {
+        this.processFormKey = processFormKey;
+    }
+    
+    public void setProcessFormVersion(int processFormVersion)
+    {
+        this.processFormVersion = processFormVersion;
+    }
+    
+    public void setVersionLocked(boolean versionLocked)
+    {
+        this.versionLocked = versionLocked;
+    }
+    
+    public void setNewVersionCreated(boolean newVersionCreated)
+    {
+        this.newVersionCreated = newVersionCreated;
+    }
+    
+    public void setNumFields(int numFields)
+    {
+        this.numFields = numFields;
+    }
+    
+    public void setSuccess(boolean success)
+    {
+        this.success = success;
+    }
+    
+    public void setElapsedTime(long elapsedTime)
+    {
+        this.elapsedTime = elapsedTime;
+    }
+    
+    public void setErrorMessage(String errorMessage)
+    {
+        this.errorMessage = errorMessage;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return String.format("Line %s: %s [%s]", lineNumber, processFormName, fileName);
+    }
+}
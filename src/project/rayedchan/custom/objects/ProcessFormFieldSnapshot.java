@@ -0,0 +1,172 @@
+package project.rayedchan.custom.objects;
+
+import Thor.API.Exceptions.tcAPIException;
+import Thor.API.Exceptions.tcColumnNotFoundException;
+import Thor.API.tcResultSet;
+import java.util.HashMap;
+import java.util.Set;
+
+/**
+ * @author rayedchan
+ * A snapshot of all the fields in a version of a process form.
+ * The fields are fetched once and indexed by field label, column name, and field key
+ * so checks against the form do not require a call to OIM or a scan of every field.
+ *
+ * Field label lookups are case insensitive except getFieldKeyByFieldLabel, which
+ * is case sensitive. Column name lookups are case insensitive.
+ */
+public class ProcessFormFieldSnapshot
+{
+    private long processFormKey;
+    private int processFormVersion;
+    private HashMap<Long,ProcessFormField> fieldsByKey = new HashMap<Long,ProcessFormField>();
+    private HashMap<Long,String> columnNamesByKey = new HashMap<Long,String>();
+    private HashMap<String,Long> fieldKeysByLabel = new HashMap<String,Long>(); //exact field label
+    private HashMap<String,Long> fieldKeysByLowerCaseLabel = new HashMap<String,Long>();
+    private HashMap<String,Long> fieldKeysByColumnName = new HashMap<String,Long>(); //uppercase column name
+
+    /*
+     * @param   processFormKey      SDK_KEY
+     * @param   processFormVersion  version the fields belong to
+     * @param   fieldResultSet      all the fields of the process form version [tcFormDefinitionOperationsIntf.getFormFields]
+     */
+    public ProcessFormFieldSnapshot(long processFormKey, int processFormVersion, tcResultSet fieldResultSet) throws tcAPIException, tcColumnNotFoundException
+    {
+        this.processFormKey = processFormKey;
+        this.processFormVersion = processFormVersion;
+        int numRows = fieldResultSet.getTotalRowCount();
+
+        for(int i = 0; i < numRows; i++)
+        {
+            fieldResultSet.goToRow(i);
+            Long fieldKey = Long.parseLong(fieldResultSet.getStringValue("Structure Utility.Additional Columns.Key"));
+            String fieldLabel = fieldResultSet.getStringValue("Structure Utility.Additional Columns.Field Label");
+            String columnName = fieldResultSet.getStringValue("Structure Utility.Additional Columns.Name");
+            String encrypted = fieldResultSet.getStringValue("Structure Utility.Additional Columns.Encrypted");
+
+            ProcessFormField field = new ProcessFormField(processFormKey, processFormVersion);
+            field.setFieldName(fieldLabel);
+            field.setFieldType(fieldResultSet.getStringValue("Structure Utility.Additional Columns.Field Type"));
+            field.setVariantType(fieldResultSet.getStringValue("Structure Utility.Additional Columns.Variant Type"));
+            field.setLength(parseInt(fieldResultSet.getStringValue("Structure Utility.Additional Columns.Length")));
+            field.setOrder(parseInt(fieldResultSet.getStringValue("Structure Utility.Additional Columns.Order")));
+            field.setDefaultValue(fieldResultSet.getStringValue("Structure Utility.Additional Columns.Default Value"));
+            field.setProfileEnabled(fieldResultSet.getStringValue("Structure Utility.Additional Columns.Profile Enabled"));
+            field.setSecure("1".equals(encrypted) || "true".equalsIgnoreCase(encrypted));
+
+            fieldsByKey.put(fieldKey, field);
+            columnNamesByKey.put(fieldKey, columnName);
+
+            if(!fieldKeysByLabel.containsKey(fieldLabel))
+            {
+                fieldKeysByLabel.put(fieldLabel, fieldKey);
+            }
+
+            if(!fieldKeysByLowerCaseLabel.containsKey(fieldLabel.toLowerCase()))
+            {
+                fieldKeysByLowerCaseLabel.put(fieldLabel.toLowerCase(), fieldKey);
+            }
+
+            if(columnName != null)
+            {
+                fieldKeysByColumnName.put(columnName.toUpperCase(), fieldKey);
+            }
+        }
+    }
+
+    /*
+     * Determine if a field label exists. Case insensitive.
+     * @param   fieldLabel  field label to be checked
+     * @return  boolean value to indicate if the field label exists
+     */
+    public boolean hasFieldLabel(String fieldLabel)
+    {
+        return fieldKeysByLowerCaseLabel.containsKey(fieldLabel.toLowerCase());
+    }
+
+    /*
+     * Get the field key by field label. Case sensitive.
+     * @param   fieldLabel  field label
+     * @return  field key (SDC_KEY); null if the field label does not exist
+     */
+    public Long getFieldKeyByFieldLabel(String fieldLabel)
+    {
+        return fieldKeysByLabel.get(fieldLabel);
+    }
+
+    /*
+     * Get the field key by field label. Case insensitive.
+     * @param   fieldLabel  field label
+     * @return  field key (SDC_KEY); null if the field label does not exist
+     */
+    public Long getFieldKeyByFieldLabelIgnoreCase(String fieldLabel)
+    {
+        return fieldKeysByLowerCaseLabel.get(fieldLabel.toLowerCase());
+    }
+
+    /*
+     * Get the field key by column name. Case insensitive.
+     * @param   columnName  column name of the field (SDC_NAME) [E.g. UD_FLAT_FIL_FIRSTNAME]
+     * @return  field key (SDC_KEY); null if the column name does not exist
+     */
+    public Long getFieldKeyByColumnName(String columnName)
+    {
+        return fieldKeysByColumnName.get(columnName.toUpperCase());
+    }
+
+    /*
+     * @param   fieldKey    field key (SDC_KEY)
+     * @return  attributes of the field; null if the field key does not exist
+     */
+    public ProcessFormField getField(Long fieldKey)
+    {
+        return fieldsByKey.get(fieldKey);
+    }
+
+    /*
+     * @param   fieldKey    field key (SDC_KEY)
+     * @return  column name of the field (SDC_NAME); null if the field key does not exist
+     */
+    public String getColumnName(Long fieldKey)
+    {
+        return columnNamesByKey.get(fieldKey);
+    }
+
+    public boolean hasFieldKey(Long fieldKey)
+    {
+        return fieldsByKey.containsKey(fieldKey);
+    }
+
+    public Set<Long> getFieldKeys()
+    {
+        return fieldsByKey.keySet();
+    }
+
+    public int size()
+    {
+        return fieldsByKey.size();
+    }
+
+    public long getProcessFormKey()
+    {
+        return this.processFormKey;
+    }
+
+    public int getProcessFormVersion()
+    {
+        return this.processFormVersion;
+    }
+
+    private static int parseInt(String value)
+    {
+        try
+        {
+            return Integer.parseInt(value);
+        }
+
+        catch (NumberFormatException ex)
+        {
+            return 0; //field does not have the attribute
+        }
+    }
+}
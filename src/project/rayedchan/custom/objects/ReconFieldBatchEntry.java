@@ -0,0 +1,98 @@
+package project.rayedchan.custom.objects;
+
+/**
+ * @author rayedchan
+ * An class-object representation of a record in a reconciliation field batch manifest
+ * along with the outcome of running it.
+ */
+public class ReconFieldBatchEntry
+{
+    private String resourceObjectName;
+    private String fileName;
+    private String delimiter;
+    private int lineNumber; //Line number in manifest
+    private long resourceObjectKey = -1; //OBJ_KEY
+    private int numFields = 0; //Number of recon fields staged from the file
+    private boolean success = false;
+    private String errorMessage = null;
+    
+    public ReconFieldBatchEntry(String resourceObjectName, String fileName, String delimiter, int lineNumber)
+    {
+        this.resourceObjectName = resourceObjectName;
+        this.fileName = fileName;
+        this.delimiter = delimiter;
+        this.lineNumber = lineNumber;
+    }
+    
+    /*
+     * Getter methods
+     */
+    public String getResourceObjectName()
+    {
+        return this.resourceObjectName;
+    }
+    
+    public String getFileName()
+    {
+        return this.fileName;
+    }
+    
+    public String getDelimiter()
+    {
+        return this.delimiter;
+    }
+    
+    public int getLineNumber()
+    {
+        return this.lineNumber;
+    }
+    
+    public long getResourceObjectKey()
+    {
+        return this.resourceObjectKey;
+    }
+    
+    public int getNumFields()
+    {
+        return this.numFields;
+    }
+    
+    public boolean getSuccess()
+    {
+        return this.success;
+    }
+    
+    public String getErrorMessage()
+    {
+        return this.errorMessage;
+    }
+    
+    /*
+     * Setter methods
+     */
+    public void setResourceObjectKey(long resourceObjectKey)
+    {
+        this.resourceObjectKey = resourceObjectKey;
+    }
+    
+    public void setNumFields(int numFields)
+    {
+        this.numFields = numFields;
+    }
+    
+    public void setSuccess(boolean success)
+    {
+        this.success = success;
+    }
+    
+    public void setErrorMessage(String errorMessage)
+    {
+        this.errorMessage = errorMessage;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return String.format("Line %s: %s [%s]", lineNumber, resourceObjectName, fileName);
+    }
+}
@@ -0,0 +1,113 @@
+package project.rayedchan.custom.objects;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * @author rayedchan
+ * An index of all the reconciliation fields of a resource object.
+ * The fields are fetched from ORF in one query [ReconFieldUtility.getReconFieldIndex] and 
+ * indexed by field name so checks against the resource object do not require a query per field.
+ *
+ * Field name lookups are case sensitive, which is the same as the
+ * ORF_FIELDNAME comparisons done against the database.
+ */
+public class ReconFieldIndex
+{
+    private long resourceObjectKey;
+    private HashMap<String,String> fieldTypesByName = new HashMap<String,String>(); //exact field name
+    private HashMap<String,String> fieldKeysByName = new HashMap<String,String>();
+    private HashSet<String> multiValuedFieldNames = new HashSet<String>();
+    private HashSet<String> childFieldNames = new HashSet<String>();
+
+    /*
+     * @param   resourceObjectKey   OBJ_KEY
+     */
+    public ReconFieldIndex(long resourceObjectKey)
+    {
+        this.resourceObjectKey = resourceObjectKey;
+    }
+
+    /*
+     * Add a reconciliation field to the index.
+     * A child attribute may have the same name as another recon field; the first one added is kept.
+     * @param   reconFieldKey   ORF_KEY
+     * @param   reconFieldName  ORF_FIELDNAME
+     * @param   reconFieldType  ORF_FIELDTYPE
+     * @param   isMultiValued   field is a multivalued attribute
+     * @param   isChild         field is a child attribute of a multivalued attribute
+     */
+    public void addReconField(String reconFieldKey, String reconFieldName, String reconFieldType, boolean isMultiValued, boolean isChild)
+    {
+        if(!fieldTypesByName.containsKey(reconFieldName))
+        {
+            fieldTypesByName.put(reconFieldName, reconFieldType);
+            fieldKeysByName.put(reconFieldName, reconFieldKey);
+        }
+
+        if(isMultiValued)
+        {
+            multiValuedFieldNames.add(reconFieldName);
+        }
+
+        if(isChild)
+        {
+            childFieldNames.add(reconFieldName);
+        }
+    }
+
+    /*
+     * Determine if a reconciliation field name exists. Case sensitive.
+     * @param   reconFieldName  recon field name to check
+     * @return  boolean value to indicate if the recon field name exists
+     */
+    public boolean hasReconFieldName(String reconFieldName)
+    {
+        return fieldTypesByName.containsKey(reconFieldName);
+    }
+
+    /*
+     * @param   reconFieldName  recon field name. Case sensitive.
+     * @return  recon field key (ORF_KEY); null if the recon field name does not exist
+     */
+    public String getReconFieldKey(String reconFieldName)
+    {
+        return fieldKeysByName.get(reconFieldName);
+    }
+
+    /*
+     * Determine if a reconciliation field is a multivalued attribute. Case sensitive.
+     * @param   reconFieldName  recon field name to check
+     * @return  boolean value; false if the recon field name does not exist
+     */
+    public boolean isMultiValued(String reconFieldName)
+    {
+        return multiValuedFieldNames.contains(reconFieldName);
+    }
+
+    /*
+     * Determine if a reconciliation field is a child attribute of a multivalued attribute. Case sensitive.
+     * @param   reconFieldName  recon field name to check
+     * @return  boolean value; false if the recon field name does not exist
+     */
+    public boolean isChildAttribute(String reconFieldName)
+    {
+        return childFieldNames.contains(reconFieldName);
+    }
+
+    public Set<String> getReconFieldNames()
+    {
+        return fieldTypesByName.keySet();
+    }
+
+    public int size()
+    {
+        return fieldTypesByName.size();
+    }
+
+    public long getResourceObjectKey()
+    {
+        return this.resourceObjectKey;
+    }
+}
@@ -11,4 +11,9 @@ public class LookupNameNotFoundException extends Exception
     {
         super("Lookup Definition does not exist.");
     }
+    
+    public LookupNameNotFoundException(String message)
+    {
+        super(message);
+    }
 }
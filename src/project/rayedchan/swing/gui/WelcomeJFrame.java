@@ -1173,7 +1173,7 @@ public class WelcomeJFrame extends javax.swing.JFrame {
                 
                 try 
                 {
-                    LookupUtility.addEntriesToLookupDSFF(lookupOps, lookupName, fileName, fileDelimiter);
+                    LookupUtility.addEntriesToLookupDSFF(lookupOps, lookupName, fileName, fileDelimiter, true);
                     errorDialogMessage(lookupDialog, "Add successful.");
                     lookupDialog.dispose();
                 } catch (BadFileFormatException ex) {
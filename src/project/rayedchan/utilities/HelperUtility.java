@@ -1,22 +1,44 @@
 package project.rayedchan.utilities;
 
 import Thor.API.Exceptions.tcAPIException;
+import Thor.API.Exceptions.tcBulkException;
 import Thor.API.Exceptions.tcColumnNotFoundException;
+import Thor.API.Operations.tcExportOperationsIntf;
+import Thor.API.Operations.tcImportOperationsIntf;
 import Thor.API.tcResultSet;
 import com.thortech.xl.dataaccess.tcDataProvider;
 import com.thortech.xl.dataaccess.tcDataSet;
 import com.thortech.xl.dataaccess.tcDataSetException;
 import com.thortech.xl.dataobj.PreparedStatementUtil;
+import com.thortech.xl.ddm.exception.DDMException;
+import com.thortech.xl.ddm.exception.TransformationException;
 import com.thortech.xl.orb.dataaccess.tcDataAccessException;
+import com.thortech.xl.vo.ddm.RootObject;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import javax.naming.NamingException;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
@@ -35,6 +57,42 @@ import org.xml.sax.SAXException;
  */
 public class HelperUtility 
 {
+    /*
+     * Export the XML of an object in the Deployment Manager.
+     * @param   exportOps   tcExportOperationsIntf service object
+     * @param   type        type of the object [E.g. Resource, Process, Process Form, Lookup]
+     * @param   name        name of the object
+     * @return  the XML of the object as a String; null if the name does not match exactly one object
+     */
+    public static String exportObject(tcExportOperationsIntf exportOps, String type, String name) throws tcAPIException
+    {
+         String description = null;
+         Collection exportObject = exportOps.findObjects(type, name);
+         int numObjects = exportObject.size();
+         
+         //enforce one object to be exported at a time
+         if(numObjects == 1)
+         {
+             return exportOps.getExportXML(exportObject, description);
+         }
+         
+         System.out.println("Only one object can be exported at a time.");
+         return null;
+    }
+    
+    /*
+     * Import the XML of objects into the Deployment Manager.
+     * @param   importOps   tcImportOperationsIntf service object
+     * @param   xml         xml content to be imported
+     * @param   fileName    File name of the file being imported. For tracking purposes.
+     */
+    public static void importObject(tcImportOperationsIntf importOps, String xml, String fileName) throws SQLException, NamingException, DDMException, tcAPIException, TransformationException, tcBulkException
+    {
+        importOps.acquireLock(true);
+        Collection<RootObject> justImported = importOps.addXMLFile(fileName, xml);
+        importOps.performImport(justImported);
+    }
+    
     /*
      * Prints the column names of a tcResultSet.
      * @param   tcResultSetObj  tcResultSet Object
@@ -211,6 +269,220 @@ public class HelperUtility
         return newResourceObjectXML;
     }
     
+    /*
+     * Creates an empty Document. Used to build elements that are written
+     * by a MetadataXMLStreamTransformer instead of a parsed Document.
+     * @return  new Document with no content
+     */
+    public static Document createEmptyDocument() throws ParserConfigurationException
+    {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        DocumentBuilder builder = factory.newDocumentBuilder();
+        return builder.newDocument();
+    }
+    
+    /*
+     * Get the text of the first element with the given tag name without parsing
+     * the xml into a Document. Reading stops once the element is found.
+     * @param   xmlContent  xml content
+     * @param   tagName     tag name of the element regardless of depth [E.g. OBJ_UPDATE]
+     * @return  text content of the element; null if no element has the tag name
+     */
+    public static String getFirstElementText(String xmlContent, String tagName) throws XMLStreamException
+    {
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xmlContent));
+        
+        try
+        {
+            while(reader.hasNext())
+            {
+                if(reader.next() == XMLStreamConstants.START_ELEMENT && tagName.equals(reader.getLocalName()))
+                {
+                    return reader.getElementText();
+                }
+            }
+            
+            return null;
+        }
+        
+        finally
+        {
+            reader.close();
+        }
+    }
+    
+    /*
+     * Get the name attribute of each element at a path without parsing the xml into a Document
+     * [E.g. the reconciliation fields of a resource object at xl-ddm-data/Resource/ReconField].
+     * @param   xmlContent  xml content
+     * @param   path        tag names from the root element separated by "/"
+     * @return  names of the elements at the path; an element without a name attribute is skipped
+     */
+    public static HashSet<String> getElementNames(String xmlContent, String path) throws XMLStreamException
+    {
+        HashSet<String> names = new HashSet<String>();
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xmlContent));
+        ArrayList<String> pathStack = new ArrayList<String>(); //path of each open element
+        
+        try
+        {
+            while(reader.hasNext())
+            {
+                int eventType = reader.next();
+                
+                if(eventType == XMLStreamConstants.START_ELEMENT)
+                {
+                    String parentPath = pathStack.isEmpty() ? "" : pathStack.get(pathStack.size() - 1) + "/";
+                    String elementPath = parentPath + reader.getLocalName();
+                    pathStack.add(elementPath);
+                    
+                    if(elementPath.equals(path) && reader.getAttributeValue(null, "name") != null)
+                    {
+                        names.add(reader.getAttributeValue(null, "name"));
+                    }
+                }
+                
+                else if(eventType == XMLStreamConstants.END_ELEMENT)
+                {
+                    pathStack.remove(pathStack.size() - 1);
+                }
+            }
+            
+            return names;
+        }
+        
+        finally
+        {
+            reader.close();
+        }
+    }
+    
+    /*
+     * Get the text of the first child element with the given tag name in each named element
+     * without parsing the xml into a Document [E.g. OBJ_UPDATE of each Resource in an xml
+     * that holds many resource objects]. Names are compared as values.
+     * @param   xmlContent      xml content
+     * @param   tagName         tag name of the named elements regardless of depth [E.g. Resource]
+     * @param   childTagName    tag name of the child element regardless of depth [E.g. OBJ_UPDATE]
+     * @return  name attribute of each named element -> text content of its first child element
+     */
+    public static HashMap<String,String> getChildElementTextByName(String xmlContent, String tagName, String childTagName) throws XMLStreamException
+    {
+        HashMap<String,String> textByName = new HashMap<String,String>();
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xmlContent));
+        String name = null; //name of the open named element
+        
+        try
+        {
+            while(reader.hasNext())
+            {
+                int eventType = reader.next();
+                
+                if(eventType == XMLStreamConstants.START_ELEMENT && tagName.equals(reader.getLocalName()))
+                {
+                    name = reader.getAttributeValue(null, "name");
+                }
+                
+                else if(eventType == XMLStreamConstants.START_ELEMENT && name != null && childTagName.equals(reader.getLocalName()) && !textByName.containsKey(name))
+                {
+                    textByName.put(name, reader.getElementText());
+                }
+                
+                else if(eventType == XMLStreamConstants.END_ELEMENT && tagName.equals(reader.getLocalName()))
+                {
+                    name = null;
+                }
+            }
+            
+            return textByName;
+        }
+        
+        finally
+        {
+            reader.close();
+        }
+    }
+    
+    /*
+     * Computes the SHA-256 hash of the content of a file.
+     * @param   fileName    Path of file on local machine
+     * @return  hex representation of the hash
+     */
+    public static String getFileHash(String fileName) throws FileNotFoundException, IOException
+    {
+        FileInputStream fstream = null;
+        
+        try
+        {
+            MessageDigest digest = getSHA256Digest();
+            fstream = new FileInputStream(fileName);
+            byte [] buffer = new byte[64 * 1024];
+            int numBytesRead;
+            
+            while((numBytesRead = fstream.read(buffer)) != -1)
+            {
+                digest.update(buffer, 0, numBytesRead);
+            }
+            
+            return toHexString(digest.digest());
+        }
+        
+        finally
+        {
+            if(fstream != null)
+            {
+                fstream.close();
+            }
+        }
+    }
+    
+    /*
+     * Computes the SHA-256 hash of a list of values. The values are sorted
+     * first so the order of the values does not affect the hash.
+     * @param   values  values to be hashed
+     * @return  hex representation of the hash
+     */
+    public static String getHash(List<String> values) throws UnsupportedEncodingException
+    {
+        ArrayList<String> sortedValues = new ArrayList<String>(values);
+        Collections.sort(sortedValues);
+        MessageDigest digest = getSHA256Digest();
+        
+        for(String value : sortedValues)
+        {
+            digest.update(value.getBytes("UTF-8"));
+            digest.update((byte) '\n');
+        }
+        
+        return toHexString(digest.digest());
+    }
+    
+    private static MessageDigest getSHA256Digest()
+    {
+        try 
+        {
+            return MessageDigest.getInstance("SHA-256");
+        } 
+        
+        catch (NoSuchAlgorithmException ex) 
+        {
+            //Every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+    
+    private static String toHexString(byte [] bytes)
+    {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        
+        for(byte b : bytes)
+        {
+            hex.append(String.format("%02x", b));
+        }
+        
+        return hex.toString();
+    }
+    
     /*
      * Prnts the elements of a string array.
      * @param list  An array of String
@@ -1,27 +1,72 @@
 package project.rayedchan.utilities;
 
 import Thor.API.Exceptions.tcAPIException;
+import Thor.API.Exceptions.tcBulkException;
 import Thor.API.Exceptions.tcColumnNotFoundException;
 import Thor.API.Exceptions.tcDuplicateLookupCodeException;
 import Thor.API.Exceptions.tcInvalidAttributeException;
 import Thor.API.Exceptions.tcInvalidLookupException;
 import Thor.API.Exceptions.tcInvalidValueException;
+import Thor.API.Operations.tcExportOperationsIntf;
+import Thor.API.Operations.tcImportOperationsIntf;
 import Thor.API.Operations.tcLookupOperationsIntf;
 import Thor.API.tcResultSet;
+import com.thortech.xl.dataaccess.tcDataProvider;
+import com.thortech.xl.dataaccess.tcDataSet;
+import com.thortech.xl.dataaccess.tcDataSetException;
+import com.thortech.xl.dataobj.PreparedStatementUtil;
+import com.thortech.xl.ddm.exception.DDMException;
+import com.thortech.xl.ddm.exception.TransformationException;
+import com.thortech.xl.orb.dataaccess.tcDataAccessException;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.DataInputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.naming.NamingException;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+import project.rayedchan.custom.objects.DelimitedRecord;
+import project.rayedchan.custom.objects.FingerprintStore;
+import project.rayedchan.custom.objects.LookupBatchEntry;
+import project.rayedchan.custom.objects.LookupLoadJournal;
+import project.rayedchan.custom.objects.LookupRegistry;
+import project.rayedchan.custom.objects.ManifestReader;
+import project.rayedchan.custom.objects.MappedDelimitedFileReader;
+import project.rayedchan.custom.objects.MetadataDocumentNavigator;
+import project.rayedchan.custom.objects.MetadataSnapshotStore;
 import project.rayedchan.exception.BadFileFormatException;
 import project.rayedchan.exception.LookupNameNotFoundException;
 
@@ -36,6 +81,32 @@ import project.rayedchan.exception.LookupNameNotFoundException;
  */
 public class LookupUtility 
 {
+    public static final int MAX_WRITER_THREADS = 16; //Hard limit on the number of concurrent calls made to OIM
+    public static final int EXPORT_PAGE_SIZE = 5000; //Number of entries fetched per query when exporting
+    public static final int EXPORT_BUFFER_SIZE = 1 << 20; //Size of the output buffer in bytes when exporting
+    public static final int DUPLICATE_FILTER_BITS = 1 << 23; //Size of the filter of code keys added from a large file (1 MB)
+    public static final long REGISTRY_RELOAD_INTERVAL = 60 * 1000; //Minimum time in milliseconds between reloads of the lookup registry on a miss
+    
+    //Operations supported in a lookup batch manifest
+    public static String BATCH_OPERATION_ADD = "add";
+    public static String BATCH_OPERATION_DELETE = "delete";
+    public static String BATCH_OPERATION_SYNC = "sync";
+    public static String BATCH_OPERATION_EXPORT = "export";
+    public static String [] LOOKUP_MANIFEST_COLUMNS = {ManifestReader.OBJECT_NAME_COLUMN, ManifestReader.FILE_NAME_COLUMN, ManifestReader.DELIMITER_COLUMN, ManifestReader.OPERATION_COLUMN};
+    
+    public static String LOOKUP_EXPORT_TYPE = "Lookup"; //Deployment Manager type of a lookup definition
+    public static String LOOKUP_VALUE_TAG = "LookupValues"; //xml lookup entry tag name
+    public static String LOOKUP_PATH = "xl-ddm-data/Lookup"; //path of the lookup tag in the xml
+    
+    //Lookup and LookupValues Attribute tags
+    public static String LKU_UPDATE_TAG = "LKU_UPDATE";
+    public static String LKV_UPDATE_TAG = "LKV_UPDATE";
+    public static String LKV_DECODED_TAG = "LKV_DECODED";
+    public static String LKV_DISABLED_TAG = "LKV_DISABLED";
+    
+    private static LookupRegistry lookupRegistry = null; //Names of all the lookups; cached for the session
+    private static tcLookupOperationsIntf registryLookupOps = null; //Service object the registry was loaded with
+    
     /*
      * Add entries from a flat file to an existing lookup. 
      * Sanity Check: Name of lookup definition must exist. File format must be correct.
@@ -58,6 +129,67 @@ public class LookupUtility
      * @return boolean value to indicate success or failure
      */
     public static boolean addEntriesToLookupDSFF(tcLookupOperationsIntf lookupOps, String lookupName, String fileName, String delimiter) throws tcAPIException, tcColumnNotFoundException, tcInvalidLookupException, LookupNameNotFoundException, FileNotFoundException, IOException, BadFileFormatException
+    {
+        return addEntriesToLookupDSFF(lookupOps, lookupName, fileName, delimiter, false);
+    }
+    
+    /*
+     * Add entries from a flat file to an existing lookup. Same behavior as 
+     * addEntriesToLookupDSFF(lookupOps, lookupName, fileName, delimiter) with the 
+     * option to validate code keys against a snapshot of the lookup.
+     * 
+     * Snapshot Mode: The code keys of the lookup are fetched once and stored in a 
+     * HashSet. Each record in the file is checked against the HashSet instead of 
+     * querying OIM for every record. Use for lookups with a large amount of entries.
+     * 
+     * @param   lookupOps       tcLookupOperationsIntf service object
+     * @param   lookupName      Name of existing lookup
+     * @param   fileName        Path of file on local machine that contains the data
+     * @param   delimiter       Delimiter that separates each field in file
+     * @param   useSnapshot     true to check code keys against a snapshot of the lookup; false to query OIM per record
+     * @return boolean value to indicate success or failure
+     */
+    public static boolean addEntriesToLookupDSFF(tcLookupOperationsIntf lookupOps, String lookupName, String fileName, String delimiter, boolean useSnapshot) throws tcAPIException, tcColumnNotFoundException, tcInvalidLookupException, LookupNameNotFoundException, FileNotFoundException, IOException, BadFileFormatException
+    {
+        try 
+        {
+            return addEntriesToLookupDSFF(lookupOps, lookupName, fileName, delimiter, useSnapshot, 1);
+        } 
+        
+        catch (InterruptedException ex) 
+        {
+            //Only thrown by the concurrent writer
+            Thread.currentThread().interrupt();
+            Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex);
+            return false;
+        }
+    }
+    
+    /*
+     * Add entries from a flat file to an existing lookup. Same behavior as 
+     * addEntriesToLookupDSFF(lookupOps, lookupName, fileName, delimiter, useSnapshot) with the 
+     * option to send the entries to OIM from a pool of writer threads.
+     * 
+     * @param   lookupOps           tcLookupOperationsIntf service object
+     * @param   lookupName          Name of existing lookup
+     * @param   fileName            Path of file on local machine that contains the data
+     * @param   delimiter           Delimiter that separates each field in file
+     * @param   useSnapshot         true to check code keys against a snapshot of the lookup; false to query OIM per record
+     * @param   numWriterThreads    Number of threads used to add entries; 1 adds the entries one at a time. Capped by MAX_WRITER_THREADS.
+     * @return boolean value to indicate success or failure
+     */
+    public static boolean addEntriesToLookupDSFF(tcLookupOperationsIntf lookupOps, String lookupName, String fileName, String delimiter, boolean useSnapshot, int numWriterThreads) throws tcAPIException, tcColumnNotFoundException, tcInvalidLookupException, LookupNameNotFoundException, FileNotFoundException, IOException, BadFileFormatException, InterruptedException
+    {
+        return addEntriesToLookupDSFF(lookupOps, lookupName, fileName, delimiter, useSnapshot, numWriterThreads, null);
+    }
+    
+    /*
+     * Same as addEntriesToLookupDSFF(lookupOps, lookupName, fileName, delimiter, useSnapshot, numWriterThreads)
+     * except the lookup is validated against the given registry.
+     * Returns false if any entry failed to be added.
+     * @param   registry    lookups loaded once by the caller; null to use doesLookupExist
+     */
+    private static boolean addEntriesToLookupDSFF(tcLookupOperationsIntf lookupOps, String lookupName, String fileName, String delimiter, boolean useSnapshot, int numWriterThreads, LookupRegistry registry) throws tcAPIException, tcColumnNotFoundException, tcInvalidLookupException, LookupNameNotFoundException, FileNotFoundException, IOException, BadFileFormatException, InterruptedException
     {
         FileInputStream fstream = null;
         DataInputStream in = null;
@@ -73,12 +205,21 @@ public class LookupUtility
            HashMap<String,String> entries = new HashMap<String,String>(); //stores all the entries 
            
            //Validate if the lookup exists
-           if(doesLookupExist(lookupOps, lookupName) == false)
+           if(doesLookupExist(lookupOps, lookupName, registry) == false)
            {
                System.out.println("[ERROR]: Lookup Definition does not exist.");
                throw new LookupNameNotFoundException();
            }
            
+           //Fetch all the code keys of the lookup once
+           HashSet<String> codeKeySnapshot = null;
+           
+           if(useSnapshot)
+           {
+               codeKeySnapshot = getLookupCodeKeySnapshot(lookupOps, lookupName);
+               System.out.println("[Info]: Number of entries in lookup snapshot: " + codeKeySnapshot.size());
+           }
+           
            //Read the entries from file
            while ((strLine = br.readLine()) != null)  
            {
@@ -114,8 +255,10 @@ public class LookupUtility
                 
                 if(key != null && value != null)   
                 {
+                    boolean doesCodeKeyExist = useSnapshot ? codeKeySnapshot.contains(key) : doesEntryExist(lookupOps, lookupName, "Lookup Definition.Lookup Code Information.Code Key", key);
+                    
                     //check if the code key exist in the lookup
-                    if(doesEntryExist(lookupOps, lookupName, "Lookup Definition.Lookup Code Information.Code Key", key))
+                    if(doesCodeKeyExist)
                     {
                         System.out.println("[Warning]: Entry ["+ key + ", " + value +"] will not be added. Code key exists in lookup.");
                     }
@@ -141,7 +284,21 @@ public class LookupUtility
            }
            
            System.out.println("[Info]: Entries to be added: " + entries); 
+           
+           if(numWriterThreads > 1)
+           {
+               HashMap<String,Throwable> failedEntries = addEntriesToLookupConcurrently(lookupOps, lookupName, entries, numWriterThreads);
+               
+               for(Map.Entry<String,Throwable> failedEntry : failedEntries.entrySet())
+               {
+                   System.out.println("[Warning]: Entry ["+ failedEntry.getKey() + ", " + entries.get(failedEntry.getKey()) +"] was not added. " + failedEntry.getValue());
+               }
+               
+               return failedEntries.isEmpty();
+           }
+           
            Iterator it = entries.entrySet().iterator();
+           boolean allAdded = true;
 
            while (it.hasNext()) 
            {
@@ -149,21 +306,178 @@ public class LookupUtility
                 try {
                     addEntryToLookup(lookupOps, lookupName, pairs.getKey().toString(), pairs.getValue().toString(), "", "");
                 } catch (tcInvalidLookupException ex) {
+                    allAdded = false;
                     Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex);
                 } catch (tcInvalidValueException ex) {
+                    allAdded = false;
                     Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex);
                 } catch (tcAPIException ex) {
+                    allAdded = false;
                     Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex);
                 }
                 
                it.remove(); // avoids a ConcurrentModificationException
            }
            
+           return allAdded;
+        } 
+         
+        finally
+        {
+            if(br != null)
+            {
+                try {
+                    br.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+            
+            if(in != null)
+            {
+                try {
+                    in.close(); //Close the input stream
+                } catch (IOException ex) {
+                    Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+            
+            if(fstream != null)
+            {
+                try {
+                    fstream.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+        }      
+    }
+    
+    /*
+     * Add entries from a flat file to an existing lookup and record each applied entry 
+     * in a journal. Same behavior as addEntriesToLookupDSFF(lookupOps, lookupName, fileName, delimiter)
+     * except the load can be resumed. If the load is interrupted, running it again with the 
+     * same journal skips the entries in the journal without querying OIM.
+     * The journal is removed once every entry has been applied.
+     * 
+     * @param   lookupOps           tcLookupOperationsIntf service object
+     * @param   lookupName          Name of existing lookup
+     * @param   fileName            Path of file on local machine that contains the data
+     * @param   delimiter           Delimiter that separates each field in file
+     * @param   journalFileName     Path of the journal file on local machine
+     * @return boolean value to indicate success or failure
+     */
+    public static boolean addEntriesToLookupResumableDSFF(tcLookupOperationsIntf lookupOps, String lookupName, String fileName, String delimiter, String journalFileName) throws tcAPIException, tcColumnNotFoundException, tcInvalidLookupException, LookupNameNotFoundException, FileNotFoundException, IOException, BadFileFormatException
+    {
+        FileInputStream fstream = null;
+        DataInputStream in = null;
+        BufferedReader br = null;
+        LookupLoadJournal journal = null;
+        int lineNumber = 0;
+        boolean isComplete = false;
+         
+        try
+        {
+           fstream = new FileInputStream(fileName); //Open File
+           in = new DataInputStream(fstream); //Get the object of DataInputStream
+           br = new BufferedReader(new InputStreamReader(in));
+           String strLine;
+           LinkedHashMap<String,String> entries = new LinkedHashMap<String,String>(); //stores all the entries 
+           int numSkipped = 0;
+           
+           //Validate if the lookup exists
+           if(doesLookupExist(lookupOps, lookupName) == false)
+           {
+               System.out.println("[ERROR]: Lookup Definition does not exist.");
+               throw new LookupNameNotFoundException();
+           }
+           
+           journal = new LookupLoadJournal(journalFileName, lookupName);
+           System.out.println("[Info]: Number of entries in journal: " + journal.getNumApplied());
+           
+           //Read the entries from file
+           while ((strLine = br.readLine()) != null)  
+           {
+                lineNumber++;
+                StringTokenizer st = new StringTokenizer(strLine, delimiter); 
+                
+                if(st.countTokens() != 2)
+                {
+                    System.out.println("[Error]: File format is incorrect. Fix Line["+ lineNumber +"]: " + strLine);
+                    throw new BadFileFormatException(String.format("File format is incorrect. Fix Line[%s]: %s ", lineNumber,  strLine));
+                }
+                
+                String key = st.nextToken(); //Get code Key
+                String value = st.nextToken(); //Get decode
+                
+                //entry was applied in a previous run
+                if(journal.isApplied(key))
+                {
+                    numSkipped++;
+                }
+                
+                //duplicate code key exist in file
+                else if(entries.containsKey(key))
+                {
+                    System.out.println("[Warning]: Entry ["+ key + ", " + value +"] will not be added. Duplicate Code key in file.");
+                }
+                
+                //check if the code key exist in the lookup
+                else if(doesEntryExist(lookupOps, lookupName, "Lookup Definition.Lookup Code Information.Code Key", key))
+                {
+                    System.out.println("[Warning]: Entry ["+ key + ", " + value +"] will not be added. Code key exists in lookup.");
+                    journal.recordApplied(key);
+                }
+                
+                //code key does not exist in lookup -> add to hashmap
+                else
+                {
+                    entries.put(key, value); 
+                }
+           }
+           
+           System.out.println("[Info]: Entries skipped from journal: " + numSkipped); 
+           System.out.println("[Info]: Entries to be added: " + entries); 
+           int numFailed = 0;
+           
+           for(Map.Entry<String,String> entry : entries.entrySet())
+           {
+               try {
+                   addEntryToLookup(lookupOps, lookupName, entry.getKey(), entry.getValue(), "", "");
+                   journal.recordApplied(entry.getKey());
+               } catch (tcInvalidLookupException ex) {
+                   numFailed++;
+                   Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be added.", entry.getKey()), ex);
+               } catch (tcInvalidValueException ex) {
+                   numFailed++;
+                   Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be added.", entry.getKey()), ex);
+               } catch (tcAPIException ex) {
+                   numFailed++;
+                   Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be added.", entry.getKey()), ex);
+               }
+           }
+           
+           isComplete = (numFailed == 0);
            return true;
         } 
          
         finally
         {
+            if(journal != null)
+            {
+                try {
+                    journal.close();
+                    
+                    //Journal is no longer needed once every entry has been applied
+                    if(isComplete)
+                    {
+                        journal.delete();
+                    }
+                } catch (IOException ex) {
+                    Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+            
             if(br != null)
             {
                 try {
@@ -215,6 +529,16 @@ public class LookupUtility
      *@return  boolean value to indicate success or failure
      */
     public static boolean deleteEntriesFromLookupDSFF(tcLookupOperationsIntf lookupOps, String lookupName, String fileName) throws tcAPIException, tcInvalidLookupException, tcColumnNotFoundException, LookupNameNotFoundException, BadFileFormatException, FileNotFoundException, IOException 
+    {
+        return deleteEntriesFromLookupDSFF(lookupOps, lookupName, fileName, null);
+    }
+    
+    /*
+     * Same as deleteEntriesFromLookupDSFF(lookupOps, lookupName, fileName)
+     * except the lookup is validated against the given registry.
+     * @param   registry    lookups loaded once by the caller; null to use doesLookupExist
+     */
+    private static boolean deleteEntriesFromLookupDSFF(tcLookupOperationsIntf lookupOps, String lookupName, String fileName, LookupRegistry registry) throws tcAPIException, tcInvalidLookupException, tcColumnNotFoundException, LookupNameNotFoundException, BadFileFormatException, FileNotFoundException, IOException
     {
         FileInputStream fstream = null;
         DataInputStream in = null;
@@ -230,7 +554,7 @@ public class LookupUtility
            HashMap<String,String> entries = new HashMap<String,String>(); //stores all the entries 
         
            //Validate if the lookup exists
-           if(doesLookupExist(lookupOps, lookupName) == false)
+           if(doesLookupExist(lookupOps, lookupName, registry) == false)
            {
                System.out.println("[ERROR]: Lookup Definition does not exist.");
                throw new LookupNameNotFoundException();
@@ -322,80 +646,1027 @@ public class LookupUtility
     }
     
     /*
-     * Print all the columns of a lookup entry as defined by the tcLookupOperationsIntf services.
-     * For other methods in tcLookupOperationsIntf, you may specify the name defined by the tcLookupOperationsIntf
-     * services or the actual table column name. The latter is preferred.
-     * 
-     * Important OIM Schemas
-     * LKU - contains all the lookup definition
-     * LKV - conatins all the lookup entries
-     * 
-     * Important Columns for a Lookup Entry
-     * Lookup Definition.Key [LKU_KEY] = Lookup Key to which the entry belongs
-     * Lookup Definition.Code [LKU_TYPE_STRING_KEY] = Name of Lookup to which the entry belongs
-     * Lookup Definition.Lookup Code Information.Key [LKV_KEY] = Entry(CodeKey/Decode) key
-     * Lookup Definition.Lookup Code Information.Code Key [LKV_ENCODED] = Code Key
-     * Lookup Definition.Lookup Code Information.Decode [LKV_DECODED] = Decode
-     * Lookup Definition.Lookup Code Information.Language [LKV_LANGUAGE] = Language of the entry
-     * Lookup Definition.Lookup Code Information.Country [LKV_COUNTRY] = Country of the entry
+     * Add entries from a large flat file to an existing lookup. Same behavior as 
+     * addEntriesToLookupDSFF(lookupOps, lookupName, fileName, delimiter, true) except
+     * the file is memory-mapped and read one record at a time with an explicit charset.
+     * Each entry is added as soon as it is read, so memory does not grow with the size of the file; 
+     * only the code keys of the lookup and a fixed size filter of the code keys added are held in memory.
+     * A code key that hits the filter is checked against OIM to tell a duplicate from a collision.
      * 
-     * @param   lookupOps   tcLookupOperationsIntf service object 
-     * @param   lookupName  Name of the lookup definition    
-     */
-    public static void printLookupEntryColumns(tcLookupOperationsIntf lookupOps, String lookupName) throws tcAPIException, tcInvalidLookupException
-    {
-        tcResultSet lookupResultSet = lookupOps.getLookupValues(lookupName); //get all the entries of a lookup
-        String [] columnNames = lookupResultSet.getColumnNames();
-        for(String columnName : columnNames)
-        {
-            System.out.println(columnName);
-        }
-    }
-    
-    /*
-     * Print all the entries of a lookup.
-     * @param   lookupOps   tcLookupOperationsIntf service object
-     * @param   lookupName  Name of the lookup definition
+     * @param   lookupOps       tcLookupOperationsIntf service object
+     * @param   lookupName      Name of existing lookup
+     * @param   fileName        Path of file on local machine that contains the data
+     * @param   delimiter       Delimiter that separates each field in file
+     * @param   charsetName     Charset of the file (E.g. "UTF-8")
+     * @return boolean value to indicate success or failure
      */
-    public static void printLookupEntries(tcLookupOperationsIntf lookupOps, String lookupName) throws tcAPIException, tcInvalidLookupException, tcColumnNotFoundException
+    public static boolean addEntriesToLookupMappedDSFF(tcLookupOperationsIntf lookupOps, String lookupName, String fileName, String delimiter, String charsetName) throws tcAPIException, tcColumnNotFoundException, tcInvalidLookupException, LookupNameNotFoundException, FileNotFoundException, IOException, BadFileFormatException
     {
-        tcResultSet lookupResultSet = lookupOps.getLookupValues(lookupName); //get all the entries of a lookup
+        MappedDelimitedFileReader reader = null;
         
-        System.out.printf("%-25s%-25s%-25s\n", "Entry Key" ,"Code Key", "Decode");
-        System.out.printf("%-25s%-25s%-25s\n", "==========", "==========", "==========");
-        for(int i = 0; i < lookupResultSet.getTotalRowCount(); i++)
+        try
         {
-            lookupResultSet.goToRow(i);
-            String entryKey = lookupResultSet.getStringValue("Lookup Definition.Lookup Code Information.Key");
-            String code = lookupResultSet.getStringValue("Lookup Definition.Lookup Code Information.Code Key");
-            String decode = lookupResultSet.getStringValue("Lookup Definition.Lookup Code Information.Decode");
-            System.out.printf("%-25s%-25s%-25s\n",entryKey,code,decode);
-        }
+           //Validate if the lookup exists
+           if(doesLookupExist(lookupOps, lookupName) == false)
+           {
+               System.out.println("[ERROR]: Lookup Definition does not exist.");
+               throw new LookupNameNotFoundException();
+           }
+           
+           HashSet<String> codeKeySnapshot = getLookupCodeKeySnapshot(lookupOps, lookupName);
+           BitSet addedCodeKeyFilter = new BitSet(DUPLICATE_FILTER_BITS); //code keys added from the file; may have false positives
+           reader = new MappedDelimitedFileReader(fileName, delimiter, charsetName);
+           String [] record;
+           int numAdded = 0;
+           
+           //Read the entries from file
+           while ((record = reader.nextRecord()) != null)  
+           {
+                if(record.length != 2)
+                {
+                    System.out.println("[Error]: File format is incorrect. Fix Line["+ reader.getLineNumber() +"]: " + reader.getLine());
+                    throw new BadFileFormatException(String.format("File format is incorrect. Fix Line[%s]: %s ", reader.getLineNumber(), reader.getLine()));
+                }
+                
+                String key = record[0];
+                String value = record[1];
+                
+                //check if the code key exist in the lookup
+                if(codeKeySnapshot.contains(key))
+                {
+                    System.out.println("[Warning]: Entry ["+ key + ", " + value +"] will not be added. Code key exists in lookup.");
+                }
+
+                //duplicate code key exist in file; a key added earlier is now in the lookup
+                else if(addedCodeKeyFilter.get(getDuplicateFilterIndex(key)) && doesEntryExist(lookupOps, lookupName, "Lookup Definition.Lookup Code Information.Code Key", key))
+                {
+                    System.out.println("[Warning]: Entry ["+ key + ", " + value +"] will not be added. Duplicate Code key in file.");
+                }
+
+                //code key does not exist in lookup -> add to lookup
+                else
+                {
+                    try {
+                        addEntryToLookup(lookupOps, lookupName, key, value, "", "");
+                        addedCodeKeyFilter.set(getDuplicateFilterIndex(key));
+                        numAdded++;
+                    } catch (tcInvalidLookupException ex) {
+                        Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be added.", key), ex);
+                    } catch (tcInvalidValueException ex) {
+                        Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be added.", key), ex);
+                    } catch (tcAPIException ex) {
+                        Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be added.", key), ex);
+                    }
+                }
+           }
+           
+           System.out.println("[Info]: Number of entries added: " + numAdded); 
+           return true;
+        } 
+         
+        finally
+        {
+            if(reader != null)
+            {
+                try {
+                    reader.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+        }      
     }
     
     /*
-     * Export lookup name and its entries in a format used for this utility.
-     * Tab delimited for entries.
-     * @param   lookupOps   tcLookupOperationsIntf service object
-     * @param   lookupName  Name of the lookup definition
-     * @param   fileName    Absolute path of file on local machine
-     * @param   delimiter   Delimiter that separates each field in file
+     * Deletes entries from a lookup using a large flat file. Same behavior as 
+     * deleteEntriesFromLookupDSFF(lookupOps, lookupName, fileName) except the file is 
+     * memory-mapped and read one record at a time with an explicit charset. 
+     * The code keys are checked against a snapshot of the lookup instead of querying OIM per record.
+     * Each entry is removed as soon as it is read and its code key is dropped from the snapshot, 
+     * so memory does not grow with the size of the file.
+     * 
+     * @param   lookupOps       tcLookupOperationsIntf service object
+     * @param   lookupName      Name of existing lookup
+     * @param   fileName        name of file that contains the data 
+     * @param   charsetName     Charset of the file (E.g. "UTF-8")
+     * @return  boolean value to indicate success or failure
      */
-    public static void exportLookupFileFormat(tcLookupOperationsIntf lookupOps, String lookupName, String fileName, String delimiter) throws tcAPIException, tcInvalidLookupException, tcColumnNotFoundException, FileNotFoundException, UnsupportedEncodingException, LookupNameNotFoundException
+    public static boolean deleteEntriesFromLookupMappedDSFF(tcLookupOperationsIntf lookupOps, String lookupName, String fileName, String charsetName) throws tcAPIException, tcInvalidLookupException, tcColumnNotFoundException, LookupNameNotFoundException, BadFileFormatException, FileNotFoundException, IOException 
     {
-        PrintWriter writer = null;
+        MappedDelimitedFileReader reader = null;
         
         try
-        {      
-            //Validate if the lookup exists
-            if(doesLookupExist(lookupOps, lookupName) == false)
-            {
-                System.out.println("[ERROR]: Lookup Definition does not exist.");
-                throw new LookupNameNotFoundException();
-            }
+        {
+           //Validate if the lookup exists
+           if(doesLookupExist(lookupOps, lookupName) == false)
+           {
+               System.out.println("[ERROR]: Lookup Definition does not exist.");
+               throw new LookupNameNotFoundException();
+           }
            
-            tcResultSet lookupResultSet = lookupOps.getLookupValues(lookupName); //get all the entries of a lookup
-            writer = new PrintWriter(fileName, "UTF-8");
+           HashSet<String> codeKeySnapshot = getLookupCodeKeySnapshot(lookupOps, lookupName);
+           HashSet<String> removedCodeKeys = new HashSet<String>(); //code keys removed from the lookup; never more than the snapshot held
+           reader = new MappedDelimitedFileReader(fileName, "", charsetName); //whole line is the code key
+           String [] record;
+           
+           //Read the code key from file
+           while ((record = reader.nextRecord()) != null)  
+           {
+                if(record.length != 1)
+                {    
+                    System.out.println("[Error]: File format is incorrect. Fix Line["+ reader.getLineNumber() +"]: " + reader.getLine());
+                    throw new BadFileFormatException(String.format("File format is incorrect. Fix Line[%s]: %s ", reader.getLineNumber(), reader.getLine()));
+                }
+                
+                String codeKey = record[0];
+                
+                //check if the code key exist in the lookup
+                if(codeKeySnapshot.remove(codeKey))
+                {
+                    removedCodeKeys.add(codeKey);
+                    
+                    try {
+                        removeEntryFromLookup(lookupOps, lookupName, codeKey);
+                    } catch (tcAPIException ex) {
+                        Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be removed.", codeKey), ex);
+                    } catch (tcInvalidLookupException ex) {
+                        Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be removed.", codeKey), ex);
+                    } catch (tcInvalidValueException ex) {
+                        Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be removed.", codeKey), ex);
+                    }
+                }
+                
+                else if(removedCodeKeys.contains(codeKey))
+                {
+                    System.out.println("[Warning]: Duplicate Code key '" + codeKey  +" on line " + reader.getLineNumber());
+                }
+
+                //code key does not exist in lookup
+                else
+                {
+                    System.out.println("[Warning]: Code key '" + codeKey  +"' does not exist in lookup.");
+                }
+           }
+           
+           System.out.println("[Info]: Number of entries removed: " + removedCodeKeys.size()); 
+           return true;
+        } 
+        
+        finally
+        {
+            if(reader != null)
+            {
+                try {
+                    reader.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+        }      
+    }
+    
+    /*
+     * Synchronizes a lookup with the entries in a flat file. The file is the desired state of the lookup.
+     * The entries of the lookup are fetched once and compared against the file in memory.
+     * Only the necessary calls are made to OIM:
+     *  - Code key in file but not in lookup -> entry is added
+     *  - Code key in both but the decode differs -> decode is updated
+     *  - Code key in lookup but not in file -> entry is removed
+     * Sanity Check: Name of lookup definition must exist. File format must be correct.
+     * If there are duplicates code keys in the file, the first one in the file will be used.
+     * If there are duplicate code keys in the lookup, only the first one is compared.
+     * 
+     * File Format - same as addEntriesToLookupDSFF
+     * <code key>   <decode>
+     * <code key>   <decode>
+     * 
+     * @param   lookupOps    tcLookupOperationsIntf service object
+     * @param   lookupName   Name of existing lookup
+     * @param   fileName     Path of file on local machine that contains the data
+     * @param   delimiter    Delimiter that separates each field in file
+     * @return boolean value to indicate if every change was applied
+     */
+    public static boolean syncLookupDSFF(tcLookupOperationsIntf lookupOps, String lookupName, String fileName, String delimiter) throws tcAPIException, tcColumnNotFoundException, tcInvalidLookupException, LookupNameNotFoundException, FileNotFoundException, IOException, BadFileFormatException
+    {
+        return syncLookupDSFF(lookupOps, lookupName, fileName, delimiter, (LookupRegistry) null);
+    }
+    
+    /*
+     * Same as syncLookupDSFF(lookupOps, lookupName, fileName, delimiter)
+     * except the lookup is validated against the given registry.
+     * @param   registry    lookups loaded once by the caller; null to use doesLookupExist
+     */
+    private static boolean syncLookupDSFF(tcLookupOperationsIntf lookupOps, String lookupName, String fileName, String delimiter, LookupRegistry registry) throws tcAPIException, tcColumnNotFoundException, tcInvalidLookupException, LookupNameNotFoundException, FileNotFoundException, IOException, BadFileFormatException
+    {
+        FileInputStream fstream = null;
+        DataInputStream in = null;
+        BufferedReader br = null;
+        int lineNumber = 0;
+         
+        try
+        {
+           fstream = new FileInputStream(fileName); //Open File
+           in = new DataInputStream(fstream); //Get the object of DataInputStream
+           br = new BufferedReader(new InputStreamReader(in));
+           String strLine;
+           LinkedHashMap<String,String> fileEntries = new LinkedHashMap<String,String>(); //stores all the entries in file
+           
+           //Validate if the lookup exists
+           if(doesLookupExist(lookupOps, lookupName, registry) == false)
+           {
+               System.out.println("[ERROR]: Lookup Definition does not exist.");
+               throw new LookupNameNotFoundException();
+           }
+           
+           //Read the entries from file
+           while ((strLine = br.readLine()) != null)  
+           {
+                lineNumber++;
+                StringTokenizer st = new StringTokenizer(strLine, delimiter); 
+                
+                if(st.countTokens() != 2)
+                {
+                    System.out.println("[Error]: File format is incorrect. Fix Line["+ lineNumber +"]: " + strLine);
+                    throw new BadFileFormatException(String.format("File format is incorrect. Fix Line[%s]: %s ", lineNumber,  strLine));
+                }
+                
+                String key = st.nextToken(); //Get code Key
+                String value = st.nextToken(); //Get decode
+                
+                if(fileEntries.containsKey(key))
+                {
+                    System.out.println("[Warning]: Entry ["+ key + ", " + value +"] will not be used. Duplicate Code key in file.");
+                }
+                
+                else
+                {
+                    fileEntries.put(key, value);
+                }
+           }
+           
+           //Compute the differences between the lookup and the file
+           HashMap<String,String> lookupEntries = getLookupEntrySnapshot(lookupOps, lookupName);
+           LinkedHashMap<String,String> entriesToAdd = new LinkedHashMap<String,String>();
+           LinkedHashMap<String,String> entriesToUpdate = new LinkedHashMap<String,String>();
+           ArrayList<String> entriesToRemove = new ArrayList<String>();
+           
+           for(Map.Entry<String,String> fileEntry : fileEntries.entrySet())
+           {
+               String key = fileEntry.getKey();
+               String value = fileEntry.getValue();
+               
+               if(!lookupEntries.containsKey(key))
+               {
+                   entriesToAdd.put(key, value);
+               }
+               
+               else if(!value.equals(lookupEntries.get(key)))
+               {
+                   entriesToUpdate.put(key, value);
+               }
+           }
+           
+           for(String key : lookupEntries.keySet())
+           {
+               if(!fileEntries.containsKey(key))
+               {
+                   entriesToRemove.add(key);
+               }
+           }
+           
+           System.out.printf("[Info]: Lookup entries: %s, File entries: %s, Add: %s, Update: %s, Remove: %s, Unchanged: %s\n", 
+                   lookupEntries.size(), fileEntries.size(), entriesToAdd.size(), entriesToUpdate.size(), entriesToRemove.size(), 
+                   fileEntries.size() - entriesToAdd.size() - entriesToUpdate.size());
+           int numFailed = 0;
+           
+           //Apply the differences
+           for(Map.Entry<String,String> entry : entriesToAdd.entrySet())
+           {
+               try {
+                   addEntryToLookup(lookupOps, lookupName, entry.getKey(), entry.getValue(), "", "");
+               } catch (tcInvalidLookupException ex) {
+                   numFailed++;
+                   Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be added.", entry.getKey()), ex);
+               } catch (tcInvalidValueException ex) {
+                   numFailed++;
+                   Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be added.", entry.getKey()), ex);
+               } catch (tcAPIException ex) {
+                   numFailed++;
+                   Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be added.", entry.getKey()), ex);
+               }
+           }
+           
+           for(Map.Entry<String,String> entry : entriesToUpdate.entrySet())
+           {
+               try {
+                   updateEntryFromLookup(lookupOps, lookupName, entry.getKey(), entry.getKey(), entry.getValue());
+               } catch (tcInvalidLookupException ex) {
+                   numFailed++;
+                   Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be updated.", entry.getKey()), ex);
+               } catch (tcInvalidAttributeException ex) {
+                   numFailed++;
+                   Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be updated.", entry.getKey()), ex);
+               } catch (tcInvalidValueException ex) {
+                   numFailed++;
+                   Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be updated.", entry.getKey()), ex);
+               } catch (tcAPIException ex) {
+                   numFailed++;
+                   Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be updated.", entry.getKey()), ex);
+               }
+           }
+           
+           for(String key : entriesToRemove)
+           {
+               try {
+                   removeEntryFromLookup(lookupOps, lookupName, key);
+               } catch (tcInvalidLookupException ex) {
+                   numFailed++;
+                   Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be removed.", key), ex);
+               } catch (tcInvalidValueException ex) {
+                   numFailed++;
+                   Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be removed.", key), ex);
+               } catch (tcAPIException ex) {
+                   numFailed++;
+                   Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be removed.", key), ex);
+               }
+           }
+           
+           if(numFailed > 0)
+           {
+               System.out.println("[Warning]: Number of changes that failed to be applied: " + numFailed);
+           }
+           
+           return numFailed == 0;
+        } 
+         
+        finally
+        {
+            if(br != null)
+            {
+                try {
+                    br.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+            
+            if(in != null)
+            {
+                try {
+                    in.close(); //Close the input stream
+                } catch (IOException ex) {
+                    Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+            
+            if(fstream != null)
+            {
+                try {
+                    fstream.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+        }      
+    }
+    
+    /*
+     * Add entries from a flat file to an existing lookup. Same behavior as 
+     * addEntriesToLookupDSFF(lookupOps, lookupName, fileName, delimiter, useSnapshot, numWriterThreads) 
+     * except the load is skipped if neither the file nor the lookup has changed since the last 
+     * load that added every entry, as recorded in the fingerprint store.
+     * 
+     * @param   dbProvider          connection to the OIM Schema
+     * @param   lookupOps           tcLookupOperationsIntf service object
+     * @param   lookupName          Name of existing lookup
+     * @param   fileName            Path of file on local machine that contains the data
+     * @param   delimiter           Delimiter that separates each field in file
+     * @param   useSnapshot         true to check code keys against a snapshot of the lookup; false to query OIM per record
+     * @param   numWriterThreads    Number of threads used to add entries; 1 adds the entries one at a time. Capped by MAX_WRITER_THREADS.
+     * @param   fingerprintStore    store of the fingerprints of previous loads
+     * @return boolean value to indicate if every entry was added
+     */
+    public static boolean addEntriesToLookupDSFF(tcDataProvider dbProvider, tcLookupOperationsIntf lookupOps, String lookupName, String fileName, String delimiter, boolean useSnapshot, int numWriterThreads, FingerprintStore fingerprintStore) throws tcAPIException, tcColumnNotFoundException, tcInvalidLookupException, LookupNameNotFoundException, FileNotFoundException, IOException, BadFileFormatException, InterruptedException, tcDataSetException, tcDataAccessException
+    {
+        //Validate if the lookup exists
+        if(doesLookupExist(lookupOps, lookupName) == false)
+        {
+            System.out.println("[ERROR]: Lookup Definition does not exist.");
+            throw new LookupNameNotFoundException();
+        }
+        
+        String target = "lookup.add:" + lookupName;
+        String fileHash = HelperUtility.getFileHash(fileName);
+        
+        if(fingerprintStore.isUnchanged(target, fileHash, getLookupFingerprint(dbProvider, lookupName)))
+        {
+            System.out.println("[Info]: File and lookup are unchanged since the last load. Skipping " + lookupName);
+            return true;
+        }
+        
+        boolean success = addEntriesToLookupDSFF(lookupOps, lookupName, fileName, delimiter, useSnapshot, numWriterThreads, new LookupRegistry(Collections.singletonList(lookupName))); //existence is already checked
+        
+        //A rerun can only be skipped if every entry was added
+        if(success)
+        {
+            fingerprintStore.record(target, fileHash, getLookupFingerprint(dbProvider, lookupName));
+        }
+        
+        else
+        {
+            fingerprintStore.remove(target);
+        }
+        
+        return success;
+    }
+    
+    /*
+     * Synchronizes a lookup with the entries in a flat file. Same behavior as 
+     * syncLookupDSFF(lookupOps, lookupName, fileName, delimiter) except the synchronization 
+     * is skipped if neither the file nor the lookup has changed since the last 
+     * successful synchronization recorded in the fingerprint store.
+     * 
+     * @param   dbProvider          connection to the OIM Schema
+     * @param   lookupOps           tcLookupOperationsIntf service object
+     * @param   lookupName          Name of existing lookup
+     * @param   fileName            Path of file on local machine that contains the data
+     * @param   delimiter           Delimiter that separates each field in file
+     * @param   fingerprintStore    store of the fingerprints of previous loads
+     * @return boolean value to indicate if every change was applied
+     */
+    public static boolean syncLookupDSFF(tcDataProvider dbProvider, tcLookupOperationsIntf lookupOps, String lookupName, String fileName, String delimiter, FingerprintStore fingerprintStore) throws tcAPIException, tcColumnNotFoundException, tcInvalidLookupException, LookupNameNotFoundException, FileNotFoundException, IOException, BadFileFormatException, tcDataSetException, tcDataAccessException
+    {
+        //Validate if the lookup exists
+        if(doesLookupExist(lookupOps, lookupName) == false)
+        {
+            System.out.println("[ERROR]: Lookup Definition does not exist.");
+            throw new LookupNameNotFoundException();
+        }
+        
+        String target = "lookup.sync:" + lookupName;
+        String fileHash = HelperUtility.getFileHash(fileName);
+        
+        if(fingerprintStore.isUnchanged(target, fileHash, getLookupFingerprint(dbProvider, lookupName)))
+        {
+            System.out.println("[Info]: File and lookup are unchanged since the last synchronization. Skipping " + lookupName);
+            return true;
+        }
+        
+        boolean success = syncLookupDSFF(lookupOps, lookupName, fileName, delimiter, new LookupRegistry(Collections.singletonList(lookupName))); //existence is already checked
+        
+        //Lookup matches the file only if every change was applied
+        if(success)
+        {
+            fingerprintStore.record(target, fileHash, getLookupFingerprint(dbProvider, lookupName));
+        }
+        
+        else
+        {
+            fingerprintStore.remove(target);
+        }
+        
+        return success;
+    }
+    
+    /*
+     * Add entries from a flat file to an existing lookup using the Deployment Manager.
+     * The lookup XML is exported once, all the new entries are added to the XML, and 
+     * the XML is imported back in a single import. Use for lookups with a large amount of entries.
+     * Sanity Check: Name of lookup definition must exist. File format must be correct.
+     * If a code key already exist in the lookup, it will be skipped and reported to the user.
+     * If there are duplicates code keys in the file, the first one in the file will be added.
+     * 
+     * File Format - same as addEntriesToLookupDSFF
+     * <code key>   <decode>
+     * <code key>   <decode>
+     * 
+     * Note: The import utility merges with the existing data.
+     * The exported lookup xml is saved in the default snapshot store before the import [MetadataSnapshotStore.getDefaultStore].
+     * 
+     * @param   exportOps    tcExportOperationsIntf service object
+     * @param   importOps    tcImportOperationsIntf service object
+     * @param   lookupName   Name of existing lookup
+     * @param   fileName     Path of file on local machine that contains the data
+     * @param   delimiter    Delimiter that separates each field in file
+     * @return boolean value to indicate success or failure
+     */
+    public static boolean addEntriesToLookupImportDSFF(tcExportOperationsIntf exportOps, tcImportOperationsIntf importOps, String lookupName, String fileName, String delimiter) throws tcAPIException, LookupNameNotFoundException, FileNotFoundException, IOException, BadFileFormatException, ParserConfigurationException, SAXException, TransformerConfigurationException, TransformerException, XPathExpressionException, SQLException, NamingException, DDMException, TransformationException, tcBulkException
+    {
+        return addEntriesToLookupImportDSFF(exportOps, importOps, lookupName, fileName, delimiter, MetadataSnapshotStore.getDefaultStore());
+    }
+    
+    /*
+     * Add entries from a flat file to an existing lookup using the Deployment Manager. Same behavior as
+     * addEntriesToLookupImportDSFF(exportOps, importOps, lookupName, fileName, delimiter).
+     * The exported lookup xml is saved in the snapshot store before the entries are imported, 
+     * so the import can be reverted by importing the snapshot.
+     * 
+     * @param   exportOps       tcExportOperationsIntf service object
+     * @param   importOps       tcImportOperationsIntf service object
+     * @param   lookupName      Name of existing lookup
+     * @param   fileName        Path of file on local machine that contains the data
+     * @param   delimiter       Delimiter that separates each field in file
+     * @param   snapshotStore   store of the xml before import; null to not take a snapshot
+     * @return boolean value to indicate success or failure
+     */
+    public static boolean addEntriesToLookupImportDSFF(tcExportOperationsIntf exportOps, tcImportOperationsIntf importOps, String lookupName, String fileName, String delimiter, MetadataSnapshotStore snapshotStore) throws tcAPIException, LookupNameNotFoundException, FileNotFoundException, IOException, BadFileFormatException, ParserConfigurationException, SAXException, TransformerConfigurationException, TransformerException, XPathExpressionException, SQLException, NamingException, DDMException, TransformationException, tcBulkException
+    {
+        FileInputStream fstream = null;
+        DataInputStream in = null;
+        BufferedReader br = null;
+        int lineNumber = 0;
+         
+        try
+        {
+           fstream = new FileInputStream(fileName); //Open File
+           in = new DataInputStream(fstream); //Get the object of DataInputStream
+           br = new BufferedReader(new InputStreamReader(in));
+           String strLine;
+           LinkedHashMap<String,String> entries = new LinkedHashMap<String,String>(); //stores all the entries 
+           
+           //Export the lookup metadata; validates if the lookup exists
+           String lookupXML = exportLookup(exportOps, lookupName);
+           
+           if(lookupXML == null)
+           {
+               System.out.println("[ERROR]: Lookup Definition does not exist.");
+               throw new LookupNameNotFoundException();
+           }
+           
+           Document document = HelperUtility.parseStringXMLIntoDocument(lookupXML); //convert xml to a Document
+           HashSet<String> codeKeySnapshot = getLookupCodeKeys(document);
+           System.out.println("[Info]: Number of entries in lookup XML: " + codeKeySnapshot.size());
+           
+           //Read the entries from file
+           while ((strLine = br.readLine()) != null)  
+           {
+                lineNumber++;
+                StringTokenizer st = new StringTokenizer(strLine, delimiter); 
+                
+                if(st.countTokens() != 2)
+                {
+                    System.out.println("[Error]: File format is incorrect. Fix Line["+ lineNumber +"]: " + strLine);
+                    throw new BadFileFormatException(String.format("File format is incorrect. Fix Line[%s]: %s ", lineNumber,  strLine));
+                }
+                
+                String key = st.nextToken(); //Get code Key
+                String value = st.nextToken(); //Get decode
+                
+                //check if the code key exist in the lookup
+                if(codeKeySnapshot.contains(key))
+                {
+                    System.out.println("[Warning]: Entry ["+ key + ", " + value +"] will not be added. Code key exists in lookup.");
+                }
+
+                //duplicate code key exist in file
+                else if(entries.containsKey(key))
+                {
+                    System.out.println("[Warning]: Entry ["+ key + ", " + value +"] will not be added. Duplicate Code key in file.");
+                }
+
+                //code key does not exist in lookup -> add to hashmap
+                else
+                {
+                    entries.put(key, value); 
+                }
+           }
+           
+           System.out.println("[Info]: Entries to be added: " + entries); 
+           
+           if(entries.isEmpty())
+           {
+               System.out.println("[Info]: No entries to import.");
+               return true;
+           }
+           
+           //Add lookup entries to the lookup metadata
+           MetadataDocumentNavigator navigator = new MetadataDocumentNavigator(document);
+           
+           for(Map.Entry<String,String> entry : entries.entrySet())
+           {
+               addLookupValue(navigator, entry.getKey(), entry.getValue());
+           }
+           
+           String newLookupXML = HelperUtility.parseDocumentIntoStringXML(document);
+           MetadataSnapshotStore.saveSnapshot(snapshotStore, LOOKUP_EXPORT_TYPE, lookupName, lookupXML);
+           HelperUtility.importObject(importOps, newLookupXML, "CustomLookupUtilAdd");
+           System.out.println("[Info]: Number of entries imported: " + entries.size());
+           return true;
+        } 
+         
+        finally
+        {
+            if(br != null)
+            {
+                try {
+                    br.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+            
+            if(in != null)
+            {
+                try {
+                    in.close(); //Close the input stream
+                } catch (IOException ex) {
+                    Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+            
+            if(fstream != null)
+            {
+                try {
+                    fstream.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+        }      
+    }
+    
+    /*
+     * Export a lookup definition XML
+     * @param   exportOps   tcExportOperationsIntf service object
+     * @param   lookupName  name of lookup to export
+     * @return  the XML of the lookup as a String; null if the lookup does not exist
+     */
+    public static String exportLookup(tcExportOperationsIntf exportOps, String lookupName) throws tcAPIException
+    {
+        return HelperUtility.exportObject(exportOps, LOOKUP_EXPORT_TYPE, lookupName);
+    }
+    
+    /*
+     * Adds a lookup entry to the lookup xml.
+     * Sample data added to xml
+     * <LookupValues repo-type="RDBMS" name="codeKey1">
+     * <LKV_UPDATE>1361032854000</LKV_UPDATE>
+     * <LKV_DECODED>decode1</LKV_DECODED>
+     * <LKV_DISABLED>0</LKV_DISABLED>
+     * </LookupValues>
+     * 
+     * Set the LKV_UPDATE to the date of when the lookup was last updated (LKU_UPDATE).
+     * @param document  object representation of a lookup xml
+     * @param codeKey   code key of the new entry
+     * @param decode    decode of the new entry
+     */
+    public static void addLookupValue(Document document, String codeKey, String decode) throws XPathExpressionException
+    {
+        addLookupValue(new MetadataDocumentNavigator(document), codeKey, decode);
+    }
+    
+    /*
+     * Adds an entry to the lookup xml. Same as addLookupValue(document, codeKey, decode)
+     * except the Lookup tag and LKU_UPDATE are resolved once by the navigator, so the 
+     * navigator should be reused when adding many entries to the same document.
+     * @param navigator navigator of a lookup xml
+     * @param codeKey   code key of the new entry
+     * @param decode    decode of the new entry
+     */
+    public static void addLookupValue(MetadataDocumentNavigator navigator, String codeKey, String decode) throws XPathExpressionException
+    {
+        Document document = navigator.getDocument();
+        String lookupUpdateTimestamp = navigator.getText(LOOKUP_PATH + "/" + LKU_UPDATE_TAG);
+        
+        //LookupValues tag and its properties
+        Element newLookupValue = document.createElement(LOOKUP_VALUE_TAG);
+        Element lvAttrUpdate = document.createElement(LKV_UPDATE_TAG);
+        Element lvAttrDecode = document.createElement(LKV_DECODED_TAG);
+        Element lvAttrDisabled = document.createElement(LKV_DISABLED_TAG);
+        
+        //Set LookupValues tag attributes and properties
+        newLookupValue.setAttribute("repo-type", "RDBMS"); 
+        newLookupValue.setAttribute("name", codeKey); 
+        lvAttrUpdate.setTextContent(lookupUpdateTimestamp);
+        lvAttrDecode.setTextContent(decode);
+        lvAttrDisabled.setTextContent("0");
+        
+        //Append properties to the LookupValues tag
+        newLookupValue.appendChild(lvAttrUpdate);
+        newLookupValue.appendChild(lvAttrDecode);
+        newLookupValue.appendChild(lvAttrDisabled);
+        
+        //Insert the entry within the lookup tag
+        if(!navigator.appendChild(LOOKUP_PATH, newLookupValue))
+        {
+            System.out.println("[Error]: Entry " + codeKey + " cannot be added. No Lookup tag in the lookup xml.");
+        }
+    }
+    
+    /*
+     * Get all the code keys of a lookup from the lookup xml.
+     * @param   document    object representation of a lookup xml
+     * @return  HashSet containing every code key in the lookup xml
+     */
+    public static HashSet<String> getLookupCodeKeys(Document document) throws XPathExpressionException
+    {
+        XPathFactory xPathFactory = XPathFactory.newInstance();
+        XPath xpath = xPathFactory.newXPath();
+        NodeList nodes = (NodeList) xpath.evaluate(LOOKUP_PATH + "/" + LOOKUP_VALUE_TAG, document, XPathConstants.NODESET);
+        int numNodes = nodes.getLength();
+        HashSet<String> codeKeys = new HashSet<String>(numNodes * 2);
+        
+        for(int i = 0; i < numNodes; i++)
+        {
+            codeKeys.add(((Element) nodes.item(i)).getAttribute("name"));
+        }
+        
+        return codeKeys;
+    }
+    
+    /*
+     * Runs a batch of lookup operations specified in a manifest file.
+     * Every lookup in the manifest is validated with one call to OIM before any operation is run.
+     * Operations on different lookups are run concurrently. Operations on the same lookup 
+     * are run one at a time in the order they appear in the manifest.
+     * A consolidated report with the outcome and timing of each operation is printed at the end.
+     * 
+     * File Format - tab delimited and a newline for each record; blank lines are skipped
+     * <lookup name>    <file name>    <delimiter>    <operation>
+     * 
+     * Delimiter - tab, comma, semicolon, or a literal delimiter
+     * Operation - add, delete, sync, or export
+     * 
+     * Example
+     * Lookup.AD.Groups     /home/oracle/groups.txt     tab     add
+     * Lookup.AD.Country    /home/oracle/country.txt    comma   sync
+     * 
+     * @param   lookupOps           tcLookupOperationsIntf service object
+     * @param   manifestFileName    Path of the manifest file on local machine
+     * @param   numThreads          Number of lookups to process at the same time. Capped by MAX_WRITER_THREADS.
+     * @return  the manifest records with the outcome of each operation
+     */
+    public static ArrayList<LookupBatchEntry> runLookupBatchManifest(final tcLookupOperationsIntf lookupOps, String manifestFileName, int numThreads) throws FileNotFoundException, IOException, BadFileFormatException, LookupNameNotFoundException, tcAPIException, tcColumnNotFoundException, InterruptedException
+    {
+        ManifestReader manifestReader = null;
+        ArrayList<LookupBatchEntry> batchEntries = new ArrayList<LookupBatchEntry>();
+        
+        try
+        {
+           manifestReader = new ManifestReader(manifestFileName, LOOKUP_MANIFEST_COLUMNS);
+           DelimitedRecord record;
+           
+           //Read the manifest records
+           while ((record = manifestReader.nextRecord()) != null)  
+           {
+                String lookupName = record.getValue(ManifestReader.OBJECT_NAME_COLUMN);
+                String fileName = record.getValue(ManifestReader.FILE_NAME_COLUMN);
+                String delimiter = ManifestReader.toDelimiter(record.getValue(ManifestReader.DELIMITER_COLUMN));
+                String operation = record.getValue(ManifestReader.OPERATION_COLUMN).toLowerCase();
+                
+                if(!operation.equals(BATCH_OPERATION_ADD) && !operation.equals(BATCH_OPERATION_DELETE) 
+                        && !operation.equals(BATCH_OPERATION_SYNC) && !operation.equals(BATCH_OPERATION_EXPORT))
+                {
+                    System.out.println("[Error]: Operation is invalid. Fix Line["+ manifestReader.getLineNumber() +"]: " + manifestReader.getLine());
+                    throw new BadFileFormatException(String.format("Operation is invalid. Fix Line[%s]: %s ", manifestReader.getLineNumber(),  manifestReader.getLine()));
+                }
+                
+                batchEntries.add(new LookupBatchEntry(lookupName, fileName, delimiter, operation, manifestReader.getLineNumber()));
+           }
+        }
+        
+        finally
+        {
+            if(manifestReader != null)
+            {
+                try {
+                    manifestReader.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+        }
+        
+        //Validate all the lookups exist and group the records by lookup
+        clearLookupRegistry();
+        final LookupRegistry registry = getLookupRegistry(lookupOps);
+        LinkedHashMap<String,ArrayList<LookupBatchEntry>> entriesByLookup = new LinkedHashMap<String,ArrayList<LookupBatchEntry>>();
+        ArrayList<String> missingLookups = new ArrayList<String>();
+        
+        for(LookupBatchEntry batchEntry : batchEntries)
+        {
+            String lookupName = batchEntry.getLookupName();
+            
+            if(!registry.exists(lookupName))
+            {
+                missingLookups.add(lookupName);
+            }
+            
+            else if(!entriesByLookup.containsKey(lookupName))
+            {
+                entriesByLookup.put(lookupName, new ArrayList<LookupBatchEntry>());
+            }
+            
+            if(entriesByLookup.containsKey(lookupName))
+            {
+                entriesByLookup.get(lookupName).add(batchEntry);
+            }
+        }
+        
+        if(!missingLookups.isEmpty())
+        {
+            System.out.println("[ERROR]: Lookup Definitions do not exist: " + missingLookups);
+            throw new LookupNameNotFoundException("Lookup Definitions do not exist: " + missingLookups);
+        }
+        
+        //Run each lookup on its own thread
+        int poolSize = Math.max(1, Math.min(numThreads, MAX_WRITER_THREADS));
+        ExecutorService batchPool = Executors.newFixedThreadPool(poolSize);
+        long startTime = System.currentTimeMillis();
+        
+        try
+        {
+            ArrayList<Future<Object>> pendingLookups = new ArrayList<Future<Object>>();
+            
+            for(final ArrayList<LookupBatchEntry> lookupEntries : entriesByLookup.values())
+            {
+                pendingLookups.add(batchPool.submit(new Callable<Object>()
+                {
+                    @Override
+                    public Object call() 
+                    {
+                        for(LookupBatchEntry batchEntry : lookupEntries)
+                        {
+                            runLookupBatchEntry(lookupOps, batchEntry, registry);
+                        }
+                        
+                        return null;
+                    }
+                }));
+            }
+            
+            for(Future<Object> pendingLookup : pendingLookups)
+            {
+                try
+                {
+                    pendingLookup.get();
+                }
+                
+                catch (ExecutionException ex)
+                {
+                    Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex.getCause());
+                }
+            }
+        }
+        
+        finally
+        {
+            batchPool.shutdownNow();
+        }
+        
+        //Consolidated report
+        int numFailed = 0;
+        System.out.printf("%-8s%-40s%-10s%-10s%-15s%s\n", "Line", "Lookup Name", "Operation", "Status", "Time (ms)", "Error");
+        System.out.printf("%-8s%-40s%-10s%-10s%-15s%s\n", "=====", "==========", "==========", "======", "==========", "=====");
+        
+        for(LookupBatchEntry batchEntry : batchEntries)
+        {
+            numFailed += batchEntry.getSuccess() ? 0 : 1;
+            System.out.printf("%-8s%-40s%-10s%-10s%-15s%s\n", batchEntry.getLineNumber(), batchEntry.getLookupName(), batchEntry.getOperation(), 
+                    batchEntry.getSuccess() ? "Success" : "Failed", batchEntry.getElapsedTime(), batchEntry.getErrorMessage() == null ? "" : batchEntry.getErrorMessage());
+        }
+        
+        System.out.printf("[Info]: %s of %s operations succeeded in %s ms.\n", batchEntries.size() - numFailed, batchEntries.size(), System.currentTimeMillis() - startTime);
+        return batchEntries;
+    }
+    
+    /*
+     * Runs a single record of a lookup batch manifest and records the outcome on the record.
+     * @param   lookupOps   tcLookupOperationsIntf service object
+     * @param   batchEntry  manifest record to run
+     */
+    private static void runLookupBatchEntry(tcLookupOperationsIntf lookupOps, LookupBatchEntry batchEntry, LookupRegistry registry)
+    {
+        long startTime = System.currentTimeMillis();
+        String lookupName = batchEntry.getLookupName();
+        String fileName = batchEntry.getFileName();
+        String delimiter = batchEntry.getDelimiter();
+        String operation = batchEntry.getOperation();
+        
+        try
+        {
+            boolean success = true;
+            
+            if(operation.equals(BATCH_OPERATION_ADD))
+            {
+                success = addEntriesToLookupDSFF(lookupOps, lookupName, fileName, delimiter, true, 1, registry);
+            }
+            
+            else if(operation.equals(BATCH_OPERATION_DELETE))
+            {
+                success = deleteEntriesFromLookupDSFF(lookupOps, lookupName, fileName, registry);
+            }
+            
+            else if(operation.equals(BATCH_OPERATION_SYNC))
+            {
+                success = syncLookupDSFF(lookupOps, lookupName, fileName, delimiter, registry);
+            }
+            
+            else if(operation.equals(BATCH_OPERATION_EXPORT))
+            {
+                exportLookupFileFormat(lookupOps, lookupName, fileName, delimiter, registry);
+            }
+            
+            batchEntry.setSuccess(success);
+        }
+        
+        catch (Exception ex)
+        {
+            Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Batch operation [%s] failed.", batchEntry), ex);
+            batchEntry.setErrorMessage(ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage());
+        }
+        
+        finally
+        {
+            batchEntry.setElapsedTime(System.currentTimeMillis() - startTime);
+        }
+    }
+    
+    /*
+     * Print all the columns of a lookup entry as defined by the tcLookupOperationsIntf services.
+     * For other methods in tcLookupOperationsIntf, you may specify the name defined by the tcLookupOperationsIntf
+     * services or the actual table column name. The latter is preferred.
+     * 
+     * Important OIM Schemas
+     * LKU - contains all the lookup definition
+     * LKV - conatins all the lookup entries
+     * 
+     * Important Columns for a Lookup Entry
+     * Lookup Definition.Key [LKU_KEY] = Lookup Key to which the entry belongs
+     * Lookup Definition.Code [LKU_TYPE_STRING_KEY] = Name of Lookup to which the entry belongs
+     * Lookup Definition.Lookup Code Information.Key [LKV_KEY] = Entry(CodeKey/Decode) key
+     * Lookup Definition.Lookup Code Information.Code Key [LKV_ENCODED] = Code Key
+     * Lookup Definition.Lookup Code Information.Decode [LKV_DECODED] = Decode
+     * Lookup Definition.Lookup Code Information.Language [LKV_LANGUAGE] = Language of the entry
+     * Lookup Definition.Lookup Code Information.Country [LKV_COUNTRY] = Country of the entry
+     * 
+     * @param   lookupOps   tcLookupOperationsIntf service object 
+     * @param   lookupName  Name of the lookup definition    
+     */
+    public static void printLookupEntryColumns(tcLookupOperationsIntf lookupOps, String lookupName) throws tcAPIException, tcInvalidLookupException
+    {
+        tcResultSet lookupResultSet = lookupOps.getLookupValues(lookupName); //get all the entries of a lookup
+        String [] columnNames = lookupResultSet.getColumnNames();
+        for(String columnName : columnNames)
+        {
+            System.out.println(columnName);
+        }
+    }
+    
+    /*
+     * Print all the entries of a lookup.
+     * @param   lookupOps   tcLookupOperationsIntf service object
+     * @param   lookupName  Name of the lookup definition
+     */
+    public static void printLookupEntries(tcLookupOperationsIntf lookupOps, String lookupName) throws tcAPIException, tcInvalidLookupException, tcColumnNotFoundException
+    {
+        tcResultSet lookupResultSet = lookupOps.getLookupValues(lookupName); //get all the entries of a lookup
+        
+        System.out.printf("%-25s%-25s%-25s\n", "Entry Key" ,"Code Key", "Decode");
+        System.out.printf("%-25s%-25s%-25s\n", "==========", "==========", "==========");
+        for(int i = 0; i < lookupResultSet.getTotalRowCount(); i++)
+        {
+            lookupResultSet.goToRow(i);
+            String entryKey = lookupResultSet.getStringValue("Lookup Definition.Lookup Code Information.Key");
+            String code = lookupResultSet.getStringValue("Lookup Definition.Lookup Code Information.Code Key");
+            String decode = lookupResultSet.getStringValue("Lookup Definition.Lookup Code Information.Decode");
+            System.out.printf("%-25s%-25s%-25s\n",entryKey,code,decode);
+        }
+    }
+    
+    /*
+     * Export lookup name and its entries in a format used for this utility.
+     * Tab delimited for entries.
+     * @param   lookupOps   tcLookupOperationsIntf service object
+     * @param   lookupName  Name of the lookup definition
+     * @param   fileName    Absolute path of file on local machine
+     * @param   delimiter   Delimiter that separates each field in file
+     */
+    public static void exportLookupFileFormat(tcLookupOperationsIntf lookupOps, String lookupName, String fileName, String delimiter) throws tcAPIException, tcInvalidLookupException, tcColumnNotFoundException, FileNotFoundException, UnsupportedEncodingException, LookupNameNotFoundException
+    {
+        exportLookupFileFormat(lookupOps, lookupName, fileName, delimiter, null);
+    }
+    
+    /*
+     * Same as exportLookupFileFormat(lookupOps, lookupName, fileName, delimiter)
+     * except the lookup is validated against the given registry.
+     * @param   registry    lookups loaded once by the caller; null to use doesLookupExist
+     */
+    private static void exportLookupFileFormat(tcLookupOperationsIntf lookupOps, String lookupName, String fileName, String delimiter, LookupRegistry registry) throws tcAPIException, tcInvalidLookupException, tcColumnNotFoundException, FileNotFoundException, UnsupportedEncodingException, LookupNameNotFoundException
+    {
+        PrintWriter writer = null;
+        
+        try
+        {      
+            //Validate if the lookup exists
+            if(doesLookupExist(lookupOps, lookupName, registry) == false)
+            {
+                System.out.println("[ERROR]: Lookup Definition does not exist.");
+                throw new LookupNameNotFoundException();
+            }
+           
+            tcResultSet lookupResultSet = lookupOps.getLookupValues(lookupName); //get all the entries of a lookup
+            writer = new PrintWriter(fileName, "UTF-8");
             
             for(int i = 0; i < lookupResultSet.getTotalRowCount(); i++)
             {
@@ -415,6 +1686,103 @@ public class LookupUtility
         }
     }
            
+    /*
+     * Export the entries of a lookup in a format used for this utility.
+     * Same as exportLookupFileFormat(dbProvider, lookupName, fileName, delimiter, pageSize) 
+     * using EXPORT_PAGE_SIZE as the page size.
+     * @param   dbProvider  connection to the OIM Schema
+     * @param   lookupName  Name of the lookup definition
+     * @param   fileName    Absolute path of file on local machine
+     * @param   delimiter   Delimiter that separates each field in file
+     */
+    public static void exportLookupFileFormat(tcDataProvider dbProvider, String lookupName, String fileName, String delimiter) throws tcDataSetException, tcDataAccessException, FileNotFoundException, UnsupportedEncodingException, IOException, LookupNameNotFoundException
+    {
+        exportLookupFileFormat(dbProvider, lookupName, fileName, delimiter, EXPORT_PAGE_SIZE);
+    }
+    
+    /*
+     * Export the entries of a lookup in a format used for this utility.
+     * Entries are queried from the LKV table one page at a time and written through 
+     * a large buffer. Only one page of entries is held in memory regardless of the 
+     * size of the lookup. Use for lookups with a large amount of entries.
+     * Entries are written in the order of their entry key (LKV_KEY).
+     * @param   dbProvider  connection to the OIM Schema
+     * @param   lookupName  Name of the lookup definition
+     * @param   fileName    Absolute path of file on local machine
+     * @param   delimiter   Delimiter that separates each field in file
+     * @param   pageSize    Number of entries to fetch per query; must be at least 1
+     */
+    public static void exportLookupFileFormat(tcDataProvider dbProvider, String lookupName, String fileName, String delimiter, int pageSize) throws tcDataSetException, tcDataAccessException, FileNotFoundException, UnsupportedEncodingException, IOException, LookupNameNotFoundException
+    {
+        //A page of 0 entries never ends the paging loop
+        if(pageSize < 1)
+        {
+            throw new IllegalArgumentException("Page size must be at least 1: " + pageSize);
+        }
+        
+        BufferedWriter writer = null;
+        long startTime = System.currentTimeMillis();
+        
+        try
+        {
+            //Validate if the lookup exists
+            long lookupKey = getLookupKey(dbProvider, lookupName);
+            
+            if(lookupKey == 0)
+            {
+                System.out.println("[ERROR]: Lookup Definition does not exist.");
+                throw new LookupNameNotFoundException();
+            }
+            
+            String query = "SELECT LKV_KEY, LKV_ENCODED, LKV_DECODED FROM "
+                    + "(SELECT LKV_KEY, LKV_ENCODED, LKV_DECODED FROM LKV WHERE LKU_KEY = ? AND LKV_KEY > ? ORDER BY LKV_KEY) "
+                    + "WHERE ROWNUM <= ?";
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName), "UTF-8"), EXPORT_BUFFER_SIZE);
+            long lastEntryKey = 0;
+            int numExported = 0;
+            int numRecords;
+            
+            //Fetch the next page of entries after the last entry key written
+            do
+            {
+                PreparedStatementUtil ps = new PreparedStatementUtil();
+                ps.setStatement(dbProvider, query);
+                ps.setLong(1, lookupKey);
+                ps.setLong(2, lastEntryKey);
+                ps.setLong(3, pageSize);
+                ps.execute();
+                tcDataSet lkvDataSet = ps.getDataSet();
+                numRecords = lkvDataSet.getTotalRowCount();
+                
+                for(int i = 0; i < numRecords; i++)
+                {
+                    lkvDataSet.goToRow(i);
+                    writer.write(String.valueOf(lkvDataSet.getString("LKV_ENCODED")));
+                    writer.write(delimiter);
+                    writer.write(String.valueOf(lkvDataSet.getString("LKV_DECODED")));
+                    writer.write('\n');
+                    lastEntryKey = lkvDataSet.getLong("LKV_KEY");
+                }
+                
+                numExported += numRecords;
+            } while(numRecords == pageSize);
+            
+            System.out.printf("[Info]: Exported %s entries in %s ms.\n", numExported, System.currentTimeMillis() - startTime);
+        }
+        
+        finally
+        {
+            if(writer != null)
+            {
+                try {
+                    writer.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+        }
+    }
+    
     /*
      * Creates a lookup definition.
      * @param   lookupOps    tcLookupOperationsIntf service object
@@ -425,6 +1793,7 @@ public class LookupUtility
     public static void addLookup(tcLookupOperationsIntf lookupOps, String lookupName) throws tcAPIException, tcDuplicateLookupCodeException
     {
         lookupOps.addLookupCode(lookupName); //adds a lookup
+        clearLookupRegistry();
     }
     
     /*
@@ -445,6 +1814,7 @@ public class LookupUtility
         HashMap<String,String> updateField = new HashMap<String,String>();
         updateField.put(field, fieldValue);
         lookupOps.updateLookupCode(lookupName, updateField);   
+        clearLookupRegistry(); //lookup name may have changed or been created
     }
     
     /*
@@ -461,6 +1831,83 @@ public class LookupUtility
         lookupOps.addLookupValue(lookupName, codeKey, decode, language, country);
     }
     
+    /*
+     * Adds entries to an existing lookup using a fixed pool of writer threads.
+     * The number of threads is capped by MAX_WRITER_THREADS regardless of the value given.
+     * Each entry that fails to be added is logged and returned to the caller.
+     * The throughput is printed once every entry has been processed.
+     * 
+     * Note: The same tcLookupOperationsIntf service object is shared by all the writer threads.
+     * 
+     * @param   lookupOps           tcLookupOperationsIntf service object
+     * @param   lookupName          Name of the lookup definition 
+     * @param   entries             Code key and decode of each entry to add
+     * @param   numWriterThreads    Number of threads used to add entries
+     * @return  HashMap of the code keys that failed to be added with the cause of the failure
+     */
+    public static HashMap<String,Throwable> addEntriesToLookupConcurrently(final tcLookupOperationsIntf lookupOps, final String lookupName, Map<String,String> entries, int numWriterThreads) throws InterruptedException
+    {
+        int poolSize = Math.max(1, Math.min(numWriterThreads, MAX_WRITER_THREADS));
+        ExecutorService writerPool = Executors.newFixedThreadPool(poolSize);
+        LinkedHashMap<String,Future<Object>> pendingEntries = new LinkedHashMap<String,Future<Object>>();
+        HashMap<String,Throwable> failedEntries = new HashMap<String,Throwable>();
+        long startTime = System.currentTimeMillis();
+        
+        try
+        {
+            //Submit each entry to the writer pool
+            for(Map.Entry<String,String> entry : entries.entrySet())
+            {
+                final String codeKey = entry.getKey();
+                final String decode = entry.getValue();
+                
+                Future<Object> pendingEntry = writerPool.submit(new Callable<Object>()
+                {
+                    @Override
+                    public Object call() throws Exception 
+                    {
+                        addEntryToLookup(lookupOps, lookupName, codeKey, decode, "", "");
+                        return null;
+                    }
+                });
+                
+                pendingEntries.put(codeKey, pendingEntry);
+            }
+            
+            //Wait on each entry and report the failures
+            for(Map.Entry<String,Future<Object>> pendingEntry : pendingEntries.entrySet())
+            {
+                try
+                {
+                    pendingEntry.getValue().get();
+                }
+                
+                catch (ExecutionException ex)
+                {
+                    Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Entry [%s] failed to be added.", pendingEntry.getKey()), ex.getCause());
+                    failedEntries.put(pendingEntry.getKey(), ex.getCause());
+                }
+            }
+        }
+        
+        finally
+        {
+            writerPool.shutdownNow();
+        }
+        
+        long elapsedTime = Math.max(1L, System.currentTimeMillis() - startTime);
+        int numAdded = pendingEntries.size() - failedEntries.size();
+        System.out.printf("[Info]: Added %s of %s entries in %s ms with %s threads (%.2f entries/sec).\n", 
+                numAdded, pendingEntries.size(), elapsedTime, poolSize, numAdded * 1000.0 / elapsedTime);
+        
+        if(!failedEntries.isEmpty())
+        {
+            System.out.println("[Warning]: Entries failed to be added: " + failedEntries.keySet());
+        }
+        
+        return failedEntries;
+    }
+    
     /*
      * Removes an entry from a lookup. Delete is determined by an entry's code key.
      * @param   lookupOps    tcLookupOperationsIntf service object
@@ -513,21 +1960,247 @@ public class LookupUtility
     }
     
     /*
-     * Checks if a lookup exists
+     * Get the bit of a code key in a filter of DUPLICATE_FILTER_BITS bits. Different code keys 
+     * may share a bit, so a set bit only means the code key may have been seen.
+     * @param   codeKey     code key of a lookup entry
+     * @return  index of the bit
+     */
+    private static int getDuplicateFilterIndex(String codeKey)
+    {
+        int hash = codeKey.hashCode();
+        hash ^= (hash >>> 16); //spread the high bits into the low bits that pick the index
+        return (hash & 0x7fffffff) % DUPLICATE_FILTER_BITS;
+    }
+    
+    /*
+     * Get all the code keys of a lookup. Only one call is made to OIM.
+     * Code keys are case sensitive.
      * @param   lookupOps   tcLookupOperationsIntf service object
      * @param   lookupName  Name of the lookup definition
-     * @return  boolean value to indicate if lookup exists.
+     * @return  HashSet containing every code key of the lookup
+     */
+    public static HashSet<String> getLookupCodeKeySnapshot(tcLookupOperationsIntf lookupOps, String lookupName) throws tcAPIException, tcInvalidLookupException, tcColumnNotFoundException
+    {
+        tcResultSet lookupResultSet = lookupOps.getLookupValues(lookupName); //get all the entries of a lookup
+        int numRows = lookupResultSet.getTotalRowCount();
+        HashSet<String> codeKeys = new HashSet<String>(numRows * 2);
+        
+        for(int i = 0; i < numRows; i++)
+        {
+            lookupResultSet.goToRow(i);
+            codeKeys.add(lookupResultSet.getStringValue("Lookup Definition.Lookup Code Information.Code Key"));
+        }
+        
+        return codeKeys;
+    }
+    
+    /*
+     * Get all the entries of a lookup. Only one call is made to OIM.
+     * If there are duplicate code keys in the lookup, the first one is kept.
+     * @param   lookupOps   tcLookupOperationsIntf service object
+     * @param   lookupName  Name of the lookup definition
+     * @return  HashMap with the code key and decode of every entry of the lookup
+     */
+    public static HashMap<String,String> getLookupEntrySnapshot(tcLookupOperationsIntf lookupOps, String lookupName) throws tcAPIException, tcInvalidLookupException, tcColumnNotFoundException
+    {
+        tcResultSet lookupResultSet = lookupOps.getLookupValues(lookupName); //get all the entries of a lookup
+        int numRows = lookupResultSet.getTotalRowCount();
+        HashMap<String,String> lookupEntries = new HashMap<String,String>(numRows * 2);
+        
+        for(int i = 0; i < numRows; i++)
+        {
+            lookupResultSet.goToRow(i);
+            String code = lookupResultSet.getStringValue("Lookup Definition.Lookup Code Information.Code Key");
+            
+            if(!lookupEntries.containsKey(code))
+            {
+                lookupEntries.put(code, lookupResultSet.getStringValue("Lookup Definition.Lookup Code Information.Decode"));
+            }
+        }
+        
+        return lookupEntries;
+    }
+    
+    /*
+     * Get the key of a lookup definition
+     * @param   dbProvider  connection to the OIM Schema
+     * @param   lookupName  Name of the lookup definition (LKU.LKU_TYPE_STRING_KEY)
+     * @return  corresponding lookup key (LKU.LKU_KEY); 0 if the lookup does not exist
+     */
+    public static long getLookupKey(tcDataProvider dbProvider, String lookupName) throws tcDataSetException, tcDataAccessException
+    {
+        tcDataSet lkuDataSet = null;
+        PreparedStatementUtil ps = null;
+        
+        try 
+        {
+            String query = "SELECT LKU_KEY FROM LKU WHERE LKU_TYPE_STRING_KEY = ?";
+            ps = new PreparedStatementUtil();
+            ps.setStatement(dbProvider, query);
+            ps.setString(1, lookupName);
+            ps.execute();
+            lkuDataSet = ps.getDataSet();
+            return lkuDataSet.getLong("LKU_KEY");
+        } 
+        
+        finally
+        {
+        }
+    }
+    
+    /*
+     * Get the names of all the lookup definitions. Only one call is made to OIM.
+     * @param   lookupOps   tcLookupOperationsIntf service object
+     * @return  HashSet containing the name of every lookup definition
+     */
+    public static HashSet<String> getAllLookupNames(tcLookupOperationsIntf lookupOps) throws tcAPIException, tcColumnNotFoundException
+    {
+        tcResultSet lookupResultSet = lookupOps.getLookupCodes(new HashMap<String,String>()); //get all the lookup definitions
+        int numRows = lookupResultSet.getTotalRowCount();
+        HashSet<String> lookupNames = new HashSet<String>(numRows * 2);
+        
+        for(int i = 0; i < numRows; i++)
+        {
+            lookupResultSet.goToRow(i);
+            lookupNames.add(lookupResultSet.getStringValue("Lookup Definition.Code"));
+        }
+        
+        return lookupNames;
+    }
+    
+    /*
+     * Get a fingerprint of the entries of a lookup. Only one query is made to LKV.
+     * The fingerprint changes when an entry is added, removed, or updated.
+     * @param   dbProvider  connection to the OIM Schema
+     * @param   lookupName  Name of the lookup definition
+     * @return  number of entries and a hash of the entries
+     */
+    public static String getLookupFingerprint(tcDataProvider dbProvider, String lookupName) throws tcDataSetException, tcDataAccessException, UnsupportedEncodingException
+    {
+        tcDataSet lkvDataSet = null;
+        PreparedStatementUtil ps = null;
+        
+        try 
+        {
+            String query = "SELECT LKV.LKV_ENCODED, LKV.LKV_DECODED FROM LKV, LKU WHERE LKV.LKU_KEY = LKU.LKU_KEY AND LKU.LKU_TYPE_STRING_KEY = ?";
+            ps = new PreparedStatementUtil();
+            ps.setStatement(dbProvider, query);
+            ps.setString(1, lookupName);
+            ps.execute();
+            lkvDataSet = ps.getDataSet();
+            int numRecords = lkvDataSet.getTotalRowCount();
+            ArrayList<String> entries = new ArrayList<String>(numRecords);
+            
+            for(int i = 0; i < numRecords; i++)
+            {
+                lkvDataSet.goToRow(i);
+                entries.add(lkvDataSet.getString("LKV_ENCODED") + "\t" + lkvDataSet.getString("LKV_DECODED"));
+            }
+            
+            return numRecords + "-" + HelperUtility.getHash(entries);
+        } 
+        
+        finally
+        {
+        }
+    }
+    
+    /*
+     * Get the lookup registry of the session. The registry is loaded with one call 
+     * to OIM the first time it is requested for a tcLookupOperationsIntf service object.
+     * @param   lookupOps   tcLookupOperationsIntf service object
+     * @return  registry of the names of all the lookup definitions
+     */
+    public static synchronized LookupRegistry getLookupRegistry(tcLookupOperationsIntf lookupOps) throws tcAPIException, tcColumnNotFoundException
+    {
+        if(lookupRegistry == null || registryLookupOps != lookupOps)
+        {
+            lookupRegistry = new LookupRegistry(getAllLookupNames(lookupOps));
+            registryLookupOps = lookupOps;
+            System.out.println("[Info]: Number of lookups in registry: " + lookupRegistry.size());
+        }
+        
+        return lookupRegistry;
+    }
+    
+    /*
+     * Removes the cached lookup registry. The registry is loaded again on the next request.
+     */
+    public static synchronized void clearLookupRegistry()
+    {
+        lookupRegistry = null;
+        registryLookupOps = null;
+    }
+    
+    /*
+     * Checks if a lookup exists. Uses the lookup registry of the session so the 
+     * entries of the lookup are not fetched. If the lookup is not in the registry, 
+     * the registry is loaded again in case the lookup was created after the registry was loaded,
+     * at most once every REGISTRY_RELOAD_INTERVAL so checking for many missing lookups 
+     * does not load every lookup name per check.
+     * @param   lookupOps   tcLookupOperationsIntf service object
+     * @param   lookupName  Name of the lookup definition
+     * @return  boolean value to indicate if lookup exists; false if the registry cannot be loaded
      */
     public static boolean doesLookupExist(tcLookupOperationsIntf lookupOps, String lookupName)
     {
         try 
         {
-            lookupOps.getLookupValues(lookupName);
-            return true;
+            LookupRegistry registry = getLookupRegistry(lookupOps);
+            
+            if(registry.exists(lookupName))
+            {
+                return true;
+            }
+            
+            if(System.currentTimeMillis() - registry.getLoadedTime() >= REGISTRY_RELOAD_INTERVAL)
+            {
+                clearLookupRegistry();
+                registry = getLookupRegistry(lookupOps);
+                
+                if(registry.exists(lookupName))
+                {
+                    return true;
+                }
+            }
+            
+            String caseInsensitiveMatch = registry.getLookupName(lookupName);
+            
+            if(caseInsensitiveMatch != null)
+            {
+                System.out.printf("[Warning]: Lookup name '%s' differs in case from '%s'.\n", lookupName, caseInsensitiveMatch);
+            }
+            
+            return false;
+        }
+        
+        catch (tcAPIException ex) 
+        {
+            Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Lookup registry could not be loaded to check lookup %s.", lookupName), ex);
+        }
+        
+        catch (tcColumnNotFoundException ex) 
+        {
+            Logger.getLogger(LookupUtility.class.getName()).log(Level.SEVERE, String.format("Lookup registry could not be loaded to check lookup %s.", lookupName), ex);
         }
         
-        catch (tcAPIException ex) {}
-        catch (tcInvalidLookupException ex) {} 
         return false;
     }
-}
\ No newline at end of file
+    
+    /*
+     * Checks if a lookup exists in the given registry without calling OIM.
+     * @param   lookupOps   tcLookupOperationsIntf service object
+     * @param   lookupName  Name of the lookup definition
+     * @param   registry    lookups loaded once by the caller; null to use doesLookupExist(lookupOps, lookupName)
+     * @return  boolean value to indicate if lookup exists.
+     */
+    private static boolean doesLookupExist(tcLookupOperationsIntf lookupOps, String lookupName, LookupRegistry registry)
+    {
+        if(registry == null)
+        {
+            return doesLookupExist(lookupOps, lookupName);
+        }
+        
+        return registry.exists(lookupName);
+    }
+}
@@ -24,11 +24,13 @@ import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.StringTokenizer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import project.rayedchan.custom.objects.DelimitedRecord;
+import project.rayedchan.custom.objects.DelimitedRecordSchema;
 import project.rayedchan.custom.objects.FormFieldColumnNameComparator;
 import project.rayedchan.custom.objects.ReconFieldAndFormFieldMap;
 import project.rayedchan.custom.objects.ReconFieldComparator;
@@ -286,7 +288,7 @@ public class MappingReconFieldToFormFieldUtility
             tcResultSet mappingResultSet = formDefOps.getReconDataFlowForProcess(processKey);
             int numRows = mappingResultSet.getTotalRowCount();
 
-            writer.printf("%s%s%s%s%s%s%s\n",RECONFIELDNAME, delimiter, FORMFIELDCOLUMNNAME, delimiter, ISKEYFIELD, delimiter, IS_CASE_INSENSITIVE);
+            writer.printf("%s\n", DelimitedRecordSchema.join(new String[] {RECONFIELDNAME, FORMFIELDCOLUMNNAME, ISKEYFIELD, IS_CASE_INSENSITIVE}, delimiter));
             for(int i = 0; i < numRows; i++)
             {
                 mappingResultSet.goToRow(i);
@@ -298,7 +300,7 @@ public class MappingReconFieldToFormFieldUtility
 
                 if(childTableName == null || childTableName.isEmpty())
                 {
-                    writer.printf("%s%s%s%s%s%s%s\n", reconField, delimiter, formField, delimiter, isKeyField, delimiter, isCaseInsensitive);
+                    writer.printf("%s\n", DelimitedRecordSchema.join(new String[] {reconField, formField, isKeyField, isCaseInsensitive}, delimiter));
                 }
             } 
         }
@@ -403,194 +405,103 @@ public class MappingReconFieldToFormFieldUtility
             long formKey = getFormKeyByObjAndProcKey(dbProvider, processKey, objectKey); //get the process form key associated with the obj key and prco key
             
             //First line determines the ordering of the mappings attributes in the file
-            ArrayList<String> mappingAttributeNameArray = new ArrayList<String>(); //store the name of each mapping attribute name 
-            String mappingAttributeNames = br.readLine();
+            DelimitedRecordSchema mappingSchema = new DelimitedRecordSchema(delimiter, 
+                    new String[] {RECONFIELDNAME, FORMFIELDCOLUMNNAME, ISKEYFIELD, IS_CASE_INSENSITIVE}, 
+                    new String[] {RECONFIELDNAME, FORMFIELDCOLUMNNAME}, false);
             
-            if(mappingAttributeNames == null)
+            try
             {
-                throw new MissingHeaderException(String.format("Here are all the possible mapping attribute names for file header: %s, %s, %s, %s",
-                     RECONFIELDNAME, FORMFIELDCOLUMNNAME, ISKEYFIELD, IS_CASE_INSENSITIVE));
+                mappingSchema.bindHeader(br.readLine());
             }
             
-            StringTokenizer mappingAttributeNameTokens = new StringTokenizer(mappingAttributeNames, delimiter);
-            lineNumber++;
-            
-            while(mappingAttributeNameTokens.hasMoreTokens())
+            catch (BadFileFormatException ex)
             {
-                String mappingAttributeName = mappingAttributeNameTokens.nextToken();
- 
-                //Check if the name of the attribute is valid
-                if(mappingAttributeName.equalsIgnoreCase(RECONFIELDNAME))
-                {
-                    mappingAttributeNameArray.add(RECONFIELDNAME);
-                }
-                
-                else if(mappingAttributeName.equalsIgnoreCase(FORMFIELDCOLUMNNAME))
-                {
-                    mappingAttributeNameArray.add(FORMFIELDCOLUMNNAME);
-                }
-                
-                else if(mappingAttributeName.equalsIgnoreCase(ISKEYFIELD))
-                {
-                    mappingAttributeNameArray.add(ISKEYFIELD);
-                }
-                          
-                else if(mappingAttributeName.equalsIgnoreCase(IS_CASE_INSENSITIVE))
-                {
-                    mappingAttributeNameArray.add(IS_CASE_INSENSITIVE);
-                }
-                        
-                else
-                {
-                    System.out.printf("Mapping attribute name %s is invalid."
-                    + "Here are all the possible mapping attribute names: %s, %s, %s, %s",
-                     mappingAttributeName ,RECONFIELDNAME, FORMFIELDCOLUMNNAME, ISKEYFIELD, IS_CASE_INSENSITIVE);
-                    throw new BadFileFormatException(String.format("Mapping attribute name %s is invalid."
-                    + "Here are all the possible mapping attribute names: %s, %s, %s, %s",
-                     mappingAttributeName ,RECONFIELDNAME, FORMFIELDCOLUMNNAME, ISKEYFIELD, IS_CASE_INSENSITIVE));
-                }
+                System.out.println("[Error]: " + ex.getMessage());
+                throw ex;
             }
             
-            //Validate that "recon_field_name" is specified in the file.
-            if(!mappingAttributeNameArray.contains(RECONFIELDNAME))
+            catch (MissingRequiredFieldException ex)
             {
-                System.out.println("'"+ RECONFIELDNAME + "' is a required mapping attribute to be specified in file");
-                throw new MissingRequiredFieldException("'"+ RECONFIELDNAME + "' is a required mapping attribute to be specified in file");
+                System.out.println("[Error]: " + ex.getMessage());
+                throw ex;
             }
             
-            //Validate that "form_field_column_name" is specified in the file.
-            if(!mappingAttributeNameArray.contains(FORMFIELDCOLUMNNAME))
-            {
-                System.out.println("'"+ FORMFIELDCOLUMNNAME + "' is a required mapping attribute to be specified in file");
-                throw new MissingRequiredFieldException("'"+ FORMFIELDCOLUMNNAME + "' is a required mapping attribute to be specified in file");
-            }
+            lineNumber++;
             
             //Rest of the file should be the mappings 
             while ((strLine = br.readLine()) != null)  
             {
                 lineNumber++;
-                String[] mappingToken = strLine.split(delimiter);
-                int mappingAttrNameFileCount = mappingAttributeNameArray.size();
-                int numTokens = mappingToken.length;
+                DelimitedRecord mappingRecord = mappingSchema.parseRecord(strLine);
                 ReconFieldAndFormFieldMap fieldMapping = new ReconFieldAndFormFieldMap();
                  
                 //validate the line format
-                if(numTokens != mappingAttrNameFileCount)
+                if(mappingRecord == null)
                 {
                     System.out.println("[Warning] Line = " + lineNumber +" : Size of row is invalid. Mapping will not be added:\n" + strLine);
                     continue;
                 }
                                 
-                boolean isMappingFromFileValid = true;
-                String reconFieldName = null;
-                String formFieldColumnName = null;
+                boolean isMappingFromFileValid = false;
+                String reconFieldName = mappingRecord.getValue(RECONFIELDNAME);
+                String formFieldColumnName = mappingRecord.getValue(FORMFIELDCOLUMNNAME);
+                String isKeyFieldStr = mappingRecord.getValue(ISKEYFIELD); //null if the column is not in the header
+                String isCaseInsensitiveStr = mappingRecord.getValue(IS_CASE_INSENSITIVE); //null if the column is not in the header
                 String reconFieldKey = null;
                 
-                for(int i = 0; i < mappingAttrNameFileCount; i++)
+                //validate the existence of the recon field on current line
+                if(ReconFieldUtility.doesReconFieldNameExist(dbProvider, objectKey, reconFieldName) == false)
                 {
-                    String mappingAttributeName = mappingAttributeNameArray.get(i);
-                   
-                    if(mappingAttributeName.equalsIgnoreCase(RECONFIELDNAME))
+                    System.out.println("[Warning] Line = " + lineNumber +" : Reconciliation Field '" + reconFieldName + "' does not exist. Mapping will not be added:\n" + strLine);
+                }
+                
+                //Check if the recon field is a multivalued attribute
+                else if(ReconFieldUtility.isReconFieldMulitvalued(dbProvider, objectKey, reconFieldName) == true)
+                {
+                    System.out.println("[Warning] Line = " + lineNumber +" : Recon Field'" + reconFieldName + "' is a mulitvalued attribute. Mapping will not be added:\n" + strLine);
+                }
+                
+                //Check if the recon field is a child attribute
+                else if(ReconFieldUtility.isReconFieldChildAttribute(dbProvider, objectKey , reconFieldName) == true)
+                {
+                    System.out.println("[Warning] Line = " + lineNumber +" : Recon Field'" + reconFieldName + "' is a child attribute. Mapping will not be added:\n" + strLine);
+                }
+                
+                //Validate the existence of the form field
+                else if(doesFormFieldExist(formDefOps, formKey, formFieldColumnName) == false)
+                {
+                    System.out.println("[Warning] Line = " + lineNumber +" : Form Field '" + formFieldColumnName + "' does not exist on current active form. Mapping will not be added:\n" + strLine);
+                }
+                
+                else if(isKeyFieldStr != null && !isKeyFieldStr.equals("1") && !isKeyFieldStr.equals("0") && !isKeyFieldStr.isEmpty())
+                {
+                    System.out.println("[Warning] Line = " + lineNumber +" : 'is_key_field' attibute type '" + isKeyFieldStr + "' is not valid (0 = false, 1 = true). Mapping will not be added:\n" + strLine);
+                }
+                
+                else if(isCaseInsensitiveStr != null && !isCaseInsensitiveStr.equals("1") && !isCaseInsensitiveStr.equals("0") && !isCaseInsensitiveStr.isEmpty())
+                {
+                    System.out.println("[Warning] Line = " + lineNumber +" : 'is_case_insensitive' attribute type '" + isCaseInsensitiveStr + "' is not a valid value (0 = false, 1 = true). Mapping will not be added:\n" + strLine);
+                }
+                
+                else
+                {
+                    reconFieldKey = getReconFieldKey(dbProvider, objectKey, reconFieldName);
+                    fieldMapping.setReconFieldKey(reconFieldKey);
+                    fieldMapping.setReconFieldName(reconFieldName);
+                    fieldMapping.setFormFieldColumnName(formFieldColumnName);
+                    
+                    if(isKeyFieldStr != null)
                     {
-                        reconFieldName = mappingToken[i];
-                        
-                        //validate the existence of the recon field on current line
-                        if(ReconFieldUtility.doesReconFieldNameExist(dbProvider, objectKey, reconFieldName) == false)
-                        {
-                            System.out.println("[Warning] Line = " + lineNumber +" : Reconciliation Field '" + reconFieldName + "' does not exist. Mapping will not be added:\n" + strLine);
-                            isMappingFromFileValid = false;
-                            break;
-                        }
-                        
-                        //Check if the recon field is a multivalued attribute
-                        if(ReconFieldUtility.isReconFieldMulitvalued(dbProvider, objectKey, reconFieldName) == true)
-                        {
-                            System.out.println("[Warning] Line = " + lineNumber +" : Recon Field'" + reconFieldName + "' is a mulitvalued attribute. Mapping will not be added:\n" + strLine);
-                            isMappingFromFileValid = false;
-                            break;
-                        }
-
-                        //Check if the recon field is a child attribute
-                        if(ReconFieldUtility.isReconFieldChildAttribute(dbProvider, objectKey , reconFieldName) == true)
-                        {
-                            System.out.println("[Warning] Line = " + lineNumber +" : Recon Field'" + reconFieldName + "' is a child attribute. Mapping will not be added:\n" + strLine);
-                            isMappingFromFileValid = false;
-                            break; 
-                        }
-                        
-                        reconFieldKey = getReconFieldKey(dbProvider, objectKey, reconFieldName);
-                        fieldMapping.setReconFieldKey(reconFieldKey);
-                        fieldMapping.setReconFieldName(reconFieldName);
+                        fieldMapping.setIsKeyField(isKeyFieldStr.equals("1"));
                     }
-
-                    else if(mappingAttributeName.equalsIgnoreCase(FORMFIELDCOLUMNNAME))
-                    {  
-                        formFieldColumnName = mappingToken[i];
-                        
-                        //Validate the existence of the form field
-                        if(doesFormFieldExist(formDefOps, formKey, formFieldColumnName) == false)
-                        {
-                            System.out.println("[Warning] Line = " + lineNumber +" : Form Field '" + reconFieldName + "' does not exist on current active form. Mapping will not be added:\n" + strLine);
-                            isMappingFromFileValid = false;
-                            break;
-                        }
-                        
-                        fieldMapping.setFormFieldColumnName(formFieldColumnName);
-                    }
-
-                    else if(mappingAttributeName.equalsIgnoreCase(ISKEYFIELD))
+                    
+                    if(isCaseInsensitiveStr != null)
                     {
-                        String isKeyFieldStr = mappingToken[i];
-                        boolean isKeyField;
-                        
-                        //check if the type is valid
-                        if(isKeyFieldStr.equalsIgnoreCase("1"))
-                        {
-                            isKeyField = true;
-                        }
-                        
-                        else if(isKeyFieldStr.equalsIgnoreCase("0") || isKeyFieldStr.equalsIgnoreCase(""))
-                        {
-                            isKeyField = false;
-                        }
-                        
-                        else
-                        {
-                            System.out.println("[Warning] Line = " + lineNumber +" : 'is_key_field' attibute type '" + isKeyFieldStr + "' is not valid (0 = false, 1 = true). Mapping will not be added:\n" + strLine);
-                            isMappingFromFileValid = false;
-                            break; 
-                        }
-                        
-                        fieldMapping.setIsKeyField(isKeyField);
-                    }
-
-                    else if(mappingAttributeName.equalsIgnoreCase(IS_CASE_INSENSITIVE))
-                    {                       
-                        String isCaseInsensitiveStr = mappingToken[i];
-                        boolean isCaseInsensitive;
-                        
-                        //check if the type is valid
-                        if(isCaseInsensitiveStr.equalsIgnoreCase("1"))
-                        {
-                            isCaseInsensitive = true;
-                        }
-                        
-                        else if(isCaseInsensitiveStr.equalsIgnoreCase("0") || isCaseInsensitiveStr.equalsIgnoreCase(""))
-                        {
-                            isCaseInsensitive = false;
-                        }
-                        
-                        else
-                        {
-                            System.out.println("[Warning] Line = " + lineNumber +" : 'is_case_insensitive' attribute type '" + isCaseInsensitiveStr + "' is not a valid value (0 = false, 1 = true). Mapping will not be added:\n" + strLine);
-                            isMappingFromFileValid = false;
-                            break; 
-                        }
-                        
-                        fieldMapping.setIsCaseInsensitive(isCaseInsensitive);
+                        fieldMapping.setIsCaseInsensitive(isCaseInsensitiveStr.equals("1"));
                     }
-
-                }//end for loop
+                    
+                    isMappingFromFileValid = true;
+                }
                 
                 
                 if(isMappingFromFileValid == true)
@@ -1143,6 +1054,45 @@ public class MappingReconFieldToFormFieldUtility
         return false;
     }
     
+    /*
+     * Get the column names of the process form fields used in an existing mapping
+     * by any process definition that uses the process form.
+     * Queries from PRF (process and reconcilaition field mapping table) table. 
+     * @param   dbProvider      connection to the OIM Schema
+     * @param   formKey         process form key (SDK.SDK_KEY)
+     * @return  uppercase form field column names (PRF_COLUMNNAME)
+     */
+    public static HashSet<String> getMappedFormFieldColumnNames(tcDataProvider dbProvider, Long formKey) throws tcDataSetException, tcDataAccessException
+    {              
+        tcDataSet prfDataSet = null;
+        PreparedStatementUtil ps = null;
+        HashSet<String> columnNames = new HashSet<String>();
+            
+        try 
+        {
+            String query = "SELECT DISTINCT UPPER(PRF.PRF_COLUMNNAME) AS COLUMN_NAME FROM PRF "
+                    + "INNER JOIN TOS ON TOS.TOS_KEY = PRF.TOS_KEY WHERE TOS.SDK_KEY = ?";
+            
+            ps = new PreparedStatementUtil();
+            ps.setStatement(dbProvider, query);
+            ps.setLong(1, formKey);
+            ps.execute();
+            prfDataSet = ps.getDataSet();
+            int numRows = prfDataSet.getTotalRowCount();
+           
+            for(int i = 0; i < numRows; i++)
+            {
+                prfDataSet.goToRow(i);
+                columnNames.add(prfDataSet.getString("COLUMN_NAME"));
+            }
+        } 
+        
+        finally
+        {
+        }
+        
+        return columnNames;
+    }
     
     /*
      * Get the corresponding object key associated with a process key. The process
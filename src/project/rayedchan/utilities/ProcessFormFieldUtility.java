@@ -2,29 +2,70 @@ package project.rayedchan.utilities;
 
 import Thor.API.Exceptions.tcAPIException;
 import Thor.API.Exceptions.tcAddFieldFailedException;
+import Thor.API.Exceptions.tcBulkException;
 import Thor.API.Exceptions.tcColumnNotFoundException;
 import Thor.API.Exceptions.tcDeleteNotAllowedException;
 import Thor.API.Exceptions.tcFormFieldNotFoundException;
 import Thor.API.Exceptions.tcFormNotFoundException;
 import Thor.API.Exceptions.tcInvalidAttributeException;
+import Thor.API.Exceptions.tcProcessFormException;
+import Thor.API.Operations.tcExportOperationsIntf;
 import Thor.API.Operations.tcFormDefinitionOperationsIntf;
+import Thor.API.Operations.tcImportOperationsIntf;
 import Thor.API.tcResultSet;
+import com.thortech.xl.dataaccess.tcDataProvider;
+import com.thortech.xl.dataaccess.tcDataSetException;
+import com.thortech.xl.ddm.exception.DDMException;
+import com.thortech.xl.ddm.exception.TransformationException;
+import com.thortech.xl.orb.dataaccess.tcDataAccessException;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.DataInputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.StringTokenizer;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.naming.NamingException;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.xpath.XPathExpressionException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.SAXException;
+import project.rayedchan.custom.objects.DelimitedRecord;
+import project.rayedchan.custom.objects.DelimitedRecordSchema;
+import project.rayedchan.custom.objects.FingerprintStore;
+import project.rayedchan.custom.objects.ManifestReader;
+import project.rayedchan.custom.objects.MetadataDocumentNavigator;
+import project.rayedchan.custom.objects.MetadataSnapshotStore;
+import project.rayedchan.custom.objects.ProcessFormBatchEntry;
 import project.rayedchan.custom.objects.ProcessFormField;
+import project.rayedchan.custom.objects.ProcessFormFieldSnapshot;
 import project.rayedchan.exception.BadFileFormatException;
 import project.rayedchan.exception.MissingHeaderException;
 import project.rayedchan.exception.MissingRequiredFieldException;
@@ -80,6 +121,30 @@ public class ProcessFormFieldUtility
     public static String FT_TEXTAREA = "TextArea";
     public static String FT_ITRESOURCELOOKUPFIELD = "ITResourceLookupField";
     public static String FT_LOOKUPFIELD = "LookupField";
+    
+    public static final int EXPORT_BUFFER_SIZE = 64 * 1024; //Size of the write buffer of each export file
+    public static final int MAX_BATCH_THREADS = 16; //Maximum number of process forms loaded at the same time
+    public static String [] PROCESS_FORM_MANIFEST_COLUMNS = {ManifestReader.OBJECT_NAME_COLUMN, ManifestReader.FILE_NAME_COLUMN, ManifestReader.DELIMITER_COLUMN};
+    public static int PIPELINE_QUEUE_SIZE = 256; //Number of validated fields that can wait for the writer stage
+    private static final ProcessFormField END_OF_FIELDS = new ProcessFormField(-1, -1); //marks the end of the file for the writer stage
+    
+    public static int MAX_COLUMN_NAME_LENGTH = 30; //Maximum length of a column name in the database
+    public static String PROCESS_FORM_EXPORT_TYPE = "Process Form"; //Deployment Manager type of a process form
+    public static String FORM_FIELD_TAG = "AttributeReference"; //xml form field tag name
+    public static String PROCESS_FORM_PATH = "xl-ddm-data/*"; //path of the process form tags in the xml; each is named by its table name
+    public static String SDK_UPDATE_TAG = "SDK_UPDATE";
+    
+    //AttributeReference Attribute tags
+    public static String SDC_UPDATE_TAG = "SDC_UPDATE";
+    public static String SDC_LABEL_TAG = "SDC_LABEL";
+    public static String SDC_VERSION_TAG = "SDC_VERSION";
+    public static String SDC_ORDER_TAG = "SDC_ORDER";
+    public static String SDC_FIELD_TYPE_TAG = "SDC_FIELD_TYPE";
+    public static String SDC_VARIANT_TYPE_TAG = "SDC_VARIANT_TYPE";
+    public static String SDC_LENGTH_TAG = "SDC_LENGTH";
+    public static String SDC_DEFAULT_TAG = "SDC_DEFAULT";
+    public static String SDC_ENCRYPTED_TAG = "SDC_ENCRYPTED";
+    public static String SDC_PROFILE_ENABLED_TAG = "SDC_PROFILE_ENABLED";
 
     /*
      * Add fields to the lastest process form version. Data source is a flat file. File must follow 
@@ -92,13 +157,13 @@ public class ProcessFormFieldUtility
      * Do not add existing field label names. [My Check]
      * Make sure field attributes are the right type.
      * Check if the latest form version is unlocked.
-     * 
+     *
      * File Format
      * <Process Form Table Name>
      * <Field attributes tab delimited [Field_Label	Variant_Type	Field_Type	Length	Order]>
      * <field record 1>
      * <field record 2>
-     * 
+     *
      * For the line that contains the field attribute names, "Field Label" is required.
      * The other field attribute will have these default values if not specified.
      * VARIANTTYPE = "String";
@@ -108,7 +173,11 @@ public class ProcessFormFieldUtility
      * DEFAULTVALUE = null;
      * APP_PROFILE = "0";
      * ENCRYPTED = false;
-     * 
+     *
+     * Fields are added by a writer thread while the rest of the file is being validated. At most
+     * PIPELINE_QUEUE_SIZE validated fields wait for the writer. Invalid records are reported as they
+     * are read; fields that fail to be added are reported by line number once the writer finishes.
+     *
      * @param   formDefOps          tcFormDefinitionOperationsIntf service object
      * @param   fileName            name of the file
      * @param   processFormName     Table name of a process form
@@ -116,11 +185,44 @@ public class ProcessFormFieldUtility
      * @return  boolean value to indicate success or failure
      */
     public static boolean addFieldsToProcessFormDSFF(tcFormDefinitionOperationsIntf formDefOps, String fileName, String processFormName, String delimiter) throws tcAPIException, tcColumnNotFoundException, tcFormNotFoundException, FileNotFoundException, IOException, ProcessFormNotFoundException, ProcessFormVersionLockedException, BadFileFormatException, MissingRequiredFieldException, MissingHeaderException
+    {
+        //Validate name of the process form
+        if(doesProcessFormExist(formDefOps, processFormName) == false)
+        {
+            System.out.println("[Error]: Process form name "+ processFormName + " does not exist.");
+            throw new ProcessFormNotFoundException(String.format("Process form name %s does not exist.", processFormName));
+        }
+        
+        tcResultSet formResultSet = getProcessFormData(formDefOps, processFormName); //get all data of a process form
+        long processFormKey = Long.parseLong(formResultSet.getStringValue("Structure Utility.Key"));
+        int processFormLatestVersion = Integer.parseInt(formResultSet.getStringValue("Structure Utility.Latest Version"));
+
+        //determine if the form version is locked
+        if(isFormVersionLocked(formDefOps, processFormKey, processFormLatestVersion))
+        {
+            System.out.println("[Error]: Process form version "+ processFormLatestVersion + " is locked.");
+            throw new ProcessFormVersionLockedException("Process form version is locked. Create a new version.");
+        }
+        
+        return addFieldsToProcessFormVersionDSFF(formDefOps, fileName, processFormKey, processFormLatestVersion, delimiter);
+    }
+    
+    /*
+     * Add fields to a version of a process form. The version must be unlocked.
+     * See addFieldsToProcessFormDSFF for the file format and checks.
+     * @param   formDefOps          tcFormDefinitionOperationsIntf service object
+     * @param   fileName            name of the file
+     * @param   processFormKey      SDK_KEY
+     * @param   processFormVersion  unlocked version the fields are added to
+     * @param   delimiter           Use to separate values in file
+     * @return  boolean value to indicate success or failure
+     */
+    public static boolean addFieldsToProcessFormVersionDSFF(final tcFormDefinitionOperationsIntf formDefOps, String fileName, long processFormKey, int processFormVersion, String delimiter) throws tcAPIException, tcColumnNotFoundException, tcFormNotFoundException, FileNotFoundException, IOException, BadFileFormatException, MissingRequiredFieldException, MissingHeaderException
     {    
         FileInputStream fstream = null;
         DataInputStream in = null;
         BufferedReader br = null;
-        int lineNumber = 0;
+        ExecutorService writerStage = null;
             
         try 
         {    
@@ -128,363 +230,1316 @@ public class ProcessFormFieldUtility
             in = new DataInputStream(fstream); //Get the object of DataInputStream
             br = new BufferedReader(new InputStreamReader(in));
             
-            String strLine; //var to store a line of a file
-            ArrayList<String> pf_fieldAttributeNameArray = new ArrayList<String>(); //store the name of the field attributes; All records must have values for these attributes 
-            ArrayList<ProcessFormField> pf_fieldRecordArray = new ArrayList<ProcessFormField>(); //store all process form fields to be added
-            
-            //Validate name of the process form
-            if(doesProcessFormExist(formDefOps, processFormName) == false)
-            {
-                System.out.println("[Error]: Process form name "+ processFormName + " does not exist.");
-                throw new ProcessFormNotFoundException(String.format("Process form name %s does not exist.", processFormName));
-            }
-            
-            tcResultSet formResultSet = getProcessFormData(formDefOps, processFormName); //get all data of a process form
-            long processFormKey = Long.parseLong(formResultSet.getStringValue("Structure Utility.Key"));
-            int processFormLatestVersion = Integer.parseInt(formResultSet.getStringValue("Structure Utility.Latest Version"));
-
-            //determine if the form version is locked
-            if(isFormVersionLocked(formDefOps, processFormKey, processFormLatestVersion))
-            {
-                System.out.println("[Error]: Process form version "+ processFormLatestVersion + " is locked.");
-                throw new ProcessFormVersionLockedException("Process form version is locked. Create a new version.");
-            }
-            
-            System.out.printf("Form being modified: Version = %s, Process Key = %s\n", processFormLatestVersion,processFormKey);
-            
-            //First line contains the attributes of a process form field
-            //Each process form field record in file must have a value for these attributes 
-            String fieldAttributes = br.readLine();
-            
-            if(fieldAttributes == null)
-            {
-                throw new MissingHeaderException(String.format("Here are all the possible attribute names for file header: %s, %s, %s, %s, %s, %s, %s", 
-                            FIELDLABEL, VARIANTTYPE, FIELDTYPE, LENGTH, ORDER, DEFAULTVALUE, APP_PROFILE, ENCRYPTED));
-            }
-            
-            StringTokenizer attributeNameToken = new StringTokenizer(fieldAttributes, delimiter); 
-            lineNumber++;
-            
-            while(attributeNameToken.hasMoreTokens())
-            {
-                String fieldAttributeName = attributeNameToken.nextToken();
-                
-                //Check if the name of the attribute is valid
-                if(fieldAttributeName.equalsIgnoreCase(FIELDLABEL))
-                {
-                    pf_fieldAttributeNameArray.add(FIELDLABEL);
-                }
-                
-                else if(fieldAttributeName.equalsIgnoreCase(VARIANTTYPE))
-                {
-                    pf_fieldAttributeNameArray.add(VARIANTTYPE );
-                }
-                
-                else if(fieldAttributeName.equalsIgnoreCase(FIELDTYPE))
-                {
-                    pf_fieldAttributeNameArray.add(FIELDTYPE);
-                }
-                          
-                else if(fieldAttributeName.equalsIgnoreCase(LENGTH))
-                {
-                    pf_fieldAttributeNameArray.add(LENGTH);
-                }
-                
-                else if(fieldAttributeName.equalsIgnoreCase(ORDER))
-                {
-                    pf_fieldAttributeNameArray.add(ORDER);
-                }
-                              
-                else if(fieldAttributeName.equalsIgnoreCase(DEFAULTVALUE))
-                {
-                    pf_fieldAttributeNameArray.add(DEFAULTVALUE);
-                }
-                
-                else if(fieldAttributeName.equalsIgnoreCase(APP_PROFILE))
-                {
-                    pf_fieldAttributeNameArray.add(APP_PROFILE);
-                }
-                                
-                else if(fieldAttributeName.equalsIgnoreCase(ENCRYPTED))
-                {
-                    pf_fieldAttributeNameArray.add(ENCRYPTED);
-                }
-                
-                else
-                {
-                    System.out.printf("Field attribute name %s is invalid.\n "
-                            + "Here are all the possible attribute names: %s, %s, %s, %s, %s, %s, %s, %s", 
-                            fieldAttributeName, FIELDLABEL, VARIANTTYPE, FIELDTYPE,
-                            LENGTH, ORDER, DEFAULTVALUE, APP_PROFILE, ENCRYPTED);
-                    throw new BadFileFormatException(String.format("Field attribute name %s is invalid.\n "
-                            + "Here are all the possible attribute names: %s, %s, %s, %s, %s, %s, %s, %s", 
-                            fieldAttributeName, FIELDLABEL, VARIANTTYPE, FIELDTYPE,
-                            LENGTH, ORDER, DEFAULTVALUE, APP_PROFILE, ENCRYPTED));
-                }
-            }
-            
-            //Validate that the "field_label" attribute name is specified the file
-            if(!pf_fieldAttributeNameArray.contains(FIELDLABEL))
-            {
-                System.out.println("'"+ FIELDLABEL + "' is a required attribute to be specified in file");
-                throw new MissingRequiredFieldException("'"+ FIELDLABEL + "' is a required attribute to be specified in file");
-            }
+            System.out.printf("Form being modified: Version = %s, Process Key = %s\n", processFormVersion, processFormKey);
+            ProcessFormFieldSnapshot fieldSnapshot = getProcessFormFieldSnapshot(formDefOps, processFormKey, processFormVersion);
             
+            DelimitedRecordSchema fieldSchema = readProcessFormFieldSchema(br, delimiter); //header is validated before any field is added
             HashMap<String, String> formFieldDuplicationValidator = new HashMap<String, String>(); // used to make sure duplications are not being 
+            final BlockingQueue<ProcessFormField> fieldQueue = new ArrayBlockingQueue<ProcessFormField>(PIPELINE_QUEUE_SIZE); //validated fields waiting to be added
+            final TreeMap<Integer,Exception> failedFields = new TreeMap<Integer,Exception>(); //key = line number; only accessed by the writer stage until it finishes
+            int numStaged = 0;
             
-            //Read each process form field from file and stage into array
-            while ((strLine = br.readLine()) != null)  
+            //Writer stage adds the fields in the order they are staged while the rest of the file is read
+            writerStage = Executors.newSingleThreadExecutor();
+            Future<Integer> pendingWriter = writerStage.submit(new Callable<Integer>()
             {
-                lineNumber++;
-                String[] fieldAttributeValueToken = strLine.split(delimiter);
-                int numFieldAttributeNames = pf_fieldAttributeNameArray.size();
-                int numTokens = fieldAttributeValueToken.length;
-                ProcessFormField processFormFieldObj = new ProcessFormField(processFormKey, processFormLatestVersion);
-                
-                if(numFieldAttributeNames != numTokens)
-                {
-                    System.out.println("[Warning] Line =" + lineNumber +  " : Size of row is invalid. Field will not be added:\n" + strLine);
-                    continue;
-                }
-                
-                boolean isFieldRecordFromFileValid = true;
-                
-                for(int i = 0; i < numFieldAttributeNames; i++)
+                @Override
+                public Integer call() throws InterruptedException
                 {
-                    String fieldAttributeName = pf_fieldAttributeNameArray.get(i);
+                    int numAdded = 0;
                     
-                    if(fieldAttributeName.equalsIgnoreCase(FIELDLABEL))
+                    while(true)
                     {
-                        String fieldName = fieldAttributeValueToken[i];
-                         
-                        //Check if the field label exist
-                        if(doesFormFieldLabelExists(formDefOps, processFormKey, processFormLatestVersion, fieldName))
-                        {
-                            System.out.println("[Warning] Line =" + lineNumber +  " : Field label '" + fieldName + "' exists. Field will not be added:\n" + strLine);
-                            isFieldRecordFromFileValid = false;
-                            break;
-                        }
+                        ProcessFormField obj = fieldQueue.take();
                         
-                        //Validate if form field label has already been added to staging
-                        if(formFieldDuplicationValidator.containsKey(fieldName))
+                        if(obj == END_OF_FIELDS)
                         {
-                            System.out.println("[Warning] Line =" + lineNumber +  ": Field label '" + fieldName + "' exists in staging. Field will not be added:\n" + strLine);
-                            isFieldRecordFromFileValid = false;
-                            break; 
+                            return numAdded;
                         }
-                           
-                        formFieldDuplicationValidator.put(fieldName, null);
-                        processFormFieldObj.setFieldName(fieldName);
-                    }
-
-                    else if(fieldAttributeName.equalsIgnoreCase(VARIANTTYPE))
-                    {
-                        String variantType = fieldAttributeValueToken[i];
                         
-                         //check if the variant type is valid
-                        if(!isFieldVariantTypeValid(variantType))
+                        try 
                         {
-                            System.out.println("[Warning] Line =" + lineNumber +  ": Variant type '" + variantType + "' is not valid. Field will not be added:\n" + strLine);
-                            isFieldRecordFromFileValid = false;
-                            break; 
-                        }
-                        
-                        processFormFieldObj.setVariantType(variantType);
-                    }
+                            addFieldToProcessForm(formDefOps, obj);
+                            numAdded++;
+                        } 
 
-                    else if(fieldAttributeName.equalsIgnoreCase(FIELDTYPE))
-                    {
-                        String fieldType = fieldAttributeValueToken[i];
-                        
-                        //check if the field type is valid
-                        if(!isFieldTypeValid(fieldType))
+                        catch (tcInvalidAttributeException ex) 
                         {
-                            System.out.println("[Warning] Line =" + lineNumber +  ": Field type '" + fieldType + "' is not valid. Field will not be added:\n" + strLine);
-                            isFieldRecordFromFileValid = false;
-                            break; 
-                        }
-                        
-                        processFormFieldObj.setFieldType(fieldType);
-                    }
+                            failedFields.put(obj.getLineNumber(), ex);
+                        } 
 
-                    else if(fieldAttributeName.equalsIgnoreCase(LENGTH))
-                    {
-                        String length = fieldAttributeValueToken[i];
-                        
-                        //Check if length is an int type
-                        if(!HelperUtility.isInteger(length))
+                        catch (tcAddFieldFailedException ex)
                         {
-                            System.out.println("[Warning] Line =" + lineNumber +  ": Length '" + length + "' is not valid. Field will not be added:\n" + strLine);
-                            isFieldRecordFromFileValid = false;
-                            break; 
+                            failedFields.put(obj.getLineNumber(), ex);
                         }
-                        
-                        int numLength = Integer.parseInt(length);
-                        processFormFieldObj.setLength(numLength);
-                    }
 
-                    else if(fieldAttributeName.equalsIgnoreCase(ORDER))
-                    {
-                        String order = fieldAttributeValueToken[i];
-                        
-                         //Check if order is an integer
-                        if(!HelperUtility.isInteger(order))
+                        catch (tcAPIException ex)
                         {
-                            System.out.println("[Warning] Line =" + lineNumber +  ": Order '" + order+ "' is not valid. Field will not be added:\n" + strLine);
-                            isFieldRecordFromFileValid = false;
-                            break; 
-                        }
-                        
-                        int numOrder = Integer.parseInt(order);
-                        processFormFieldObj.setOrder(numOrder);
-                    }
-                    
-                    else if(fieldAttributeName.equalsIgnoreCase(DEFAULTVALUE))
-                    {
-                        String defaultValue = fieldAttributeValueToken[i];
-                        processFormFieldObj.setDefaultValue(defaultValue);
-                    }
-                                       
-                    else if(fieldAttributeName.equalsIgnoreCase(APP_PROFILE))
-                    {
-                        String appProfileEnabledStr = fieldAttributeValueToken[i];
-                        
-                        if(appProfileEnabledStr.equalsIgnoreCase("1"))
-                        {                   
-                            processFormFieldObj.setProfileEnabled(appProfileEnabledStr);
-                        }
-                        
-                        else if(appProfileEnabledStr.equalsIgnoreCase("0") || appProfileEnabledStr.equalsIgnoreCase(""))
-                        {                    
-                            processFormFieldObj.setProfileEnabled(appProfileEnabledStr);
+                            failedFields.put(obj.getLineNumber(), ex);
                         }
-                        
-                        else
+
+                        catch (tcFormNotFoundException ex) 
                         {
-                            System.out.println("[Warning] Line =" + lineNumber +  ": Application Profile '" + appProfileEnabledStr + "' is not valid (0 = false, 1 = true). Field will not be added:\n" + strLine);
-                            isFieldRecordFromFileValid = false;
-                            break; 
-                        }
+                            failedFields.put(obj.getLineNumber(), ex);
+                        } 
                     }
-                             
-                    else if(fieldAttributeName.equalsIgnoreCase(ENCRYPTED))
+                }
+            });
+            
+            //Read stage parses and validates each field record; waits while the writer stage is PIPELINE_QUEUE_SIZE fields behind
+            boolean isFileRead = false;
+            
+            try
+            {
+                int lineNumber = 1;
+                String strLine; //var to store a line of a file
+                
+                while ((strLine = br.readLine()) != null)  
+                {
+                    lineNumber++;
+                    ProcessFormField processFormFieldObj = parseProcessFormFieldRecord(strLine, lineNumber, fieldSchema, processFormKey, processFormVersion, fieldSnapshot, formFieldDuplicationValidator);
+
+                    if(processFormFieldObj != null)
                     {
-                        String encryptEnabledStr = fieldAttributeValueToken[i];
-                        boolean encryptEnabled;
-                        
-                        if(encryptEnabledStr.equalsIgnoreCase("1"))
-                        {
-                            encryptEnabled = true;
-                        }
-                        
-                        else if(encryptEnabledStr.equalsIgnoreCase("0") || encryptEnabledStr.equalsIgnoreCase(""))
-                        {
-                            encryptEnabled = false;
-                        }
-                        
-                        else
+                        //writer stage has stopped
+                        if(!stageField(fieldQueue, processFormFieldObj, pendingWriter))
                         {
-                            System.out.println("[Warning] Line =" + lineNumber +  ": Encrypted '" + encryptEnabledStr + "' is not valid (0 = false, 1 = true). Field will not be added:\n" + strLine);
-                            isFieldRecordFromFileValid = false;
-                            break; 
+                            break;
                         }
                         
-                        processFormFieldObj.setSecure(encryptEnabled);
+                        numStaged++;
                     }
                 }
                 
-                //add form field object if field record in file is valid
-                if(isFieldRecordFromFileValid)
+                isFileRead = true;
+            }
+            
+            finally
+            {
+                //Do not add the remaining fields if the file could not be read
+                if(!isFileRead)
                 {
-                    processFormFieldObj.setLineNumber(lineNumber);
-                    pf_fieldRecordArray.add( processFormFieldObj); 
+                    fieldQueue.clear();
                 }
                 
-            }//End For Loop
+                stageField(fieldQueue, END_OF_FIELDS, pendingWriter);
+            }
             
-            System.out.println(pf_fieldRecordArray.toString());
+            int numAdded = pendingWriter.get();
             
-            //Add fields to the process form
-            for(ProcessFormField obj: pf_fieldRecordArray)
+            //Report the fields that failed to be added in the order they appear in the file
+            for(Map.Entry<Integer,Exception> failedField : failedFields.entrySet())
             {
-                try 
-                {
-                    addFieldToProcessForm(formDefOps, obj);
-                } 
-                
-                catch (tcInvalidAttributeException ex) 
-                {
-                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, String.format("Line Number in flie: %s. Attribute is failed to be added.", obj.getLineNumber()), ex);
-                } 
+                Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, String.format("Line Number in flie: %s. Attribute is failed to be added.", failedField.getKey()), failedField.getValue());
+            }
+            
+            System.out.printf("[Info]: Fields staged = %s, Fields added = %s, Fields failed = %s\n", numStaged, numAdded, failedFields.size());
+            return true;
+        } 
+        
+        catch (InterruptedException ex) 
+        {
+            Thread.currentThread().interrupt();
+            Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
+            return false;
+        }
+        
+        catch (ExecutionException ex) 
+        {
+            //Writer stage only throws unchecked exceptions
+            if(ex.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) ex.getCause();
+            }
+            
+            throw new RuntimeException(ex.getCause());
+        }
                 
-                catch (tcAddFieldFailedException ex)
-                {
-                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, String.format("Line Number in flie: %s. Attribute is failed to be added.", obj.getLineNumber()), ex);
+        finally
+        {
+            if(writerStage != null)
+            {
+                writerStage.shutdownNow();
+            }
+            
+            if(br != null)
+            {
+                try {
+                    br.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
                 }
-                
-                catch (tcAPIException ex)
-                {
-                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, String.format("Line Number in flie: %s. Attribute is failed to be added.", obj.getLineNumber()), ex);
+            }
+            
+            if(in != null)
+            {
+                try {
+                    in.close(); //Close the input stream
+                } catch (IOException ex) {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
                 }
-                
-                catch (tcFormNotFoundException ex) 
-                {
-                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, String.format("Line Number in flie: %s. Attribute is failed to be added.", obj.getLineNumber()), ex);
-                } 
             }
             
-            return true;
-        } 
+            if(fstream != null)
+            {
+                try {
+                    fstream.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+        }           
+    }
+    
+    /*
+     * Add fields to the latest process form version. A new version of the process form 
+     * is created if the latest version is locked. See addFieldsToProcessFormDSFF for the file format and checks.
+     * @param   formDefOps          tcFormDefinitionOperationsIntf service object
+     * @param   fileName            name of the file
+     * @param   processFormName     Table name of a process form
+     * @param   delimiter           Use to separate values in file
+     * @param   versionLabel        label of the new version; null to use the version number [E.g. v2]
+     * @return  boolean value to indicate success or failure
+     */
+    public static boolean addFieldsToProcessFormAutoVersionDSFF(tcFormDefinitionOperationsIntf formDefOps, String fileName, String processFormName, String delimiter, String versionLabel) throws tcAPIException, tcColumnNotFoundException, tcFormNotFoundException, tcProcessFormException, FileNotFoundException, IOException, ProcessFormNotFoundException, BadFileFormatException, MissingRequiredFieldException, MissingHeaderException
+    {
+        //Validate name of the process form
+        if(doesProcessFormExist(formDefOps, processFormName) == false)
+        {
+            System.out.println("[Error]: Process form name "+ processFormName + " does not exist.");
+            throw new ProcessFormNotFoundException(String.format("Process form name %s does not exist.", processFormName));
+        }
+        
+        tcResultSet formResultSet = getProcessFormData(formDefOps, processFormName); //get all data of a process form
+        long processFormKey = Long.parseLong(formResultSet.getStringValue("Structure Utility.Key"));
+        int processFormLatestVersion = Integer.parseInt(formResultSet.getStringValue("Structure Utility.Latest Version"));
+        boolean isLocked = isFormVersionLocked(formDefOps, processFormKey, processFormLatestVersion);
+        int processFormVersion = getUnlockedFormVersion(formDefOps, processFormKey, processFormLatestVersion, isLocked, versionLabel);
+        return addFieldsToProcessFormVersionDSFF(formDefOps, fileName, processFormKey, processFormVersion, delimiter);
+    }
+    
+    /*
+     * Get a version of the process form that can be modified. A new version is 
+     * created from the latest version if the latest version is locked.
+     * @param   formDefOps                  tcFormDefinitionOperationsIntf service object
+     * @param   processFormKey              SDK_KEY
+     * @param   processFormLatestVersion    SDK_LATEST_VERSION
+     * @param   isLocked                    boolean value to indicate if the latest version is locked [isFormVersionLocked]
+     * @param   versionLabel                label of the new version; null to use the version number [E.g. v2]
+     * @return  the latest version if it is unlocked; otherwise, the new version
+     */
+    public static int getUnlockedFormVersion(tcFormDefinitionOperationsIntf formDefOps, long processFormKey, int processFormLatestVersion, boolean isLocked, String versionLabel) throws tcAPIException, tcColumnNotFoundException, tcFormNotFoundException, tcProcessFormException
+    {
+        if(!isLocked)
+        {
+            return processFormLatestVersion;
+        }
+        
+        if(versionLabel == null || versionLabel.isEmpty())
+        {
+            versionLabel = "v" + (processFormLatestVersion + 1);
+        }
+        
+        formDefOps.createNewVersion(processFormKey, versionLabel);
+        tcResultSet formResultSet = getProcessFormData(formDefOps, processFormKey); //read the new latest version
+        int processFormNewVersion = Integer.parseInt(formResultSet.getStringValue("Structure Utility.Latest Version"));
+        System.out.printf("[Info]: Process form version %s is locked. Created version %s [%s].\n", processFormLatestVersion, processFormNewVersion, versionLabel);
+        return processFormNewVersion;
+    }
+    
+    /*
+     * Adds fields to many process forms as specified in a manifest file. The metadata of every 
+     * process form is fetched concurrently and validated before any field is added. A new version 
+     * is created for each process form whose latest version is locked. Process forms are loaded 
+     * concurrently; files for the same process form are loaded one at a time in the order they 
+     * appear in the manifest. All threads share the given service object.
+     * A consolidated report with the outcome and timing of each file is printed at the end.
+     * 
+     * File Format - tab delimited and a newline for each record; blank lines are skipped
+     * <process form name>    <file name>    <delimiter>
+     * 
+     * Delimiter - tab, comma, semicolon, or a literal delimiter
+     * 
+     * Example
+     * UD_AD_USER       /home/oracle/ad_fields.txt      tab
+     * UD_LDAP_USR      /home/oracle/ldap_fields.txt    comma
+     * 
+     * @param   formDefOps          tcFormDefinitionOperationsIntf service object
+     * @param   manifestFileName    Path of the manifest file on local machine
+     * @param   versionLabel        label of the new versions; null to use the version number [E.g. v2]
+     * @param   numThreads          Number of process forms to process at the same time. Capped by MAX_BATCH_THREADS.
+     * @return  the manifest records with the outcome of each file
+     */
+    public static ArrayList<ProcessFormBatchEntry> runProcessFormBatchManifest(final tcFormDefinitionOperationsIntf formDefOps, String manifestFileName, final String versionLabel, int numThreads) throws FileNotFoundException, IOException, BadFileFormatException, ProcessFormNotFoundException, InterruptedException
+    {
+        ManifestReader manifestReader = null;
+        ArrayList<ProcessFormBatchEntry> batchEntries = new ArrayList<ProcessFormBatchEntry>();
+        LinkedHashMap<String,ArrayList<ProcessFormBatchEntry>> entriesByForm = new LinkedHashMap<String,ArrayList<ProcessFormBatchEntry>>();
+        
+        try
+        {
+           manifestReader = new ManifestReader(manifestFileName, PROCESS_FORM_MANIFEST_COLUMNS);
+           DelimitedRecord record;
+           
+           //Read the manifest records
+           while ((record = manifestReader.nextRecord()) != null)  
+           {
+                String processFormName = record.getValue(ManifestReader.OBJECT_NAME_COLUMN).toUpperCase();
+                String fileName = record.getValue(ManifestReader.FILE_NAME_COLUMN);
+                String delimiter = ManifestReader.toDelimiter(record.getValue(ManifestReader.DELIMITER_COLUMN));
+                
+                ProcessFormBatchEntry batchEntry = new ProcessFormBatchEntry(processFormName, fileName, delimiter, manifestReader.getLineNumber());
+                batchEntries.add(batchEntry);
+                
+                if(!entriesByForm.containsKey(processFormName))
+                {
+                    entriesByForm.put(processFormName, new ArrayList<ProcessFormBatchEntry>());
+                }
                 
+                entriesByForm.get(processFormName).add(batchEntry);
+           }
+        }
+        
         finally
         {
-            if(br != null)
-            {
-                try {
-                    br.close();
-                } catch (IOException ex) {
-                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
-            
-            if(in != null)
-            {
-                try {
-                    in.close(); //Close the input stream
-                } catch (IOException ex) {
-                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
-            
-            if(fstream != null)
-            {
-                try {
-                    fstream.close();
-                } catch (IOException ex) {
-                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
-                }
-            }
-        }           
+            if(manifestReader != null)
+            {
+                try {
+                    manifestReader.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+        }
+        
+        int poolSize = Math.max(1, Math.min(numThreads, MAX_BATCH_THREADS));
+        ExecutorService batchPool = Executors.newFixedThreadPool(poolSize);
+        long startTime = System.currentTimeMillis();
+        
+        try
+        {
+            //Fetch the metadata of each process form concurrently
+            LinkedHashMap<String,Future<Boolean>> pendingMetadata = new LinkedHashMap<String,Future<Boolean>>();
+            
+            for(final ArrayList<ProcessFormBatchEntry> formEntries : entriesByForm.values())
+            {
+                pendingMetadata.put(formEntries.get(0).getProcessFormName(), batchPool.submit(new Callable<Boolean>()
+                {
+                    @Override
+                    public Boolean call() throws Exception
+                    {
+                        return fetchProcessFormBatchMetadata(formDefOps, formEntries);
+                    }
+                }));
+            }
+            
+            ArrayList<String> missingForms = new ArrayList<String>();
+            
+            for(Map.Entry<String,Future<Boolean>> metadata : pendingMetadata.entrySet())
+            {
+                try
+                {
+                    if(!metadata.getValue().get())
+                    {
+                        missingForms.add(metadata.getKey());
+                    }
+                }
+                
+                catch (ExecutionException ex)
+                {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, String.format("Metadata of process form %s could not be fetched.", metadata.getKey()), ex.getCause());
+                    missingForms.add(metadata.getKey());
+                }
+            }
+            
+            if(!missingForms.isEmpty())
+            {
+                System.out.println("[Error]: Process forms do not exist or could not be read: " + missingForms);
+                throw new ProcessFormNotFoundException("Process forms do not exist or could not be read: " + missingForms);
+            }
+            
+            //Load each process form on its own thread
+            ArrayList<Future<Object>> pendingForms = new ArrayList<Future<Object>>();
+            
+            for(final ArrayList<ProcessFormBatchEntry> formEntries : entriesByForm.values())
+            {
+                pendingForms.add(batchPool.submit(new Callable<Object>()
+                {
+                    @Override
+                    public Object call() 
+                    {
+                        runProcessFormBatchEntries(formDefOps, formEntries, versionLabel);
+                        return null;
+                    }
+                }));
+            }
+            
+            for(Future<Object> pendingForm : pendingForms)
+            {
+                try
+                {
+                    pendingForm.get();
+                }
+                
+                catch (ExecutionException ex)
+                {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex.getCause());
+                }
+            }
+        }
+        
+        finally
+        {
+            batchPool.shutdownNow();
+        }
+        
+        //Consolidated report
+        int numFailed = 0;
+        System.out.printf("%-8s%-30s%-10s%-12s%-10s%-15s%s\n", "Line", "Process Form", "Version", "New Version", "Status", "Time (ms)", "Error");
+        System.out.printf("%-8s%-30s%-10s%-12s%-10s%-15s%s\n", "=====", "============", "=======", "===========", "======", "==========", "=====");
+        
+        for(ProcessFormBatchEntry batchEntry : batchEntries)
+        {
+            numFailed += batchEntry.getSuccess() ? 0 : 1;
+            System.out.printf("%-8s%-30s%-10s%-12s%-10s%-15s%s\n", batchEntry.getLineNumber(), batchEntry.getProcessFormName(), batchEntry.getProcessFormVersion(), 
+                    batchEntry.getNewVersionCreated() ? "Yes" : "No", batchEntry.getSuccess() ? "Success" : "Failed", batchEntry.getElapsedTime(), 
+                    batchEntry.getErrorMessage() == null ? "" : batchEntry.getErrorMessage());
+        }
+        
+        System.out.printf("[Info]: %s of %s files succeeded in %s ms.\n", batchEntries.size() - numFailed, batchEntries.size(), System.currentTimeMillis() - startTime);
+        return batchEntries;
+    }
+    
+    /*
+     * Fetch the key, latest version, and lock status of a process form and set them on its batch entries.
+     * @param   formDefOps      tcFormDefinitionOperationsIntf service object
+     * @param   formEntries     batch entries of the same process form
+     * @return  false if the process form does not exist
+     */
+    private static boolean fetchProcessFormBatchMetadata(tcFormDefinitionOperationsIntf formDefOps, ArrayList<ProcessFormBatchEntry> formEntries) throws tcAPIException, tcColumnNotFoundException, tcFormNotFoundException
+    {
+        tcResultSet formResultSet = getProcessFormData(formDefOps, formEntries.get(0).getProcessFormName());
+        
+        if(formResultSet == null)
+        {
+            return false;
+        }
+        
+        long processFormKey = Long.parseLong(formResultSet.getStringValue("Structure Utility.Key"));
+        int processFormLatestVersion = Integer.parseInt(formResultSet.getStringValue("Structure Utility.Latest Version"));
+        boolean isLocked = isFormVersionLocked(formDefOps, processFormKey, processFormLatestVersion);
+        
+        for(ProcessFormBatchEntry batchEntry : formEntries)
+        {
+            batchEntry.setProcessFormKey(processFormKey);
+            batchEntry.setProcessFormVersion(processFormLatestVersion);
+            batchEntry.setVersionLocked(isLocked);
+        }
+        
+        return true;
+    }
+    
+    /*
+     * Loads the files of a process form in order. A new version is created first if the latest version is locked.
+     * If the new version cannot be created, none of the files are loaded.
+     * @param   formDefOps      tcFormDefinitionOperationsIntf service object
+     * @param   formEntries     batch entries of the same process form with metadata [fetchProcessFormBatchMetadata]
+     * @param   versionLabel    label of the new version; null to use the version number
+     */
+    private static void runProcessFormBatchEntries(tcFormDefinitionOperationsIntf formDefOps, ArrayList<ProcessFormBatchEntry> formEntries, String versionLabel)
+    {
+        ProcessFormBatchEntry firstEntry = formEntries.get(0);
+        int processFormVersion;
+        long startTime = System.currentTimeMillis();
+        
+        try
+        {
+            processFormVersion = getUnlockedFormVersion(formDefOps, firstEntry.getProcessFormKey(), firstEntry.getProcessFormVersion(), firstEntry.getVersionLocked(), versionLabel);
+        }
+        
+        catch (Exception ex)
+        {
+            Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, String.format("New version of process form %s could not be created.", firstEntry.getProcessFormName()), ex);
+            
+            for(ProcessFormBatchEntry batchEntry : formEntries)
+            {
+                batchEntry.setErrorMessage(ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage());
+            }
+            
+            firstEntry.setElapsedTime(System.currentTimeMillis() - startTime);
+            return;
+        }
+        
+        for(ProcessFormBatchEntry batchEntry : formEntries)
+        {
+            batchEntry.setNewVersionCreated(firstEntry.getVersionLocked());
+            batchEntry.setProcessFormVersion(processFormVersion);
+            
+            try
+            {
+                batchEntry.setSuccess(addFieldsToProcessFormVersionDSFF(formDefOps, batchEntry.getFileName(), batchEntry.getProcessFormKey(), processFormVersion, batchEntry.getDelimiter()));
+            }
+            
+            catch (Exception ex)
+            {
+                Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, String.format("Batch file [%s] failed.", batchEntry), ex);
+                batchEntry.setErrorMessage(ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage());
+            }
+            
+            finally
+            {
+                batchEntry.setElapsedTime(System.currentTimeMillis() - startTime);
+                startTime = System.currentTimeMillis();
+            }
+        }
+    }
+    
+    /*
+     * Add fields to the latest process form version. Same behavior as 
+     * addFieldsToProcessFormDSFF(formDefOps, fileName, processFormName, delimiter) except the load is 
+     * skipped if neither the file nor the fields of the process form have changed since the last 
+     * load recorded in the fingerprint store.
+     * 
+     * A load is recorded only when it makes no changes to the process form, which means every field
+     * in the file is already on the form. A load that adds fields is recorded on the next run.
+     * 
+     * @param   formDefOps          tcFormDefinitionOperationsIntf service object
+     * @param   fileName            name of the file
+     * @param   processFormName     Table name of a process form
+     * @param   delimiter           Use to separate values in file
+     * @param   fingerprintStore    store of the fingerprints of previous loads
+     * @return  boolean value to indicate success or failure
+     */
+    public static boolean addFieldsToProcessFormDSFF(tcFormDefinitionOperationsIntf formDefOps, String fileName, String processFormName, String delimiter, FingerprintStore fingerprintStore) throws tcAPIException, tcColumnNotFoundException, tcFormNotFoundException, FileNotFoundException, IOException, ProcessFormNotFoundException, ProcessFormVersionLockedException, BadFileFormatException, MissingRequiredFieldException, MissingHeaderException
+    {
+        //Validate name of the process form
+        if(doesProcessFormExist(formDefOps, processFormName) == false)
+        {
+            System.out.println("[Error]: Process form name "+ processFormName + " does not exist.");
+            throw new ProcessFormNotFoundException(String.format("Process form name %s does not exist.", processFormName));
+        }
+        
+        String target = "form.add:" + processFormName;
+        String fileHash = HelperUtility.getFileHash(fileName);
+        String formFingerprint = getProcessFormFingerprint(formDefOps, processFormName);
+        
+        if(fingerprintStore.isUnchanged(target, fileHash, formFingerprint))
+        {
+            System.out.println("[Info]: File and process form are unchanged since the last load. Skipping " + processFormName);
+            return true;
+        }
+        
+        boolean success = addFieldsToProcessFormDSFF(formDefOps, fileName, processFormName, delimiter);
+        
+        //Record the load once the file no longer changes the process form
+        if(success && formFingerprint.equals(getProcessFormFingerprint(formDefOps, processFormName)))
+        {
+            fingerprintStore.record(target, fileHash, formFingerprint);
+        }
+        
+        return success;
+    }
+    
+    /*
+     * Converge the fields in the latest version of a process form to the fields declared in a file. 
+     * The file has the same format as addFieldsToProcessFormDSFF and declares every field the 
+     * process form should have. Field labels are matched case insensitive.
+     * 
+     * Fields in the file that are not on the process form are added. Fields on the process form that are 
+     * not in the file are removed. For fields on both, the field label, variant type, length, order, 
+     * default value, and encrypted attributes are updated when they differ. Only the attributes 
+     * specified in the header of the file are compared.
+     * 
+     * The process form and its fields are read once. The lock on the form version is checked only 
+     * if there are changes to apply. Removals are applied first so labels can be reused by new fields.
+     * 
+     * Nothing is changed if any field record in the file is invalid, since the field it declares would 
+     * otherwise be removed. Fields that are mapped to a reconciliation field (PRF) are never removed;
+     * PRF is queried only when a field on the process form is missing from the file.
+     * 
+     * @param   dbProvider          connection to the OIM Schema
+     * @param   formDefOps          tcFormDefinitionOperationsIntf service object
+     * @param   fileName            name of the file
+     * @param   processFormName     Table name of a process form
+     * @param   delimiter           Use to separate values in file
+     * @return  boolean value to indicate that every change has been applied
+     */
+    public static boolean syncProcessFormDSFF(tcDataProvider dbProvider, tcFormDefinitionOperationsIntf formDefOps, String fileName, String processFormName, String delimiter) throws tcAPIException, tcColumnNotFoundException, tcFormNotFoundException, tcDataSetException, tcDataAccessException, FileNotFoundException, IOException, ProcessFormNotFoundException, ProcessFormVersionLockedException, BadFileFormatException, MissingRequiredFieldException, MissingHeaderException
+    {    
+        FileInputStream fstream = null;
+        DataInputStream in = null;
+        BufferedReader br = null;
+            
+        try 
+        {    
+            fstream = new FileInputStream(fileName); //Open File
+            in = new DataInputStream(fstream); //Get the object of DataInputStream
+            br = new BufferedReader(new InputStreamReader(in));
+            
+            tcResultSet formResultSet = getProcessFormData(formDefOps, processFormName); //get all data of a process form
+            
+            //Validate name of the process form
+            if(formResultSet == null)
+            {
+                System.out.println("[Error]: Process form name "+ processFormName + " does not exist.");
+                throw new ProcessFormNotFoundException(String.format("Process form name %s does not exist.", processFormName));
+            }
+            
+            long processFormKey = Long.parseLong(formResultSet.getStringValue("Structure Utility.Key"));
+            int processFormLatestVersion = Integer.parseInt(formResultSet.getStringValue("Structure Utility.Latest Version"));
+            ProcessFormFieldSnapshot fieldSnapshot = getProcessFormFieldSnapshot(formDefOps, processFormKey, processFormLatestVersion);
+            
+            //Read the desired fields
+            DelimitedRecordSchema fieldSchema = readProcessFormFieldSchema(br, delimiter);
+            HashMap<String, String> formFieldDuplicationValidator = new HashMap<String, String>();
+            ArrayList<ProcessFormField> fieldsToAdd = new ArrayList<ProcessFormField>();
+            LinkedHashMap<Long, HashMap<String, String>> fieldsToUpdate = new LinkedHashMap<Long, HashMap<String, String>>(); //field key to changed attributes
+            HashSet<Long> desiredFieldKeys = new HashSet<Long>();
+            int numInvalidRecords = 0;
+            int lineNumber = 1;
+            String strLine; //var to store a line of a file
+            
+            while ((strLine = br.readLine()) != null)  
+            {
+                lineNumber++;
+                ProcessFormField desiredField = parseProcessFormFieldRecord(strLine, lineNumber, fieldSchema, processFormKey, processFormLatestVersion, null, formFieldDuplicationValidator);
+                
+                if(desiredField == null)
+                {
+                    numInvalidRecords++;
+                    continue;
+                }
+                
+                Long fieldKey = fieldSnapshot.getFieldKeyByFieldLabelIgnoreCase(desiredField.getFieldName());
+                
+                if(fieldKey == null)
+                {
+                    fieldsToAdd.add(desiredField);
+                }
+                
+                else if(!desiredFieldKeys.add(fieldKey))
+                {
+                    System.out.println("[Warning] Line =" + lineNumber +  ": Field label '" + desiredField.getFieldName() + "' is declared more than once. Line will be ignored.");
+                }
+                
+                else
+                {
+                    HashMap<String, String> changes = getProcessFormFieldChanges(fieldSnapshot.getField(fieldKey), desiredField, fieldSchema.getAttributeNames());
+                    
+                    if(!changes.isEmpty())
+                    {
+                        fieldsToUpdate.put(fieldKey, changes);
+                    }
+                }
+            }
+            
+            //An invalid record still declares a field; removing the fields missing from the file would remove it
+            if(numInvalidRecords > 0)
+            {
+                System.out.println("[Error]: " + numInvalidRecords + " field record(s) are invalid. Process form " + processFormName + " was not changed.");
+                return false;
+            }
+            
+            ArrayList<Long> fieldsToRemove = new ArrayList<Long>();
+            
+            for(Long fieldKey : fieldSnapshot.getFieldKeys())
+            {
+                if(!desiredFieldKeys.contains(fieldKey))
+                {
+                    fieldsToRemove.add(fieldKey);
+                }
+            }
+            
+            //Only a field to be removed needs the PRF mappings
+            if(!fieldsToRemove.isEmpty())
+            {
+                HashSet<String> mappedColumnNames = MappingReconFieldToFormFieldUtility.getMappedFormFieldColumnNames(dbProvider, processFormKey);
+                Iterator<Long> it = fieldsToRemove.iterator();
+                
+                while(it.hasNext())
+                {
+                    Long fieldKey = it.next();
+                    
+                    if(mappedColumnNames.contains(fieldSnapshot.getColumnName(fieldKey).toUpperCase()))
+                    {
+                        System.out.println("[Warning]: Field " + fieldSnapshot.getField(fieldKey).getFieldName() + " is mapped in PRF. Field will not be removed.");
+                        it.remove();
+                    }
+                }
+            }
+            
+            System.out.printf("[Info]: Fields to add = %s, Fields to update = %s, Fields to remove = %s\n", fieldsToAdd.size(), fieldsToUpdate.size(), fieldsToRemove.size());
+            
+            if(fieldsToAdd.isEmpty() && fieldsToUpdate.isEmpty() && fieldsToRemove.isEmpty())
+            {
+                System.out.println("[Info]: Process form " + processFormName + " is in sync.");
+                return true;
+            }
+            
+            //determine if the form version is locked
+            if(isFormVersionLocked(formDefOps, processFormKey, processFormLatestVersion))
+            {
+                System.out.println("[Error]: Process form version "+ processFormLatestVersion + " is locked.");
+                throw new ProcessFormVersionLockedException("Process form version is locked. Create a new version.");
+            }
+            
+            int numFailed = 0;
+            
+            for(Long fieldKey : fieldsToRemove)
+            {
+                try 
+                {
+                    removeFormField(formDefOps, fieldKey);
+                    System.out.println("[Info]: Removed field " + fieldSnapshot.getField(fieldKey).getFieldName());
+                } 
+                
+                catch (Exception ex) 
+                {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, String.format("Field %s failed to be removed.", fieldSnapshot.getField(fieldKey).getFieldName()), ex);
+                    numFailed++;
+                }
+            }
+            
+            for(Map.Entry<Long, HashMap<String, String>> fieldToUpdate : fieldsToUpdate.entrySet())
+            {
+                String fieldLabel = fieldSnapshot.getField(fieldToUpdate.getKey()).getFieldName();
+                
+                try 
+                {
+                    formDefOps.updateFormField(fieldToUpdate.getKey(), fieldToUpdate.getValue());
+                    System.out.println("[Info]: Updated field " + fieldLabel + " " + fieldToUpdate.getValue());
+                } 
+                
+                catch (Exception ex) 
+                {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, String.format("Field %s failed to be updated.", fieldLabel), ex);
+                    numFailed++;
+                }
+            }
+            
+            for(ProcessFormField obj : fieldsToAdd)
+            {
+                try 
+                {
+                    addFieldToProcessForm(formDefOps, obj);
+                    System.out.println("[Info]: Added field " + obj.getFieldName());
+                } 
+                
+                catch (Exception ex) 
+                {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, String.format("Line Number in flie: %s. Attribute is failed to be added.", obj.getLineNumber()), ex);
+                    numFailed++;
+                }
+            }
+            
+            System.out.printf("[Info]: %s of %s changes applied.\n", fieldsToAdd.size() + fieldsToUpdate.size() + fieldsToRemove.size() - numFailed, fieldsToAdd.size() + fieldsToUpdate.size() + fieldsToRemove.size());
+            return numFailed == 0;
+        } 
+                
+        finally
+        {
+            if(br != null)
+            {
+                try {
+                    br.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+            
+            if(in != null)
+            {
+                try {
+                    in.close(); //Close the input stream
+                } catch (IOException ex) {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+            
+            if(fstream != null)
+            {
+                try {
+                    fstream.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+        }           
+    }
+    
+    /*
+     * Compare a field on the process form against the desired field.
+     * @param   currentField                field on the process form
+     * @param   desiredField                desired field from file
+     * @param   pf_fieldAttributeNameArray  attributes specified in the file; other attributes are not compared
+     * @return  attributes that differ as expected by tcFormDefinitionOperationsIntf.updateFormField; empty if the fields are the same
+     */
+    public static HashMap<String, String> getProcessFormFieldChanges(ProcessFormField currentField, ProcessFormField desiredField, ArrayList<String> pf_fieldAttributeNameArray)
+    {
+        HashMap<String, String> changes = new HashMap<String, String>();
+        
+        if(!currentField.getFieldName().equals(desiredField.getFieldName()))
+        {
+            changes.put("Structure Utility.Additional Columns.Field Label", desiredField.getFieldName());
+        }
+        
+        if(pf_fieldAttributeNameArray.contains(VARIANTTYPE) && !desiredField.getVariantType().equalsIgnoreCase(currentField.getVariantType()))
+        {
+            changes.put("Structure Utility.Additional Columns.Variant Type", desiredField.getVariantType());
+        }
+        
+        if(pf_fieldAttributeNameArray.contains(LENGTH) && currentField.getLength() != desiredField.getLength())
+        {
+            changes.put("Structure Utility.Additional Columns.Length", String.valueOf(desiredField.getLength()));
+        }
+        
+        if(pf_fieldAttributeNameArray.contains(ORDER) && currentField.getOrder() != desiredField.getOrder())
+        {
+            changes.put("Structure Utility.Additional Columns.Order", String.valueOf(desiredField.getOrder()));
+        }
+        
+        String currentDefaultValue = currentField.getDefaultValue() == null ? "" : currentField.getDefaultValue();
+        String desiredDefaultValue = desiredField.getDefaultValue() == null ? "" : desiredField.getDefaultValue();
+        
+        if(pf_fieldAttributeNameArray.contains(DEFAULTVALUE) && !currentDefaultValue.equals(desiredDefaultValue))
+        {
+            changes.put("Structure Utility.Additional Columns.Default Value", desiredDefaultValue);
+        }
+        
+        if(pf_fieldAttributeNameArray.contains(ENCRYPTED) && currentField.getSecure() != desiredField.getSecure())
+        {
+            changes.put("Structure Utility.Additional Columns.Encrypted", desiredField.getSecure() ? "1" : "0");
+        }
+        
+        return changes;
+    }
+    
+    /*
+     * Add fields to the latest process form version using the Deployment Manager. Same file format 
+     * and checks as addFieldsToProcessFormDSFF. The process form XML is exported once, all the new fields
+     * are added to the XML, and the XML is imported back in a single import.
+     * 
+     * The column name of a field is the process form name followed by the field label in uppercase 
+     * with characters other than letters, digits, and underscores removed [E.g. UD_FLAT_FIL_FIRSTNAME].
+     * Fields whose column name exists or exceeds MAX_COLUMN_NAME_LENGTH are skipped and reported to the user;
+     * use addFieldsToProcessFormDSFF for those fields.
+     * The exported process form xml is saved in the default snapshot store before the import [MetadataSnapshotStore.getDefaultStore].
+     * 
+     * @param   formDefOps          tcFormDefinitionOperationsIntf service object
+     * @param   exportOps           tcExportOperationsIntf service object
+     * @param   importOps           tcImportOperationsIntf service object
+     * @param   fileName            name of the file
+     * @param   processFormName     Table name of a process form
+     * @param   delimiter           Use to separate values in file
+     * @return  boolean value to indicate success or failure
+     */
+    public static boolean addFieldsToProcessFormImportDSFF(tcFormDefinitionOperationsIntf formDefOps, tcExportOperationsIntf exportOps, tcImportOperationsIntf importOps, String fileName, String processFormName, String delimiter) throws tcAPIException, tcColumnNotFoundException, tcFormNotFoundException, FileNotFoundException, IOException, ProcessFormNotFoundException, ProcessFormVersionLockedException, BadFileFormatException, MissingRequiredFieldException, MissingHeaderException, ParserConfigurationException, SAXException, TransformerConfigurationException, TransformerException, XPathExpressionException, SQLException, NamingException, DDMException, TransformationException, tcBulkException
+    {
+        return addFieldsToProcessFormImportDSFF(formDefOps, exportOps, importOps, fileName, processFormName, delimiter, MetadataSnapshotStore.getDefaultStore());
+    }
+    
+    /*
+     * Add fields to the latest process form version using the Deployment Manager. Same behavior as
+     * addFieldsToProcessFormImportDSFF(formDefOps, exportOps, importOps, fileName, processFormName, delimiter).
+     * The exported process form xml is saved in the snapshot store before the fields are imported,
+     * so the import can be reverted by importing the snapshot.
+     * 
+     * @param   formDefOps          tcFormDefinitionOperationsIntf service object
+     * @param   exportOps           tcExportOperationsIntf service object
+     * @param   importOps           tcImportOperationsIntf service object
+     * @param   fileName            name of the file
+     * @param   processFormName     Table name of a process form
+     * @param   delimiter           Use to separate values in file
+     * @param   snapshotStore       store of the xml before import; null to not take a snapshot
+     * @return  boolean value to indicate success or failure
+     */
+    public static boolean addFieldsToProcessFormImportDSFF(tcFormDefinitionOperationsIntf formDefOps, tcExportOperationsIntf exportOps, tcImportOperationsIntf importOps, String fileName, String processFormName, String delimiter, MetadataSnapshotStore snapshotStore) throws tcAPIException, tcColumnNotFoundException, tcFormNotFoundException, FileNotFoundException, IOException, ProcessFormNotFoundException, ProcessFormVersionLockedException, BadFileFormatException, MissingRequiredFieldException, MissingHeaderException, ParserConfigurationException, SAXException, TransformerConfigurationException, TransformerException, XPathExpressionException, SQLException, NamingException, DDMException, TransformationException, tcBulkException
+    {    
+        FileInputStream fstream = null;
+        DataInputStream in = null;
+        BufferedReader br = null;
+            
+        try 
+        {    
+            fstream = new FileInputStream(fileName); //Open File
+            in = new DataInputStream(fstream); //Get the object of DataInputStream
+            br = new BufferedReader(new InputStreamReader(in));
+            
+            //Validate name of the process form
+            if(doesProcessFormExist(formDefOps, processFormName) == false)
+            {
+                System.out.println("[Error]: Process form name "+ processFormName + " does not exist.");
+                throw new ProcessFormNotFoundException(String.format("Process form name %s does not exist.", processFormName));
+            }
+            
+            tcResultSet formResultSet = getProcessFormData(formDefOps, processFormName); //get all data of a process form
+            long processFormKey = Long.parseLong(formResultSet.getStringValue("Structure Utility.Key"));
+            int processFormLatestVersion = Integer.parseInt(formResultSet.getStringValue("Structure Utility.Latest Version"));
+
+            //determine if the form version is locked
+            if(isFormVersionLocked(formDefOps, processFormKey, processFormLatestVersion))
+            {
+                System.out.println("[Error]: Process form version "+ processFormLatestVersion + " is locked.");
+                throw new ProcessFormVersionLockedException("Process form version is locked. Create a new version.");
+            }
+            
+            System.out.printf("Form being modified: Version = %s, Process Key = %s\n", processFormLatestVersion,processFormKey);
+            ProcessFormFieldSnapshot fieldSnapshot = getProcessFormFieldSnapshot(formDefOps, processFormKey, processFormLatestVersion);
+            ArrayList<ProcessFormField> pf_fieldRecordArray = readProcessFormFieldsFromFile(br, delimiter, processFormKey, processFormLatestVersion, fieldSnapshot); //store all process form fields to be added
+            LinkedHashMap<String,ProcessFormField> fieldsByColumnName = new LinkedHashMap<String,ProcessFormField>();
+            
+            //Validate the column name of each field
+            for(ProcessFormField obj: pf_fieldRecordArray)
+            {
+                String columnName = getFormFieldColumnName(processFormName, obj.getFieldName());
+                
+                if(columnName.length() > MAX_COLUMN_NAME_LENGTH)
+                {
+                    System.out.println("[Warning] Line =" + obj.getLineNumber() +  ": Column name '" + columnName + "' is too long. Field will not be added.");
+                }
+                
+                else if(fieldSnapshot.getFieldKeyByColumnName(columnName) != null || fieldsByColumnName.containsKey(columnName))
+                {
+                    System.out.println("[Warning] Line =" + obj.getLineNumber() +  ": Column name '" + columnName + "' exists. Field will not be added.");
+                }
+                
+                else
+                {
+                    fieldsByColumnName.put(columnName, obj);
+                }
+            }
+            
+            System.out.println("[Info]: Fields to be imported: " + fieldsByColumnName.keySet());
+            
+            if(fieldsByColumnName.isEmpty())
+            {
+                System.out.println("[Info]: No fields to import.");
+                return true;
+            }
+            
+            String processFormXML = exportProcessForm(exportOps, processFormName); //Export the process form metadata as a String
+            Document document = HelperUtility.parseStringXMLIntoDocument(processFormXML); //convert xml to a Document
+            MetadataDocumentNavigator navigator = new MetadataDocumentNavigator(document);
+            
+            //Add fields to the process form metadata
+            for(Map.Entry<String,ProcessFormField> entry : fieldsByColumnName.entrySet())
+            {
+                addFormField(navigator, processFormName, entry.getKey(), entry.getValue());
+            }
+            
+            String newProcessFormXML = HelperUtility.parseDocumentIntoStringXML(document);
+            MetadataSnapshotStore.saveSnapshot(snapshotStore, PROCESS_FORM_EXPORT_TYPE, processFormName, processFormXML);
+            HelperUtility.importObject(importOps, newProcessFormXML, "CustomFormFieldUtilAdd");
+            System.out.println("[Info]: Number of fields imported: " + fieldsByColumnName.size());
+            return true;
+        } 
+                
+        finally
+        {
+            if(br != null)
+            {
+                try {
+                    br.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+            
+            if(in != null)
+            {
+                try {
+                    in.close(); //Close the input stream
+                } catch (IOException ex) {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+            
+            if(fstream != null)
+            {
+                try {
+                    fstream.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+        }           
+    }
+    
+    /*
+     * Export a process form XML
+     * @param   exportOps           tcExportOperationsIntf service object
+     * @param   processFormName     Table name of a process form
+     * @return  the XML of the process form as a String
+     */
+    public static String exportProcessForm(tcExportOperationsIntf exportOps, String processFormName) throws tcAPIException
+    {
+        return HelperUtility.exportObject(exportOps, PROCESS_FORM_EXPORT_TYPE, processFormName);
+    }
+    
+    /*
+     * Adds a field to the process form xml.
+     * Sample data added to xml
+     * <AttributeReference repo-type="RDBMS" name="UD_FLAT_FIL_FIRSTNAME">
+     * <SDC_UPDATE>1361032854000</SDC_UPDATE>
+     * <SDC_LABEL>FirstName</SDC_LABEL>
+     * <SDC_VERSION>2</SDC_VERSION>
+     * <SDC_ORDER>50</SDC_ORDER>
+     * <SDC_FIELD_TYPE>TextField</SDC_FIELD_TYPE>
+     * <SDC_VARIANT_TYPE>String</SDC_VARIANT_TYPE>
+     * <SDC_LENGTH>100</SDC_LENGTH>
+     * <SDC_ENCRYPTED>0</SDC_ENCRYPTED>
+     * </AttributeReference>
+     * 
+     * The tags and their order are the ones the Deployment Manager writes for each field of an
+     * exported process form [exportProcessForm]; SDC_DEFAULT and SDC_PROFILE_ENABLED are only
+     * written for a field that has them. Each tag is the SDC column of the same name.
+     * Set the SDC_UPDATE to the date of when the process form was last updated (SDK_UPDATE).
+     * @param   document            object representation of a process form xml
+     * @param   processFormName     Table name of a process form
+     * @param   columnName          column name of the new field
+     * @param   processFormFieldObj field to add to document
+     */
+    public static void addFormField(Document document, String processFormName, String columnName, ProcessFormField processFormFieldObj) throws XPathExpressionException
+    {
+        addFormField(new MetadataDocumentNavigator(document), processFormName, columnName, processFormFieldObj);
+    }
+    
+    /*
+     * Adds a field to the process form xml. Same as addFormField(document, processFormName, columnName, processFormFieldObj)
+     * except the process form tag and SDK_UPDATE are resolved once by the navigator, so the 
+     * navigator should be reused when adding many fields to the same document.
+     * @param   navigator           navigator of a process form xml
+     * @param   processFormName     Table name of a process form
+     * @param   columnName          column name of the new field
+     * @param   processFormFieldObj field to add to document
+     */
+    public static void addFormField(MetadataDocumentNavigator navigator, String processFormName, String columnName, ProcessFormField processFormFieldObj) throws XPathExpressionException
+    {
+        Document document = navigator.getDocument();
+        String formUpdateTimestamp = navigator.getNamedElementText(PROCESS_FORM_PATH, processFormName, SDK_UPDATE_TAG);
+        
+        //AttributeReference tag and its properties
+        Element newFormField = document.createElement(FORM_FIELD_TAG);
+        newFormField.setAttribute("repo-type", "RDBMS"); 
+        newFormField.setAttribute("name", columnName); 
+        appendTextElement(document, newFormField, SDC_UPDATE_TAG, formUpdateTimestamp);
+        appendTextElement(document, newFormField, SDC_LABEL_TAG, processFormFieldObj.getFieldName());
+        appendTextElement(document, newFormField, SDC_VERSION_TAG, String.valueOf(processFormFieldObj.getProcessFormVersion()));
+        appendTextElement(document, newFormField, SDC_ORDER_TAG, String.valueOf(processFormFieldObj.getOrder()));
+        appendTextElement(document, newFormField, SDC_FIELD_TYPE_TAG, processFormFieldObj.getFieldType());
+        appendTextElement(document, newFormField, SDC_VARIANT_TYPE_TAG, processFormFieldObj.getVariantType());
+        appendTextElement(document, newFormField, SDC_LENGTH_TAG, String.valueOf(processFormFieldObj.getLength()));
+        appendTextElement(document, newFormField, SDC_ENCRYPTED_TAG, processFormFieldObj.getSecure() ? "1" : "0");
+        
+        if(processFormFieldObj.getDefaultValue() != null && !processFormFieldObj.getDefaultValue().isEmpty())
+        {
+            appendTextElement(document, newFormField, SDC_DEFAULT_TAG, processFormFieldObj.getDefaultValue());
+        }
+        
+        if(processFormFieldObj.getProfileEnabled() != null && !processFormFieldObj.getProfileEnabled().isEmpty())
+        {
+            appendTextElement(document, newFormField, SDC_PROFILE_ENABLED_TAG, processFormFieldObj.getProfileEnabled());
+        }
+        
+        //Insert the field within the process form tag
+        if(!navigator.appendChild(PROCESS_FORM_PATH, processFormName, newFormField))
+        {
+            System.out.println("[Error]: Field " + columnName + " cannot be added. Process form " + processFormName + " is not in the process form xml.");
+        }
+    }
+    
+    /*
+     * Get the column name OIM gives to a new field.
+     * @param   processFormName     Table name of a process form
+     * @param   fieldLabel          field label of the new field
+     * @return  column name of the field (SDC_NAME)
+     */
+    public static String getFormFieldColumnName(String processFormName, String fieldLabel)
+    {
+        return (processFormName + "_" + fieldLabel.replaceAll("[^A-Za-z0-9_]", "")).toUpperCase();
+    }
+    
+    private static void appendTextElement(Document document, Element parent, String tagName, String textContent)
+    {
+        Element element = document.createElement(tagName);
+        element.setTextContent(textContent);
+        parent.appendChild(element);
+    }
+    
+    /*
+     * Puts a field on the queue of the writer stage. Waits while the queue is full.
+     * @param   fieldQueue              queue of the writer stage
+     * @param   processFormFieldObj     field to be added
+     * @param   pendingWriter           writer stage
+     * @return  false if the writer stage has stopped
+     */
+    private static boolean stageField(BlockingQueue<ProcessFormField> fieldQueue, ProcessFormField processFormFieldObj, Future<Integer> pendingWriter) throws InterruptedException
+    {
+        while(!fieldQueue.offer(processFormFieldObj, 1, TimeUnit.SECONDS))
+        {
+            if(pendingWriter.isDone())
+            {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    /*
+     * Reads the process form fields from a flat file and validates each field record.
+     * Field records that are invalid or whose field label exists are skipped and reported to the user.
+     * See addFieldsToProcessFormDSFF for the file format.
+     * 
+     * @param   br                  reader positioned at the line that contains the field attribute names
+     * @param   delimiter           Use to separate values in file
+     * @param   processFormKey      SDK_KEY
+     * @param   processFormVersion  version the fields will be added to
+     * @param   fieldSnapshot       fields of the process form version
+     * @return  valid process form fields to be added
+     */
+    public static ArrayList<ProcessFormField> readProcessFormFieldsFromFile(BufferedReader br, String delimiter, long processFormKey, int processFormVersion, ProcessFormFieldSnapshot fieldSnapshot) throws IOException, BadFileFormatException, MissingRequiredFieldException, MissingHeaderException
+    {
+        int lineNumber = 1;
+        String strLine; //var to store a line of a file
+        DelimitedRecordSchema fieldSchema = readProcessFormFieldSchema(br, delimiter); //All records must have values for the field attributes in the header
+        ArrayList<ProcessFormField> pf_fieldRecordArray = new ArrayList<ProcessFormField>(); //store all process form fields to be added
+        HashMap<String, String> formFieldDuplicationValidator = new HashMap<String, String>(); // used to make sure duplications are not being 
+        
+        //Read each process form field from file and stage into array
+        while ((strLine = br.readLine()) != null)  
+        {
+            lineNumber++;
+            ProcessFormField processFormFieldObj = parseProcessFormFieldRecord(strLine, lineNumber, fieldSchema, processFormKey, processFormVersion, fieldSnapshot, formFieldDuplicationValidator);
+            
+            //add form field object if field record in file is valid
+            if(processFormFieldObj != null)
+            {
+                pf_fieldRecordArray.add(processFormFieldObj); 
+            }
+        }
+        
+        return pf_fieldRecordArray;
+    }
+    
+    /*
+     * Reads the line that contains the field attribute names and binds each attribute to its column.
+     * @param   br          reader positioned at the line that contains the field attribute names
+     * @param   delimiter   Use to separate values in file
+     * @return  schema used to parse the field records of the file
+     */
+    public static DelimitedRecordSchema readProcessFormFieldSchema(BufferedReader br, String delimiter) throws IOException, BadFileFormatException, MissingRequiredFieldException, MissingHeaderException
+    {
+        //First line contains the attributes of a process form field
+        //Each process form field record in file must have a value for these attributes 
+        DelimitedRecordSchema fieldSchema = new DelimitedRecordSchema(delimiter, 
+                new String[] {FIELDLABEL, VARIANTTYPE, FIELDTYPE, LENGTH, ORDER, DEFAULTVALUE, APP_PROFILE, ENCRYPTED}, new String[] {FIELDLABEL}, false);
+        
+        try
+        {
+            fieldSchema.bindHeader(br.readLine());
+        }
+        
+        catch (BadFileFormatException ex)
+        {
+            System.out.println("[Error]: " + ex.getMessage());
+            throw ex;
+        }
+        
+        catch (MissingRequiredFieldException ex)
+        {
+            System.out.println("[Error]: " + ex.getMessage());
+            throw ex;
+        }
+        
+        return fieldSchema;
+    }
+    
+    /*
+     * Parses and validates a field record from the file.
+     * Field records that are invalid or whose field label exists are reported to the user.
+     * @param   strLine                         field record as it appears in the file
+     * @param   lineNumber                      line number of the field record in the file
+     * @param   fieldSchema                     schema of the file [readProcessFormFieldSchema]
+     * @param   processFormKey                  SDK_KEY
+     * @param   processFormVersion              version the field will be added to
+     * @param   fieldSnapshot                   fields of the process form version; null to accept existing field labels
+     * @param   formFieldDuplicationValidator   field labels of the records that have been staged; the field label of a valid record is added
+     * @return  the process form field; null if the field record is invalid
+     */
+    public static ProcessFormField parseProcessFormFieldRecord(String strLine, int lineNumber, DelimitedRecordSchema fieldSchema, long processFormKey, int processFormVersion, ProcessFormFieldSnapshot fieldSnapshot, HashMap<String, String> formFieldDuplicationValidator)
+    {
+        DelimitedRecord fieldRecord = fieldSchema.parseRecord(strLine);
+        ProcessFormField processFormFieldObj = new ProcessFormField(processFormKey, processFormVersion);
+        
+        if(fieldRecord == null)
+        {
+            System.out.println("[Warning] Line =" + lineNumber +  " : Size of row is invalid. Field will not be added:\n" + strLine);
+            return null;
+        }
+        
+        //Optional attributes are null if they are not in the header
+        String fieldName = fieldRecord.getValue(FIELDLABEL);
+        String variantType = fieldRecord.getValue(VARIANTTYPE);
+        String fieldType = fieldRecord.getValue(FIELDTYPE);
+        String length = fieldRecord.getValue(LENGTH);
+        String order = fieldRecord.getValue(ORDER);
+        String defaultValue = fieldRecord.getValue(DEFAULTVALUE);
+        String appProfileEnabledStr = fieldRecord.getValue(APP_PROFILE);
+        String encryptEnabledStr = fieldRecord.getValue(ENCRYPTED);
+        
+        //Check if the field label exist
+        if(fieldSnapshot != null && fieldSnapshot.hasFieldLabel(fieldName))
+        {
+            System.out.println("[Warning] Line =" + lineNumber +  " : Field label '" + fieldName + "' exists. Field will not be added:\n" + strLine);
+            return null;
+        }
+        
+        //Validate if form field label has already been added to staging
+        if(formFieldDuplicationValidator.containsKey(fieldName))
+        {
+            System.out.println("[Warning] Line =" + lineNumber +  ": Field label '" + fieldName + "' exists in staging. Field will not be added:\n" + strLine);
+            return null; 
+        }
+        
+        //check if the variant type is valid
+        if(variantType != null && !isFieldVariantTypeValid(variantType))
+        {
+            System.out.println("[Warning] Line =" + lineNumber +  ": Variant type '" + variantType + "' is not valid. Field will not be added:\n" + strLine);
+            return null; 
+        }
+        
+        //check if the field type is valid
+        if(fieldType != null && !isFieldTypeValid(fieldType))
+        {
+            System.out.println("[Warning] Line =" + lineNumber +  ": Field type '" + fieldType + "' is not valid. Field will not be added:\n" + strLine);
+            return null; 
+        }
+        
+        //Check if length is an int type
+        if(length != null && !HelperUtility.isInteger(length))
+        {
+            System.out.println("[Warning] Line =" + lineNumber +  ": Length '" + length + "' is not valid. Field will not be added:\n" + strLine);
+            return null; 
+        }
+        
+        //Check if order is an integer
+        if(order != null && !HelperUtility.isInteger(order))
+        {
+            System.out.println("[Warning] Line =" + lineNumber +  ": Order '" + order + "' is not valid. Field will not be added:\n" + strLine);
+            return null; 
+        }
+        
+        if(appProfileEnabledStr != null && !appProfileEnabledStr.equals("1") && !appProfileEnabledStr.equals("0") && !appProfileEnabledStr.isEmpty())
+        {
+            System.out.println("[Warning] Line =" + lineNumber +  ": Application Profile '" + appProfileEnabledStr + "' is not valid (0 = false, 1 = true). Field will not be added:\n" + strLine);
+            return null; 
+        }
+        
+        if(encryptEnabledStr != null && !encryptEnabledStr.equals("1") && !encryptEnabledStr.equals("0") && !encryptEnabledStr.isEmpty())
+        {
+            System.out.println("[Warning] Line =" + lineNumber +  ": Encrypted '" + encryptEnabledStr + "' is not valid (0 = false, 1 = true). Field will not be added:\n" + strLine);
+            return null; 
+        }
+        
+        formFieldDuplicationValidator.put(fieldName, null);
+        processFormFieldObj.setFieldName(fieldName);
+        
+        if(variantType != null)
+        {
+            processFormFieldObj.setVariantType(variantType);
+        }
+        
+        if(fieldType != null)
+        {
+            processFormFieldObj.setFieldType(fieldType);
+        }
+        
+        if(length != null)
+        {
+            processFormFieldObj.setLength(Integer.parseInt(length));
+        }
+        
+        if(order != null)
+        {
+            processFormFieldObj.setOrder(Integer.parseInt(order));
+        }
+        
+        if(defaultValue != null)
+        {
+            processFormFieldObj.setDefaultValue(defaultValue);
+        }
+        
+        if(appProfileEnabledStr != null)
+        {
+            processFormFieldObj.setProfileEnabled(appProfileEnabledStr);
+        }
+        
+        if(encryptEnabledStr != null)
+        {
+            processFormFieldObj.setSecure(encryptEnabledStr.equals("1"));
+        }
+        
+        processFormFieldObj.setLineNumber(lineNumber);
+        return processFormFieldObj;
     }
     
     /*
      * Uses a flat file as a datasource to remove fields from the latest version of a process form.
      * File must be in a specific format. Form version must not be active.
-     * 
-     * Check to make sure field label exists. 
-     * Check for duplication in file are not process.
+     * Fields mapped to a reconciliation field are not checked; see the overload with a tcDataProvider.
      * 
      * File Format
-     * <Name of Process Form>
      * <Field Label1>
      * <Field Label2>
      *
      * @param   formDefOps          tcFormDefinitionOperationsIntf service object
      * @param   fileName            name of the file
      * @param   processFormName     Table name of a process form
-     * @return  boolean value to indicate success or failure
+     * @return  boolean value to indicate that every field to be removed has been removed
      */
     public static boolean removeFieldsFromProcessFormDSFF(tcFormDefinitionOperationsIntf formDefOps, String fileName, String processFormName) throws tcAPIException, tcColumnNotFoundException, tcFormNotFoundException, ProcessFormNotFoundException, ProcessFormVersionLockedException, FileNotFoundException, IOException
+    {
+        try
+        {
+            return removeFieldsFromProcessFormDSFF(null, formDefOps, fileName, processFormName);
+        }
+        
+        catch (tcDataSetException ex)
+        {
+            Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
+            return false;
+        }
+        
+        catch (tcDataAccessException ex)
+        {
+            Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
+            return false;
+        }
+    }
+    
+    /*
+     * Uses a flat file as a datasource to remove fields from the latest version of a process form.
+     * File must be in a specific format. Form version must not be active.
+     * All field labels are resolved against one snapshot of the process form fields. The fields 
+     * are removed one at a time; every field belongs to the same form version, and concurrent 
+     * calls to removeFormField on one form version are not safe.
+     * 
+     * Fields that are mapped to a reconciliation field cannot be removed until the mapping is removed;
+     * they are skipped. The mapped fields are read from PRF with one query, only when there is a 
+     * field to remove. A report of every field label in the file is printed at the end in file order.
+     * 
+     * File Format
+     * <Field Label1>
+     * <Field Label2>
+     * 
+     * @param   dbProvider          connection to the OIM Schema; null to skip the PRF check
+     * @param   formDefOps          tcFormDefinitionOperationsIntf service object
+     * @param   fileName            name of the file
+     * @param   processFormName     Table name of a process form
+     * @return  boolean value to indicate that every field to be removed has been removed
+     */
+    public static boolean removeFieldsFromProcessFormDSFF(tcDataProvider dbProvider, tcFormDefinitionOperationsIntf formDefOps, String fileName, String processFormName) throws tcAPIException, tcColumnNotFoundException, tcFormNotFoundException, tcDataSetException, tcDataAccessException, ProcessFormNotFoundException, ProcessFormVersionLockedException, FileNotFoundException, IOException
     {    
         FileInputStream fstream = null;
         DataInputStream in = null;
@@ -497,9 +1552,6 @@ public class ProcessFormFieldUtility
             in = new DataInputStream(fstream); //Get the object of DataInputStream
             br = new BufferedReader(new InputStreamReader(in));
             
-            String strLine; //var to store a line of a file
-            HashMap<Long, Object> fieldKeys = new HashMap<Long, Object>();
-
             //Validate the name of the process form
             if(doesProcessFormExist(formDefOps, processFormName) == false)
             {
@@ -518,57 +1570,90 @@ public class ProcessFormFieldUtility
                 throw new ProcessFormVersionLockedException("Process form version is locked. Create a new version.");
             }
             
-            //Read each process form field from file
+            ProcessFormFieldSnapshot fieldSnapshot = getProcessFormFieldSnapshot(formDefOps, processFormKey, processFormLatestVersion);
+            HashMap<Long, Integer> fieldKeys = new HashMap<Long, Integer>(); //field key to line number
+            LinkedHashMap<Integer, String> fieldStatus = new LinkedHashMap<Integer, String>(); //line number to outcome
+            LinkedHashMap<Integer, String> fieldLabels = new LinkedHashMap<Integer, String>(); //line number to field label
+            String strLine; //var to store a line of a file
+            
+            //Resolve each field label from file
             while ((strLine = br.readLine()) != null)  
             {   
                 lineNumber++;
                 String fieldLabel = strLine;
-                         
-                //Check if the field label exist
-                if(!doesFormFieldLabelExists(formDefOps, processFormKey, processFormLatestVersion, fieldLabel))
+                Long fieldKey = fieldSnapshot.getFieldKeyByFieldLabel(fieldLabel);
+                fieldLabels.put(lineNumber, fieldLabel);
+                
+                if(fieldKey == null)
                 {
-                    System.out.println("[Warning] Line =" + lineNumber +  ": Field label '" + fieldLabel + "' does not exists.");
-                    continue;
+                    fieldStatus.put(lineNumber, "Skipped: field label does not exist");
                 }
                 
-                //get form field key
-                Long fieldKey = getFieldKeyByFieldLabel(formDefOps, processFormKey, processFormLatestVersion, fieldLabel);
+                else if(fieldKeys.containsKey(fieldKey))
+                {
+                    fieldStatus.put(lineNumber, "Skipped: duplicate of line " + fieldKeys.get(fieldKey));
+                }
+                
+                else
+                {
+                    fieldStatus.put(lineNumber, null); //to be removed
+                    fieldKeys.put(fieldKey, lineNumber);
+                }
+            }
+            
+            //Skip the fields that are mapped to a reconciliation field
+            if(dbProvider != null && !fieldKeys.isEmpty())
+            {
+                HashSet<String> mappedColumnNames = MappingReconFieldToFormFieldUtility.getMappedFormFieldColumnNames(dbProvider, processFormKey);
                 
-                if(fieldKey != null)
+                for(Map.Entry<Long, Integer> field : fieldKeys.entrySet())
                 {
-                    //check if the field has been added to map
-                    if(fieldKeys.containsKey(fieldKey))
+                    String columnName = fieldSnapshot.getColumnName(field.getKey());
+                    
+                    if(mappedColumnNames.contains(columnName.toUpperCase()))
                     {
-                        System.out.println("[Warning] Line =" + lineNumber +  ": Duplication of field label '" + fieldLabel + "' does not exists.");
-                        continue;
+                        fieldStatus.put(field.getValue(), "Skipped: " + columnName + " is mapped in PRF");
                     }
-                    //add form key to hash map
-                    fieldKeys.put(fieldKey, lineNumber);
                 }
             }
-
-            System.out.println(fieldKeys.toString());
             
-            //Remove fields from the process form 
-            Iterator it = fieldKeys.entrySet().iterator();
-    
-            while (it.hasNext()) 
-            {   
-                Map.Entry pairs = (Map.Entry)it.next();
-                Long fieldKey = (Long) pairs.getKey();
-                try {
-                    removeFormField(formDefOps, fieldKey);
-                } catch (tcFormFieldNotFoundException ex) {
-                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, String.format("Field %s failed to be deleted. Line number in file is %s", pairs.getKey(), pairs.getValue()), ex);
-                } catch (tcDeleteNotAllowedException ex) {
-                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, String.format("Field %s failed to be deleted. Line number in file is %s", pairs.getKey(), pairs.getValue()), ex);
-                } catch (tcAPIException ex) {
-                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, String.format("Field %s failed to be deleted. Line number in file is %s", pairs.getKey(), pairs.getValue()), ex);
+            //Remove the fields from the process form one at a time
+            int numRemoved = 0;
+            int numFailed = 0;
+            
+            for(Map.Entry<Long, Integer> field : fieldKeys.entrySet())
+            {
+                if(fieldStatus.get(field.getValue()) != null)
+                {
+                    continue;
+                }
+                
+                try
+                {
+                    removeFormField(formDefOps, field.getKey());
+                    fieldStatus.put(field.getValue(), "Removed");
+                    numRemoved++;
+                }
+                
+                catch (Exception ex)
+                {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, String.format("Field failed to be deleted. Line number in file is %s", field.getValue()), ex);
+                    fieldStatus.put(field.getValue(), "Failed: " + ex.getClass().getSimpleName());
+                    numFailed++;
                 }
-                it.remove(); // avoids a ConcurrentModificationException
             }
-
-            return true;
+            
+            //Removal report
+            System.out.printf("%-8s%-40s%s\n", "Line", "Field Label", "Status");
+            System.out.printf("%-8s%-40s%s\n", "=====", "==========", "======");
+            
+            for(Map.Entry<Integer, String> status : fieldStatus.entrySet())
+            {
+                System.out.printf("%-8s%-40s%s\n", status.getKey(), fieldLabels.get(status.getKey()), status.getValue());
+            }
+            
+            System.out.printf("[Info]: %s of %s fields removed.\n", numRemoved, fieldStatus.size());
+            return numFailed == 0;
         } 
         
         finally
@@ -744,7 +1829,7 @@ public class ProcessFormFieldUtility
             tcResultSet processFieldResultSet = formDefOps.getFormFields(Long.parseLong(formResultSet.getStringValue("Structure Utility.Key")), Integer.parseInt(formResultSet.getStringValue("Structure Utility.Latest Version"))); 
             int numRows = processFieldResultSet.getTotalRowCount();
 
-            writer.printf("%s%s%s%s%s%s%s%s%s%s%s%s%s%s%s\n", FIELDLABEL, delimiter ,VARIANTTYPE, delimiter , FIELDTYPE, delimiter, LENGTH, delimiter, ORDER, delimiter, DEFAULTVALUE, delimiter, APP_PROFILE, delimiter, ENCRYPTED);
+            writer.printf("%s\n", DelimitedRecordSchema.join(new String[] {FIELDLABEL, VARIANTTYPE, FIELDTYPE, LENGTH, ORDER, DEFAULTVALUE, APP_PROFILE, ENCRYPTED}, delimiter));
             for(int i = 0; i < numRows; i++)
             {
                 processFieldResultSet.goToRow(i);
@@ -757,10 +1842,9 @@ public class ProcessFormFieldUtility
                 String processFormFieldAppProfile = processFieldResultSet.getStringValue("Structure Utility.Additional Columns.Profile Enabled");
                 String processFormFieldEncrypted = processFieldResultSet.getStringValue("Structure Utility.Additional Columns.Encrypted");
 
-                writer.printf("%s%s%s%s%s%s%s%s%s%s%s%s%s%s%s\n",processFormFieldLabel, delimiter, 
-                        processFormFieldVariantType, delimiter, processFormFieldType, delimiter, processFormFieldLength, delimiter, 
-                        processFormFieldOrder, delimiter, processFormFieldDefaultValue, delimiter, processFormFieldAppProfile, delimiter,
-                        processFormFieldEncrypted);
+                writer.printf("%s\n", DelimitedRecordSchema.join(new String[] {processFormFieldLabel, processFormFieldVariantType, 
+                        processFormFieldType, processFormFieldLength, processFormFieldOrder, processFormFieldDefaultValue, 
+                        processFormFieldAppProfile, processFormFieldEncrypted}, delimiter));
             }
         }
               
@@ -773,6 +1857,173 @@ public class ProcessFormFieldUtility
         }
     }
     
+    /*
+     * Export the fields of every process form in proper file format for this utility.
+     * One file named <process form name>.txt is created in the given directory for each process form.
+     * The process forms are listed once and the fields of each process form are fetched and written 
+     * concurrently. A report with the number of fields and the time taken for each process form is printed at the end.
+     * @param   formDefOps          tcFormDefinitionOperationsIntf service object
+     * @param   directoryName       directory to put the files in
+     * @param   delimiter           Use to separate values in file
+     * @param   numThreads          Number of process forms to export at the same time. Capped by MAX_BATCH_THREADS.
+     * @return  the process forms with the outcome of each export
+     */
+    public static ArrayList<ProcessFormBatchEntry> exportAllProcessFormFieldsFileFormatAdd(final tcFormDefinitionOperationsIntf formDefOps, String directoryName, final String delimiter, int numThreads) throws tcAPIException, tcColumnNotFoundException, FileNotFoundException, InterruptedException
+    {
+        File directory = new File(directoryName);
+        
+        if(!directory.isDirectory())
+        {
+            throw new FileNotFoundException(String.format("Directory %s does not exist.", directoryName));
+        }
+        
+        //List all the process forms
+        tcResultSet processFormResultSet = getAllProcessFormData(formDefOps);
+        int numRows = processFormResultSet.getTotalRowCount();
+        ArrayList<ProcessFormBatchEntry> exportEntries = new ArrayList<ProcessFormBatchEntry>();
+        
+        for(int i = 0; i < numRows; i++)
+        {
+            processFormResultSet.goToRow(i);
+            String processFormName = processFormResultSet.getStringValue("Structure Utility.Table Name");
+            ProcessFormBatchEntry exportEntry = new ProcessFormBatchEntry(processFormName, new File(directory, processFormName + ".txt").getPath(), delimiter, i + 1);
+            exportEntry.setProcessFormKey(Long.parseLong(processFormResultSet.getStringValue("Structure Utility.Key")));
+            exportEntry.setProcessFormVersion(Integer.parseInt(processFormResultSet.getStringValue("Structure Utility.Latest Version")));
+            exportEntries.add(exportEntry);
+        }
+        
+        //Export each process form on its own thread
+        int poolSize = Math.max(1, Math.min(numThreads, MAX_BATCH_THREADS));
+        ExecutorService exportPool = Executors.newFixedThreadPool(poolSize);
+        long startTime = System.currentTimeMillis();
+        
+        try
+        {
+            ArrayList<Future<Object>> pendingExports = new ArrayList<Future<Object>>();
+            
+            for(final ProcessFormBatchEntry exportEntry : exportEntries)
+            {
+                pendingExports.add(exportPool.submit(new Callable<Object>()
+                {
+                    @Override
+                    public Object call() 
+                    {
+                        exportProcessFormFields(formDefOps, exportEntry);
+                        return null;
+                    }
+                }));
+            }
+            
+            for(Future<Object> pendingExport : pendingExports)
+            {
+                try
+                {
+                    pendingExport.get();
+                }
+                
+                catch (ExecutionException ex)
+                {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex.getCause());
+                }
+            }
+        }
+        
+        finally
+        {
+            exportPool.shutdownNow();
+        }
+        
+        //Export report
+        int numFailed = 0;
+        System.out.printf("%-30s%-10s%-10s%-10s%-15s%s\n", "Process Form", "Version", "Fields", "Status", "Time (ms)", "Error");
+        System.out.printf("%-30s%-10s%-10s%-10s%-15s%s\n", "============", "=======", "======", "======", "==========", "=====");
+        
+        for(ProcessFormBatchEntry exportEntry : exportEntries)
+        {
+            numFailed += exportEntry.getSuccess() ? 0 : 1;
+            System.out.printf("%-30s%-10s%-10s%-10s%-15s%s\n", exportEntry.getProcessFormName(), exportEntry.getProcessFormVersion(), exportEntry.getNumFields(), 
+                    exportEntry.getSuccess() ? "Success" : "Failed", exportEntry.getElapsedTime(), exportEntry.getErrorMessage() == null ? "" : exportEntry.getErrorMessage());
+        }
+        
+        System.out.printf("[Info]: %s of %s process forms exported in %s ms.\n", exportEntries.size() - numFailed, exportEntries.size(), System.currentTimeMillis() - startTime);
+        return exportEntries;
+    }
+    
+    /*
+     * Fetch the fields in the latest version of a process form and write them to the file of the export entry.
+     * @param   formDefOps      tcFormDefinitionOperationsIntf service object
+     * @param   exportEntry     process form with its key, latest version, file name, and delimiter
+     */
+    private static void exportProcessFormFields(tcFormDefinitionOperationsIntf formDefOps, ProcessFormBatchEntry exportEntry)
+    {
+        long startTime = System.currentTimeMillis();
+        BufferedWriter writer = null;
+        
+        try
+        {
+            tcResultSet processFieldResultSet = formDefOps.getFormFields(exportEntry.getProcessFormKey(), exportEntry.getProcessFormVersion()); 
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(exportEntry.getFileName()), "UTF-8"), EXPORT_BUFFER_SIZE);
+            exportEntry.setNumFields(writeProcessFormFields(writer, processFieldResultSet, exportEntry.getDelimiter()));
+            writer.close();
+            writer = null;
+            exportEntry.setSuccess(true);
+        }
+        
+        catch (Exception ex)
+        {
+            Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, String.format("Process form %s failed to be exported.", exportEntry.getProcessFormName()), ex);
+            exportEntry.setErrorMessage(ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage());
+        }
+        
+        finally
+        {
+            if(writer != null)
+            {
+                try {
+                    writer.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+            
+            exportEntry.setElapsedTime(System.currentTimeMillis() - startTime);
+        }
+    }
+    
+    /*
+     * Write the header and the fields of a process form in proper file format for this utility.
+     * Same output as exportProcessFormFieldsFileFormatAdd.
+     * @param   writer                  file to write to
+     * @param   processFieldResultSet   fields of a process form [getAllProcessFormFields]
+     * @param   delimiter               Use to separate values in file
+     * @return  number of fields written
+     */
+    public static int writeProcessFormFields(Writer writer, tcResultSet processFieldResultSet, String delimiter) throws IOException, tcAPIException, tcColumnNotFoundException
+    {
+        int numRows = processFieldResultSet.getTotalRowCount();
+        String [] fieldColumns = {"Field Label", "Variant Type", "Field Type", "Length", "Order", "Default Value", "Profile Enabled", "Encrypted"};
+        String [] attributeNames = {FIELDLABEL, VARIANTTYPE, FIELDTYPE, LENGTH, ORDER, DEFAULTVALUE, APP_PROFILE, ENCRYPTED};
+        
+        writer.write(DelimitedRecordSchema.join(attributeNames, delimiter));
+        writer.write('\n');
+        
+        for(int i = 0; i < numRows; i++)
+        {
+            processFieldResultSet.goToRow(i);
+            String [] values = new String[fieldColumns.length];
+            
+            for(int j = 0; j < fieldColumns.length; j++)
+            {
+                values[j] = processFieldResultSet.getStringValue("Structure Utility.Additional Columns." + fieldColumns[j]);
+            }
+            
+            writer.write(DelimitedRecordSchema.join(values, delimiter));
+            writer.write('\n');
+        }
+        
+        return numRows;
+    }
+    
     /*
      * Print all the fields of a process form.
      * @param   formDefOps          tcFormDefinitionOperationsIntf service object
@@ -888,6 +2139,18 @@ public class ProcessFormFieldUtility
         return null;
     }
     
+    /*
+     * Get all the data of every process form in the latest version.
+     * @param   formDefOps          tcFormDefinitionOperationsIntf service object
+     * @return  tcResultSet containing a record for each process form
+     */
+    public static tcResultSet getAllProcessFormData(tcFormDefinitionOperationsIntf formDefOps) throws tcAPIException
+    {
+        HashMap<String, String> map = new HashMap<String, String>();
+        map.put("Structure Utility.Table Name", "UD_*");
+        return formDefOps.findForms(map);
+    }
+    
     /*
      * Get the process form name by process form key.
      * @param   formDefOps      tcFormDefinitionOperationsIntf service object
@@ -921,6 +2184,51 @@ public class ProcessFormFieldUtility
         return formDefOps.getFormFields(processFormKey, processFormVersion); 
     }
     
+    /*
+     * Get a fingerprint of the fields in the latest version of a process form.
+     * The fingerprint changes when a new version is created or a field is added, removed, or updated.
+     * @param   formDefOps          tcFormDefinitionOperationsIntf service object
+     * @param   processFormName     table name of the process form
+     * @return  form key, latest version, number of fields, and a hash of the fields
+     */
+    public static String getProcessFormFingerprint(tcFormDefinitionOperationsIntf formDefOps, String processFormName) throws tcAPIException, tcColumnNotFoundException, tcFormNotFoundException, UnsupportedEncodingException
+    {
+        tcResultSet formResultSet = getProcessFormData(formDefOps, processFormName);
+        long processFormKey = Long.parseLong(formResultSet.getStringValue("Structure Utility.Key"));
+        int processFormLatestVersion = Integer.parseInt(formResultSet.getStringValue("Structure Utility.Latest Version"));
+        tcResultSet fieldResultSet = getAllProcessFormFields(formDefOps, processFormKey, processFormLatestVersion);
+        int numRows = fieldResultSet.getTotalRowCount();
+        ArrayList<String> fields = new ArrayList<String>(numRows);
+        
+        for(int i = 0; i < numRows; i++)
+        {
+            fieldResultSet.goToRow(i);
+            fields.add(fieldResultSet.getStringValue("Structure Utility.Additional Columns.Key") + "\t"
+                    + fieldResultSet.getStringValue("Structure Utility.Additional Columns.Field Label") + "\t"
+                    + fieldResultSet.getStringValue("Structure Utility.Additional Columns.Variant Type") + "\t"
+                    + fieldResultSet.getStringValue("Structure Utility.Additional Columns.Field Type") + "\t"
+                    + fieldResultSet.getStringValue("Structure Utility.Additional Columns.Length") + "\t"
+                    + fieldResultSet.getStringValue("Structure Utility.Additional Columns.Order") + "\t"
+                    + fieldResultSet.getStringValue("Structure Utility.Additional Columns.Default Value") + "\t"
+                    + fieldResultSet.getStringValue("Structure Utility.Additional Columns.Profile Enabled") + "\t"
+                    + fieldResultSet.getStringValue("Structure Utility.Additional Columns.Encrypted"));
+        }
+        
+        return processFormKey + "-" + processFormLatestVersion + "-" + numRows + "-" + HelperUtility.getHash(fields);
+    }
+    
+    /*
+     * Get a snapshot of all the fields of a process form version. Only one call is made to OIM.
+     * @param   formDefOps          tcFormDefinitionOperationsIntf service object
+     * @param   processFormKey      SDK_KEY
+     * @param   processFormVersion  SDK_LATEST_VERSION, SDK_ACTIVE_VERSION, or any sdk version; Do not use the version label.
+     * @return  fields of the process form version indexed by field label, column name, and field key
+     */
+    public static ProcessFormFieldSnapshot getProcessFormFieldSnapshot(tcFormDefinitionOperationsIntf formDefOps, long processFormKey, int processFormVersion) throws tcAPIException, tcFormNotFoundException, tcColumnNotFoundException
+    {
+        return new ProcessFormFieldSnapshot(processFormKey, processFormVersion, getAllProcessFormFields(formDefOps, processFormKey, processFormVersion));
+    }
+    
     /*
      * Get the form field key by field label.
      * @param   formDefOps          tcFormDefinitionOperationsIntf service object
@@ -14,7 +14,6 @@ import com.thortech.xl.dataobj.PreparedStatementUtil;
 import com.thortech.xl.ddm.exception.DDMException;
 import com.thortech.xl.ddm.exception.TransformationException;
 import com.thortech.xl.orb.dataaccess.tcDataAccessException;
-import com.thortech.xl.vo.ddm.RootObject;
 import java.io.BufferedReader;
 import java.io.DataInputStream;
 import java.io.FileInputStream;
@@ -25,11 +24,12 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.StringTokenizer;
+import java.util.HashSet;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.naming.NamingException;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.xpath.XPath;
@@ -39,9 +39,15 @@ import javax.xml.xpath.XPathFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 import project.rayedchan.custom.objects.AdapterInfo;
+import project.rayedchan.custom.objects.DelimitedRecord;
+import project.rayedchan.custom.objects.DelimitedRecordSchema;
+import project.rayedchan.custom.objects.MetadataChangePlan;
+import project.rayedchan.custom.objects.MetadataImportOptions;
+import project.rayedchan.custom.objects.MetadataSnapshot;
+import project.rayedchan.custom.objects.MetadataSnapshotStore;
+import project.rayedchan.custom.objects.MetadataXMLStreamTransformer;
 import project.rayedchan.custom.objects.ProcessTaskInfo;
 import project.rayedchan.exception.AdapterNameNotFoundException;
 import project.rayedchan.exception.BadFileFormatException;
@@ -63,6 +69,10 @@ import project.rayedchan.exception.ResourceObjectNameNotFoundException;
  */
 public class ProcessTaskUtility 
 {
+    public static String PROCESS_TASK_TAG = "ProcessTask"; //xml process task tag name
+    public static String ATOMIC_PROCESS_PATH = "xl-ddm-data/Process/AtomicProcess"; //path of the tag that contains the process tasks
+    public static String PROCESS_EXPORT_TYPE = "Process"; //Deployment Manager type of a process definition
+    
     /*
      * Prints all the adapters in OIM.
      * ADP_TYPE - P = Prepopulate, T = Task
@@ -112,20 +122,7 @@ public class ProcessTaskUtility
      */
     public static String exportProcessObject(tcExportOperationsIntf exportOps, String procDefName) throws tcAPIException
     {
-         String type = "Process";
-         String description = null;
-         Collection processObject = exportOps.findObjects(type, procDefName);
-         int numObjects = processObject.size();
-         
-         //enforce one resource object to be exported at a time
-         if(numObjects == 1)
-         {
-             String resourceObjectXML = exportOps.getExportXML(processObject, description);
-             return resourceObjectXML;
-         }
-         
-         System.out.println("Only one object can be exported at a time.");
-         return null;
+        return HelperUtility.exportObject(exportOps, "Process", procDefName);
     }
       
     /*
@@ -140,9 +137,58 @@ public class ProcessTaskUtility
      */
     public static void importProcessObject(tcImportOperationsIntf importOps, String newProcessObjectXML, String fileName) throws SQLException, NamingException, DDMException, tcAPIException, TransformationException, tcBulkException
     {     
-        importOps.acquireLock(true);
-        Collection<RootObject> justImported = importOps.addXMLFile(fileName, newProcessObjectXML);
-        importOps.performImport(justImported);
+        HelperUtility.importObject(importOps, newProcessObjectXML, fileName);
+    }
+    
+    /*
+     * Revert an import by importing the process xml saved in a snapshot.
+     * The process definition is exported again; process tasks that are in the export but 
+     * not in the snapshot are removed first, then the snapshot is imported. A last export 
+     * verifies the added process tasks are gone.
+     * Note: The import utility merges with the existing data; if a process task cannot be 
+     * removed through an import, the rollback fails and the remaining process tasks are printed.
+     * @param   exportOps       tcExportOperationsIntf service object
+     * @param   importOps       tcImportOperationsIntf service object
+     * @param   snapshotStore   store of the xml before import
+     * @param   snapshotId      id or beginning of the id of the snapshot
+     * @return  boolean value to indicate if the process definition was rolled back to the snapshot
+     */
+    public static Boolean rollbackProcessObject(tcExportOperationsIntf exportOps, tcImportOperationsIntf importOps, MetadataSnapshotStore snapshotStore, String snapshotId) throws IOException, SQLException, NamingException, DDMException, tcAPIException, TransformationException, tcBulkException, XMLStreamException
+    {
+        MetadataSnapshot snapshot = snapshotStore.getSnapshot(snapshotId);
+        
+        if(snapshot == null || !PROCESS_EXPORT_TYPE.equals(snapshot.getObjectType()))
+        {
+            System.out.println("[Error]: Snapshot " + snapshotId + " of a process definition does not exist.");
+            return false;
+        }
+        
+        String snapshotXML = snapshotStore.load(snapshot.getSnapshotId());
+        String processObjectXML = exportProcessObject(exportOps, snapshot.getObjectName()); //Current process metadata
+        HashSet<String> addedProcessTaskNames = HelperUtility.getElementNames(processObjectXML, ATOMIC_PROCESS_PATH + "/" + PROCESS_TASK_TAG);
+        addedProcessTaskNames.removeAll(HelperUtility.getElementNames(snapshotXML, ATOMIC_PROCESS_PATH + "/" + PROCESS_TASK_TAG));
+        
+        //Remove the process tasks added after the snapshot was taken
+        if(!addedProcessTaskNames.isEmpty())
+        {
+            System.out.println("[Info]: Removing process tasks added after the snapshot: " + addedProcessTaskNames);
+            importProcessObject(importOps, removeProcessTasks(processObjectXML, addedProcessTaskNames), "CustomProcessTaskUtilRollbackRemove");
+        }
+        
+        importProcessObject(importOps, snapshotXML, "CustomProcessTaskUtilRollback");
+        
+        //Verify against a fresh export
+        HashSet<String> remainingProcessTaskNames = HelperUtility.getElementNames(exportProcessObject(exportOps, snapshot.getObjectName()), ATOMIC_PROCESS_PATH + "/" + PROCESS_TASK_TAG);
+        remainingProcessTaskNames.retainAll(addedProcessTaskNames);
+        
+        if(!remainingProcessTaskNames.isEmpty())
+        {
+            System.out.println("[Error]: Process tasks " + remainingProcessTaskNames + " remain after rolling back to snapshot " + snapshot);
+            return false;
+        }
+        
+        System.out.println("[Info]: Rolled back to snapshot " + snapshot);
+        return true;
     }
     
     /*
@@ -155,6 +201,29 @@ public class ProcessTaskUtility
      * @param   
      */
     public static void createUpdateProcessTask(Document document, ProcessTaskInfo newProcTaskToAdd) throws XPathExpressionException
+    {
+        //Locate proper level to add the new process task into the xml
+        XPath xpath = XPathFactory.newInstance().newXPath();
+        Node atomicProcessNode = (Node) xpath.evaluate(ATOMIC_PROCESS_PATH, document, XPathConstants.NODE);
+        
+        if(atomicProcessNode == null)
+        {
+            System.out.println("[Error]: Process task " + newProcTaskToAdd.getProcessTaskName() + " cannot be added. No AtomicProcess tag in the process xml.");
+            return;
+        }
+        
+        //Insert the process task within the atomic process tag
+        atomicProcessNode.appendChild(createUpdateProcessTaskElement(document, newProcTaskToAdd));
+    }
+    
+    /*
+     * Creates the ProcessTask tag of an update process task.
+     * See createUpdateProcessTask(document, newProcTaskToAdd).
+     * @param   document            document used to create the tag
+     * @param   newProcTaskToAdd    process task 
+     * @return  ProcessTask tag
+     */
+    public static Element createUpdateProcessTaskElement(Document document, ProcessTaskInfo newProcTaskToAdd)
     {
         String adapterName = newProcTaskToAdd.getAdapterName(); //Provided by user input (ADP_Name) case insensitive
         String processName = newProcTaskToAdd.getProcessDefName(); //Provided by user case insensitive
@@ -178,13 +247,8 @@ public class ProcessTaskUtility
         String tosId = newProcTaskToAdd.getTosId(); //TOS_KEY (PKG) with TOS prefix
         String mavId = "MAV";
         
-        //Locate proper level to add the new process task into the xml
-        XPathFactory xPathFactory = XPathFactory.newInstance();
-        XPath xpath = xPathFactory.newXPath();
-        NodeList nodes =  (NodeList) xpath.evaluate("xl-ddm-data/Process/AtomicProcess", document, XPathConstants.NODESET);
-        
         //Parent Container of process task
-        Element newProcessTask = document.createElement("ProcessTask");      
+        Element newProcessTask = document.createElement(PROCESS_TASK_TAG);      
         newProcessTask.setAttribute("repo-type", "RDBMS"); 
         newProcessTask.setAttribute("name", processTaskName); 
         
@@ -534,11 +598,81 @@ public class ProcessTaskUtility
         taskAssignmentRule.appendChild(ugpKey);
         
         newProcessTask.appendChild(taskAssignmentRule);
-   
-        //Get the  node tag and insert reconField within the resource tag
-        Node processNode = nodes.item(0); 
-        processNode.appendChild(newProcessTask); 
-        //document.appendChild(newProcessTask);
+        return newProcessTask;
+    }
+    
+    /*
+     * Adds update process tasks to the process xml without parsing the xml into a Document.
+     * The xml is copied event by event and the ProcessTask tags are appended to the AtomicProcess tag.
+     * Same result as createUpdateProcessTask(document, newProcTaskToAdd) for each process task.
+     * @param   processObjectXML    xml of a process definition
+     * @param   newProcTasksToAdd   process tasks to add
+     * @return  xml of the process definition with the process tasks
+     */
+    public static String createUpdateProcessTasks(String processObjectXML, ArrayList<ProcessTaskInfo> newProcTasksToAdd) throws ParserConfigurationException, XMLStreamException
+    {
+        return createUpdateProcessTasksTransformer(newProcTasksToAdd).transform(processObjectXML);
+    }
+    
+    /*
+     * Determine the process tasks that createUpdateProcessTasks(processObjectXML, newProcTasksToAdd)
+     * would add or update without writing the process xml.
+     * @param   processObjectXML    xml of a process definition
+     * @param   newProcTasksToAdd   process tasks to add
+     * @return  ProcessTask tags that would be added or updated
+     */
+    public static MetadataChangePlan planCreateUpdateProcessTasks(String processObjectXML, ArrayList<ProcessTaskInfo> newProcTasksToAdd) throws ParserConfigurationException, XMLStreamException
+    {
+        return createUpdateProcessTasksTransformer(newProcTasksToAdd).plan(processObjectXML);
+    }
+    
+    /*
+     * Stage the ProcessTask tags of the process tasks to add to the process xml.
+     * @param   newProcTasksToAdd   process tasks to add
+     * @return  transformer that appends the ProcessTask tags to the AtomicProcess tag
+     */
+    private static MetadataXMLStreamTransformer createUpdateProcessTasksTransformer(ArrayList<ProcessTaskInfo> newProcTasksToAdd) throws ParserConfigurationException
+    {
+        Document document = HelperUtility.createEmptyDocument(); //only holds the new tags
+        MetadataXMLStreamTransformer transformer = new MetadataXMLStreamTransformer();
+        
+        for(ProcessTaskInfo newProcTaskToAdd: newProcTasksToAdd)
+        {
+            transformer.appendChild(ATOMIC_PROCESS_PATH, createUpdateProcessTaskElement(document, newProcTaskToAdd));
+        }
+        
+        return transformer;
+    }
+    
+    /*
+     * Removes process tasks from the process xml without parsing the xml into a Document.
+     * Process task name is case sensitive.
+     * Note: The import utility merges with the existing data; a process task removed
+     * from the xml may remain in OIM after the xml is imported.
+     * @param   processObjectXML    xml of a process definition
+     * @param   processTaskNames    names of the process tasks to remove
+     * @return  xml of the process definition without the process tasks
+     */
+    public static String removeProcessTasks(String processObjectXML, Collection<String> processTaskNames) throws XMLStreamException
+    {
+        MetadataXMLStreamTransformer transformer = new MetadataXMLStreamTransformer();
+        
+        for(String processTaskName: processTaskNames)
+        {
+            transformer.removeElement(ATOMIC_PROCESS_PATH + "/" + PROCESS_TASK_TAG, processTaskName);
+        }
+        
+        String newProcessObjectXML = transformer.transform(processObjectXML);
+        
+        for(String processTaskName: processTaskNames)
+        {
+            if(!transformer.wasRemoved(ATOMIC_PROCESS_PATH + "/" + PROCESS_TASK_TAG, processTaskName))
+            {
+                System.out.println("[Warning]: Process task '" + processTaskName + "' is not in the process xml.");
+            }
+        }
+        
+        return newProcessObjectXML;
     }
       
     /*
@@ -583,7 +717,33 @@ public class ProcessTaskUtility
      * @param   delimiter           Use to separate values in file
      */
     public static Boolean createUpdateProcessTaskDSFF(tcDataProvider dbProvider, tcWorkflowDefinitionOperationsIntf wfDefOps,tcExportOperationsIntf exportOps, tcImportOperationsIntf importOps, String fileName, String procDefName, String adapterName, String delimiter) throws FileNotFoundException, tcDataSetException, tcDataAccessException, ProcessDefintionNotFoundException, NoResourceObjForProcessDefException, AdapterNameNotFoundException, tcAPIException, tcColumnNotFoundException, IOException, IncorrectAdapterVariableNameException, EventHandlerNotFoundException, ParserConfigurationException, SAXException, IncorrectAdapterException, XPathExpressionException, TransformerConfigurationException, TransformerException, SQLException, NamingException, DDMException, TransformationException, tcBulkException, MissingHeaderException
+    {
+        return createUpdateProcessTaskDSFF(dbProvider, wfDefOps, exportOps, importOps, fileName, procDefName, adapterName, delimiter, new MetadataImportOptions());
+    }
+    
+    /*
+     * Create update process tasks defined in a flat file for the given process definition. Same behavior as
+     * createUpdateProcessTaskDSFF(dbProvider, wfDefOps, exportOps, importOps, fileName, procDefName, adapterName, delimiter) with options.
+     * If planOnly is set, the process tasks that would be added or updated are printed
+     * [planCreateUpdateProcessTasks] and the process xml is neither written nor imported.
+     * The exported process xml is saved in the snapshotStore (the default store unless set) before 
+     * the process tasks are imported, so the import can be reverted with rollbackProcessObject.
+     * preloadReconFields does not apply.
+     * 
+     * @param   dbProvider          connection to the OIM Schema
+     * @param   wfDefOps            tcWorkflowDefinitionOperationsIntf
+     * @param   exportOps           tcExportOperationsIntf service object
+     * @param   importOps           tcImportOperationsIntf service object
+     * @param   fileName            file that contains the process tasks to add
+     * @param   procDefName         Resource Object to add fields to
+     * @param   adapterName         Adapter to be attached to process task
+     * @param   delimiter           Use to separate values in file
+     * @param   options             planOnly and snapshotStore; see MetadataImportOptions
+     */
+    public static Boolean createUpdateProcessTaskDSFF(tcDataProvider dbProvider, tcWorkflowDefinitionOperationsIntf wfDefOps,tcExportOperationsIntf exportOps, tcImportOperationsIntf importOps, String fileName, String procDefName, String adapterName, String delimiter, MetadataImportOptions options) throws FileNotFoundException, tcDataSetException, tcDataAccessException, ProcessDefintionNotFoundException, NoResourceObjForProcessDefException, AdapterNameNotFoundException, tcAPIException, tcColumnNotFoundException, IOException, IncorrectAdapterVariableNameException, EventHandlerNotFoundException, ParserConfigurationException, SAXException, IncorrectAdapterException, XPathExpressionException, TransformerConfigurationException, TransformerException, SQLException, NamingException, DDMException, TransformationException, tcBulkException, MissingHeaderException
     {            
+        boolean planOnly = options.getPlanOnly();
+        MetadataSnapshotStore snapshotStore = options.getSnapshotStore();
         FileInputStream fstream = null;
         DataInputStream in = null;
         BufferedReader br = null;
@@ -651,35 +811,42 @@ public class ProcessTaskUtility
             }
             
             //Read first line: row header containing the adapter variable names
-            String fileAdapterNames = br.readLine();
+            //Validate adapter names are correct - case sensitive
+            String[] adapterVarNames = (String[]) adapterVars.keySet().toArray(new String[adapterVars.size()]);
+            DelimitedRecordSchema processTaskSchema = new DelimitedRecordSchema(delimiter, adapterVarNames, new String[0], true);
             
-            if(fileAdapterNames == null)
+            try
+            {
+                processTaskSchema.bindHeader(br.readLine());
+            }
+            
+            catch (MissingHeaderException ex)
             {
                 throw new MissingHeaderException(String.format("Here are the valid adapter variable names (key in map) for file header: %s ", adapterVars));
             }
             
-            StringTokenizer adapterVarNameToken = new StringTokenizer(fileAdapterNames, delimiter);
+            catch (BadFileFormatException ex)
+            {
+                throw new IncorrectAdapterVariableNameException(String.format("Here are the valid adapter names (key in map): %s ", adapterVars));
+            }
+            
+            catch (MissingRequiredFieldException ex)
+            {
+                throw new IncorrectAdapterVariableNameException(String.format("Here are the valid adapter names (key in map): %s ", adapterVars));
+            }
+            
             lineNumber++;
-            String[] requiredAdapterVar = new String[3];
-            int counter = 0;
+            ArrayList<String> requiredAdapterVar = processTaskSchema.getAttributeNames();
             
-            //Validate adapter names are correct - case sensitive
-            while(adapterVarNameToken.hasMoreTokens())
+            if(requiredAdapterVar.size() != 3)
             {
-                String adapterVarName = adapterVarNameToken.nextToken();
-                requiredAdapterVar[counter] = adapterVarName;
-                counter++;
-                
-                if(!adapterVars.containsKey(adapterVarName))
-                {
-                    throw new IncorrectAdapterVariableNameException(String.format("Here are the valid adapter names (key in map): %s ", adapterVars));
-                }
+                throw new IncorrectAdapterVariableNameException(String.format("Three adapter variable names are required. Here are the valid adapter names (key in map): %s ", adapterVars));
             }
             
             //Determined order in file
-            String attributeFieldAdapterVarName = requiredAdapterVar[0];
-            String itResourceAdapterVarName = requiredAdapterVar[1];
-            String objectTypeAdapterVarName = requiredAdapterVar[2];
+            String attributeFieldAdapterVarName = requiredAdapterVar.get(0);
+            String itResourceAdapterVarName = requiredAdapterVar.get(1);
+            String objectTypeAdapterVarName = requiredAdapterVar.get(2);
                   
             HashMap<String,String> procTaskDuplicationValidator = new HashMap<String,String>(); //validate if process task has already been added to staging
             ArrayList<ProcessTaskInfo> newProcessTasks = new ArrayList<ProcessTaskInfo>(); 
@@ -689,20 +856,18 @@ public class ProcessTaskUtility
             while ((strLine = br.readLine()) != null)  
             {
                 lineNumber++;
-                String[] fieldAttributeValueToken = strLine.split(delimiter);
-                int numFieldAttributeNames = 3; //Fixed sized
-                int numTokens = fieldAttributeValueToken.length;
+                DelimitedRecord processTaskRecord = processTaskSchema.parseRecord(strLine); //Fixed sized
                 
                 //Validate fields in line
-                if(numFieldAttributeNames != numTokens)
+                if(processTaskRecord == null)
                 {
                     System.out.println("[Warning] Line = " + lineNumber + " : Size of row is invalid. Field will not be added:\n" + strLine);
                     continue;
                 }
                 
-                String attributeName = fieldAttributeValueToken[0];
-                String itResourceColumnName = fieldAttributeValueToken[1];
-                String objectType = fieldAttributeValueToken[2];
+                String attributeName = processTaskRecord.getValue(0);
+                String itResourceColumnName = processTaskRecord.getValue(1);
+                String objectType = processTaskRecord.getValue(2);
                 String processTaskName = attributeName + " Updated";
                 
                 //Validate if process task exist in OIM
@@ -739,16 +904,28 @@ public class ProcessTaskUtility
             
             //Export the process xml of the given process definition
             String processObjectXML = ProcessTaskUtility.exportProcessObject(exportOps, procDefName);
-            Document document =  HelperUtility.parseStringXMLIntoDocument(processObjectXML); //convert xml to a Document
+            String newProcessObjectXML;
             
-             //Add process tasks to the process metadata
-            for(ProcessTaskInfo newProcTaskToAdd: newProcessTasks)
-            { 
-                createUpdateProcessTask(document, newProcTaskToAdd);
+            //Add process tasks to the process metadata
+            try
+            {
+                if(planOnly)
+                {
+                    System.out.println("[Info]: Plan for process definition " + procDefName + ". Nothing is imported.");
+                    System.out.println(planCreateUpdateProcessTasks(processObjectXML, newProcessTasks));
+                    return true;
+                }
+                
+                newProcessObjectXML = createUpdateProcessTasks(processObjectXML, newProcessTasks);
+            }
+            
+            catch (XMLStreamException ex)
+            {
+                throw new TransformerException(ex);
             }
              
-            String newProcessObjectXML = HelperUtility.parseDocumentIntoStringXML(document);
             System.out.println(newProcessObjectXML);
+            MetadataSnapshotStore.saveSnapshot(snapshotStore, PROCESS_EXPORT_TYPE, procDefName, processObjectXML);
             importProcessObject(importOps, newProcessObjectXML, "CustomProcessTaskUtilAdd");
             return true;
         } 
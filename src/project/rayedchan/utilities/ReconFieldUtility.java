@@ -24,24 +24,34 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.StringTokenizer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.naming.NamingException;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
+import project.rayedchan.custom.objects.DelimitedRecord;
+import project.rayedchan.custom.objects.DelimitedRecordSchema;
+import project.rayedchan.custom.objects.FingerprintStore;
+import project.rayedchan.custom.objects.ManifestReader;
+import project.rayedchan.custom.objects.MetadataChangePlan;
+import project.rayedchan.custom.objects.MetadataDocumentNavigator;
+import project.rayedchan.custom.objects.MetadataImportOptions;
+import project.rayedchan.custom.objects.MetadataSnapshot;
+import project.rayedchan.custom.objects.MetadataSnapshotStore;
+import project.rayedchan.custom.objects.MetadataXMLStreamTransformer;
+import project.rayedchan.custom.objects.ReconFieldBatchEntry;
+import project.rayedchan.custom.objects.ReconFieldIndex;
 import project.rayedchan.custom.objects.ReconciliationField;
 import project.rayedchan.exception.BadFileFormatException;
 import project.rayedchan.exception.MissingHeaderException;
@@ -78,6 +88,11 @@ import project.rayedchan.exception.ResourceObjectNameNotFoundException;
 public class ReconFieldUtility 
 {
     public static String RECON_FIELD_TAG = "ReconField"; //xml reconfield tag name
+    public static String RESOURCE_TAG = "Resource"; //xml resource tag name
+    public static String RESOURCE_PATH = "xl-ddm-data/Resource"; //path of the resource tag in the xml
+    public static String RESOURCE_OBJECT_UPDATE_TAG = "OBJ_UPDATE";
+    public static String RESOURCE_EXPORT_TYPE = "Resource"; //Deployment Manager type of a resource object
+    public static String [] RECON_FIELD_MANIFEST_COLUMNS = {ManifestReader.OBJECT_NAME_COLUMN, ManifestReader.FILE_NAME_COLUMN, ManifestReader.DELIMITER_COLUMN};
         
     //ReconField Attribute tags
     public static String ORF_UPDATE_TAG = "ORF_UPDATE";
@@ -118,11 +133,37 @@ public class ReconFieldUtility
      * @param   delimiter           Use to separate values in file
      */
     public static Boolean addReconFieldsDSFF(tcDataProvider dbProvider, tcExportOperationsIntf exportOps, tcImportOperationsIntf importOps, String fileName, String resourceObjectName, String delimiter) throws tcDataSetException, tcDataAccessException, ResourceObjectNameNotFoundException, MissingRequiredFieldException, BadFileFormatException, FileNotFoundException, IOException, tcAPIException, ParserConfigurationException, SAXException, TransformerConfigurationException, TransformerException, SQLException, NamingException, DDMException, TransformationException, tcBulkException, XPathExpressionException, MissingHeaderException
+    {
+        return addReconFieldsDSFF(dbProvider, exportOps, importOps, fileName, resourceObjectName, delimiter, new MetadataImportOptions());
+    }
+    
+    /*
+     * Add reconciliation fields specified from a flat file. Same behavior as 
+     * addReconFieldsDSFF(dbProvider, exportOps, importOps, fileName, resourceObjectName, delimiter) with options.
+     * If preloadReconFields is set, the reconciliation fields of the resource object are 
+     * loaded with one query into a ReconFieldIndex before the file is read and each record 
+     * is validated against the index instead of querying ORF per record.
+     * If planOnly is set, the reconciliation fields that would be added are printed 
+     * [planAddReconFields] and the resource object xml is neither written nor imported.
+     * The exported resource object xml is saved in the snapshotStore (the default store unless set) 
+     * before the fields are imported, so the import can be reverted with rollbackResourceObject.
+     * 
+     * @param   dbProvider          connection to the OIM Schema
+     * @param   exportOps           tcExportOperationsIntf service object
+     * @param   importOps           tcImportOperationsIntf service object
+     * @param   fileName            file that contains the reconciliation fields to add
+     * @param   resourceObjectName  Resource Object to add fields to
+     * @param   delimiter           Use to separate values in file
+     * @param   options             preloadReconFields, planOnly, and snapshotStore; see MetadataImportOptions
+     */
+    public static Boolean addReconFieldsDSFF(tcDataProvider dbProvider, tcExportOperationsIntf exportOps, tcImportOperationsIntf importOps, String fileName, String resourceObjectName, String delimiter, MetadataImportOptions options) throws tcDataSetException, tcDataAccessException, ResourceObjectNameNotFoundException, MissingRequiredFieldException, BadFileFormatException, FileNotFoundException, IOException, tcAPIException, ParserConfigurationException, SAXException, TransformerConfigurationException, TransformerException, SQLException, NamingException, DDMException, TransformationException, tcBulkException, XPathExpressionException, MissingHeaderException
     {            
+        boolean preloadReconFields = options.getPreloadReconFields();
+        boolean planOnly = options.getPlanOnly();
+        MetadataSnapshotStore snapshotStore = options.getSnapshotStore();
         FileInputStream fstream = null;
         DataInputStream in = null;
         BufferedReader br = null;
-        int lineNumber = 0;
             
         try 
         {    
@@ -130,10 +171,6 @@ public class ReconFieldUtility
             in = new DataInputStream(fstream); //Get the object of DataInputStream
             br = new BufferedReader(new InputStreamReader(in));
             
-            String strLine; //var to store a line of a file
-            ArrayList<String> reconFieldAttributeNameArray = new ArrayList<String>(); //store the name of the recon field attributes 
-            ArrayList<ReconciliationField> newReconFieldArray = new ArrayList<ReconciliationField>(); //store all recon form fields to be added
-            
             //Validate existence of resource object
             if(doesResourceObjectExist(dbProvider, resourceObjectName) == false)
             {
@@ -143,194 +180,344 @@ public class ReconFieldUtility
             
             Long resourceObjectKey = getResourceObjectKey(dbProvider, resourceObjectName);
             System.out.println("Resource Object Key: " + resourceObjectKey);
+            ReconFieldIndex reconFieldIndex = null; //null if each record is validated against ORF
+            
+            if(preloadReconFields)
+            {
+                reconFieldIndex = getReconFieldIndex(dbProvider, resourceObjectKey);
+                System.out.println("[Info]: Loaded " + reconFieldIndex.size() + " reconciliation fields of " + resourceObjectName);
+            }
                 
-            //First line contains the attributes of a reconciliation field
-            //Each record in flat file must have values for these attributes
-            String rf_AttributeNames = br.readLine();
+            HashMap<String,String> reconFieldDuplicationValidator = new HashMap<String,String>(); //validate if a recon field has already been added to staging
+            ArrayList<ReconciliationField> newReconFieldArray = readReconFieldsFromFile(br, delimiter, dbProvider, resourceObjectKey, reconFieldIndex, reconFieldDuplicationValidator); //store all recon form fields to be added
+            System.out.println(newReconFieldArray);
             
-            if(rf_AttributeNames == null)
+            //Do not perform export and import resource metadata if no recon fields are to be added
+            if(newReconFieldArray.isEmpty())
             {
-                throw new MissingHeaderException(String.format("Here are all the possible attribute names for file header: %s, %s, %s\n",
-                     RECON_FIELD_ATTR_NAME, RECON_FIELD_ATTR_TYPE ,RECON_FIELD_ATTR_ISREQUIRED));
+                System.out.println("No reconciliation fields to add.");
+                return true;
             }
             
-            StringTokenizer attributeNameToken = new StringTokenizer(rf_AttributeNames, delimiter); 
-            lineNumber++;
+            String resourceObjectXML = ReconFieldUtility.exportResourceObject(exportOps, resourceObjectName); //Export the resource metadata as a String
+            String newObjectResourceXML;
             
-            while(attributeNameToken.hasMoreTokens())
+            //Add reconciliation fields to the resource metadata
+            try
             {
-                String fieldAttributeName = attributeNameToken.nextToken(); 
-                
-                //Check if the name of the attribute is valid
-                if(fieldAttributeName.equalsIgnoreCase(RECON_FIELD_ATTR_NAME))
-                {
-                    reconFieldAttributeNameArray.add(RECON_FIELD_ATTR_NAME);
-                }
-                
-                else if(fieldAttributeName.equalsIgnoreCase(RECON_FIELD_ATTR_TYPE))
-                {
-                    reconFieldAttributeNameArray.add(RECON_FIELD_ATTR_TYPE);
-                }
-                
-                else if(fieldAttributeName.equalsIgnoreCase(RECON_FIELD_ATTR_ISREQUIRED))
+                if(planOnly)
                 {
-                    reconFieldAttributeNameArray.add(RECON_FIELD_ATTR_ISREQUIRED);
+                    System.out.println("[Info]: Plan for resource object " + resourceObjectName + ". Nothing is imported.");
+                    System.out.println(planAddReconFields(resourceObjectXML, newReconFieldArray));
+                    return true;
                 }
                 
-                else
-                {
-                    System.out.printf("Field attribute name %s is invalid.\n"
-                    + "Here are all the possible attribute names: %s, %s, %s\n",
-                    fieldAttributeName, RECON_FIELD_ATTR_NAME, RECON_FIELD_ATTR_TYPE 
-                    ,RECON_FIELD_ATTR_ISREQUIRED);
-                    throw new BadFileFormatException(String.format("Field attribute name %s is invalid.\n"
-                    + "Here are all the possible attribute names: %s, %s, %s\n",
-                    fieldAttributeName, RECON_FIELD_ATTR_NAME, RECON_FIELD_ATTR_TYPE 
-                    ,RECON_FIELD_ATTR_ISREQUIRED));
+                newObjectResourceXML = addReconFields(resourceObjectXML, newReconFieldArray);
+            }
+            
+            catch (XMLStreamException ex)
+            {
+                throw new TransformerException(ex);
+            }
+            
+            System.out.println(newObjectResourceXML);
+            MetadataSnapshotStore.saveSnapshot(snapshotStore, RESOURCE_EXPORT_TYPE, resourceObjectName, resourceObjectXML);
+            importResourceObject(importOps, newObjectResourceXML, "CustomReconFieldUtilAdd");
+            return true;
+        } 
+        
+        finally
+        {
+            if(br != null)
+            {
+                try {
+                    br.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
                 }
             }
-           
-            //Validate that the "ReconFieldName" attribute name is specified the file
-            if(!reconFieldAttributeNameArray.contains(RECON_FIELD_ATTR_NAME))
+            
+            if(in != null)
             {
-                System.out.println("'"+ RECON_FIELD_ATTR_NAME + "' is a required attribute to be specified in file");
-                throw new MissingRequiredFieldException("'"+ RECON_FIELD_ATTR_NAME + "' is a required attribute to be specified in file");
+                try {
+                    in.close(); //Close the input stream
+                } catch (IOException ex) {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
             }
             
-            //Validate that the "ReconFieldType" attribute name is specified the file
-            if(!reconFieldAttributeNameArray.contains(RECON_FIELD_ATTR_TYPE))
+            if(fstream != null)
             {
-                System.out.println("'"+ RECON_FIELD_ATTR_TYPE + "' is a required attribute to be specified in file");
-                throw new MissingRequiredFieldException("'"+ RECON_FIELD_ATTR_TYPE + "' is a required attribute to be specified in file");
+                try {
+                    fstream.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
             }
+        }      
+    }
+    
+    /*
+     * Add reconciliation fields specified from a flat file. Same behavior as 
+     * addReconFieldsDSFF(dbProvider, exportOps, importOps, fileName, resourceObjectName, delimiter)
+     * except the load is skipped if neither the file nor the reconciliation fields of the 
+     * resource object have changed since the last load recorded in the fingerprint store.
+     * 
+     * @param   dbProvider          connection to the OIM Schema
+     * @param   exportOps           tcExportOperationsIntf service object
+     * @param   importOps           tcImportOperationsIntf service object
+     * @param   fileName            file that contains the reconciliation fields to add
+     * @param   resourceObjectName  Resource Object to add fields to
+     * @param   delimiter           Use to separate values in file
+     * @param   fingerprintStore    store of the fingerprints of previous loads
+     */
+    public static Boolean addReconFieldsDSFF(tcDataProvider dbProvider, tcExportOperationsIntf exportOps, tcImportOperationsIntf importOps, String fileName, String resourceObjectName, String delimiter, FingerprintStore fingerprintStore) throws tcDataSetException, tcDataAccessException, ResourceObjectNameNotFoundException, MissingRequiredFieldException, BadFileFormatException, FileNotFoundException, IOException, tcAPIException, ParserConfigurationException, SAXException, TransformerConfigurationException, TransformerException, SQLException, NamingException, DDMException, TransformationException, tcBulkException, XPathExpressionException, MissingHeaderException
+    {
+        //Validate existence of resource object
+        if(doesResourceObjectExist(dbProvider, resourceObjectName) == false)
+        {
+            System.out.println("[Error]: Resource Object name "+ resourceObjectName + " does not exist.");
+            throw new ResourceObjectNameNotFoundException("Resource Object name "+ resourceObjectName + " does not exist.");
+        }
+        
+        Long resourceObjectKey = getResourceObjectKey(dbProvider, resourceObjectName);
+        String target = "reconfield.add:" + resourceObjectName;
+        String fileHash = HelperUtility.getFileHash(fileName);
+        
+        if(fingerprintStore.isUnchanged(target, fileHash, getReconFieldFingerprint(dbProvider, resourceObjectKey)))
+        {
+            System.out.println("[Info]: File and reconciliation fields are unchanged since the last load. Skipping " + resourceObjectName);
+            return true;
+        }
+        
+        Boolean success = addReconFieldsDSFF(dbProvider, exportOps, importOps, fileName, resourceObjectName, delimiter);
+        
+        //The fields are imported all at once; a successful import means the file has been applied
+        if(success)
+        {
+            fingerprintStore.record(target, fileHash, getReconFieldFingerprint(dbProvider, resourceObjectKey));
+        }
+        
+        return success;
+    }
+    
+    /*
+     * Add reconciliation fields to many resource objects as specified in a manifest file.
+     * The file of every record is validated first; the reconciliation fields of each resource object
+     * are loaded once into a ReconFieldIndex and shared by all the files of that resource object.
+     * Then every resource object with fields to add is exported in one getExportXML call, 
+     * the fields are added, and the resource objects are imported together with one lock and one import. 
+     * If the export or import fails, no file is applied. The xml of each resource object is saved 
+     * in the default snapshot store before the import [MetadataSnapshotStore.getDefaultStore].
+     * A consolidated report with the outcome of each file is printed at the end.
+     * 
+     * File Format - tab delimited and a newline for each record; blank lines are skipped
+     * <resource object name>    <file name>    <delimiter>
+     * 
+     * Delimiter - tab, comma, semicolon, or a literal delimiter
+     * 
+     * Example
+     * AD User          /home/oracle/ad_reconfields.txt      tab
+     * LDAP User        /home/oracle/ldap_reconfields.txt    comma
+     * 
+     * @param   dbProvider          connection to the OIM Schema
+     * @param   exportOps           tcExportOperationsIntf service object
+     * @param   importOps           tcImportOperationsIntf service object
+     * @param   manifestFileName    Path of the manifest file on local machine
+     * @return  the manifest records with the outcome of each file
+     */
+    public static ArrayList<ReconFieldBatchEntry> addReconFieldsBatchManifest(tcDataProvider dbProvider, tcExportOperationsIntf exportOps, tcImportOperationsIntf importOps, String manifestFileName) throws FileNotFoundException, IOException, BadFileFormatException
+    {
+        return addReconFieldsBatchManifest(dbProvider, exportOps, importOps, manifestFileName, MetadataSnapshotStore.getDefaultStore());
+    }
+    
+    /*
+     * Add reconciliation fields to many resource objects as specified in a manifest file. Same behavior as
+     * addReconFieldsBatchManifest(dbProvider, exportOps, importOps, manifestFileName).
+     * The exported xml of each resource object is saved as its own snapshot before the import,
+     * so the import can be reverted with rollbackResourceObject one resource object at a time.
+     * 
+     * @param   dbProvider          connection to the OIM Schema
+     * @param   exportOps           tcExportOperationsIntf service object
+     * @param   importOps           tcImportOperationsIntf service object
+     * @param   manifestFileName    Path of the manifest file on local machine
+     * @param   snapshotStore       store of the xml before import; null to not take a snapshot
+     * @return  the manifest records with the outcome of each file
+     */
+    public static ArrayList<ReconFieldBatchEntry> addReconFieldsBatchManifest(tcDataProvider dbProvider, tcExportOperationsIntf exportOps, tcImportOperationsIntf importOps, String manifestFileName, MetadataSnapshotStore snapshotStore) throws FileNotFoundException, IOException, BadFileFormatException
+    {
+        ManifestReader manifestReader = null;
+        ArrayList<ReconFieldBatchEntry> batchEntries = new ArrayList<ReconFieldBatchEntry>();
+        
+        try
+        {
+           manifestReader = new ManifestReader(manifestFileName, RECON_FIELD_MANIFEST_COLUMNS);
+           DelimitedRecord record;
+           
+           //Read the manifest records
+           while ((record = manifestReader.nextRecord()) != null)  
+           {
+                String resourceObjectName = record.getValue(ManifestReader.OBJECT_NAME_COLUMN);
+                String fileName = record.getValue(ManifestReader.FILE_NAME_COLUMN);
+                String delimiter = ManifestReader.toDelimiter(record.getValue(ManifestReader.DELIMITER_COLUMN));
                 
-            HashMap<String,String> reconFieldDuplicationValidator = new HashMap<String,String>(); //validate if a recon field has already been added to staging
-                    
-            //Read each recon field from file
-            while ((strLine = br.readLine()) != null)  
+                batchEntries.add(new ReconFieldBatchEntry(resourceObjectName, fileName, delimiter, manifestReader.getLineNumber()));
+           }
+        }
+        
+        finally
+        {
+            if(manifestReader != null)
             {
-                lineNumber++;
-                String[] fieldAttributeValueToken = strLine.split(delimiter);
-                int numFieldAttributeNames = reconFieldAttributeNameArray.size();
-                int numTokens = fieldAttributeValueToken.length;
-                ReconciliationField reconFieldObj = new ReconciliationField();
+                try {
+                    manifestReader.close();
+                } catch (IOException ex) {
+                    Logger.getLogger(ReconFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+        }
+        
+        long startTime = System.currentTimeMillis();
+        HashMap<String,ReconFieldIndex> reconFieldIndexes = new HashMap<String,ReconFieldIndex>(); //resource object name -> recon fields in OIM
+        HashMap<String,HashMap<String,String>> stagingValidators = new HashMap<String,HashMap<String,String>>(); //resource object name -> recon fields in staging
+        LinkedHashMap<String,ArrayList<ReconciliationField>> newReconFieldsByResourceObject = new LinkedHashMap<String,ArrayList<ReconciliationField>>();
+        ArrayList<ReconFieldBatchEntry> stagedEntries = new ArrayList<ReconFieldBatchEntry>();
+        
+        //Validate the file of each record
+        for(ReconFieldBatchEntry batchEntry : batchEntries)
+        {
+            String resourceObjectName = batchEntry.getResourceObjectName();
+            
+            try
+            {
+                ReconFieldIndex reconFieldIndex = reconFieldIndexes.get(resourceObjectName);
                 
-                if(numFieldAttributeNames != numTokens)
+                if(reconFieldIndex == null)
                 {
-                    System.out.println("[Warning] Line = " + lineNumber + " : Size of row is invalid. Field will not be added:\n" + strLine);
-                    continue;
+                    if(doesResourceObjectExist(dbProvider, resourceObjectName) == false)
+                    {
+                        batchEntry.setErrorMessage("Resource Object name "+ resourceObjectName + " does not exist.");
+                        continue;
+                    }
+                    
+                    reconFieldIndex = getReconFieldIndex(dbProvider, getResourceObjectKey(dbProvider, resourceObjectName));
+                    reconFieldIndexes.put(resourceObjectName, reconFieldIndex);
+                    stagingValidators.put(resourceObjectName, new HashMap<String,String>());
+                    newReconFieldsByResourceObject.put(resourceObjectName, new ArrayList<ReconciliationField>());
                 }
                 
-                boolean isFieldRecordFromFileValid = true;
+                batchEntry.setResourceObjectKey(reconFieldIndex.getResourceObjectKey());
+                ArrayList<ReconciliationField> newReconFields = readReconFieldsFromFile(batchEntry.getFileName(), batchEntry.getDelimiter(), dbProvider, reconFieldIndex.getResourceObjectKey(), reconFieldIndex, stagingValidators.get(resourceObjectName));
+                batchEntry.setNumFields(newReconFields.size());
+                newReconFieldsByResourceObject.get(resourceObjectName).addAll(newReconFields);
+                stagedEntries.add(batchEntry);
+            }
+            
+            catch (Exception ex)
+            {
+                Logger.getLogger(ReconFieldUtility.class.getName()).log(Level.SEVERE, String.format("Batch file [%s] failed.", batchEntry), ex);
+                batchEntry.setErrorMessage(ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage());
+            }
+        }
+        
+        //Only export the resource objects that have fields to add
+        Iterator<ArrayList<ReconciliationField>> newReconFieldsIterator = newReconFieldsByResourceObject.values().iterator();
+        
+        while(newReconFieldsIterator.hasNext())
+        {
+            if(newReconFieldsIterator.next().isEmpty())
+            {
+                newReconFieldsIterator.remove();
+            }
+        }
+        
+        try
+        {
+            if(newReconFieldsByResourceObject.isEmpty())
+            {
+                System.out.println("No reconciliation fields to add.");
+            }
+            
+            else
+            {
+                String resourceObjectsXML = exportResourceObjects(exportOps, newReconFieldsByResourceObject.keySet()); //Export all the resource objects as one String
+                HashMap<String,String> reconFieldUpdateTimestamps = HelperUtility.getChildElementTextByName(resourceObjectsXML, RESOURCE_TAG, RESOURCE_OBJECT_UPDATE_TAG); //OBJ_UPDATE of each resource object
+                Document document = HelperUtility.createEmptyDocument(); //only holds the new tags
+                MetadataXMLStreamTransformer transformer = new MetadataXMLStreamTransformer();
                 
-                for(int i = 0; i < numFieldAttributeNames; i++)
+                //Add reconciliation fields to the Resource tag of each resource object
+                for(Map.Entry<String,ArrayList<ReconciliationField>> entry : newReconFieldsByResourceObject.entrySet())
                 {
-                    String fieldAttributeName = reconFieldAttributeNameArray.get(i);
-                    
-                    if(fieldAttributeName.equalsIgnoreCase(RECON_FIELD_ATTR_NAME))
-                    {
-                        String fieldName = fieldAttributeValueToken[i];
-                         
-                        //Check if the recon field name exist
-                        if(doesReconFieldNameExist(dbProvider, resourceObjectKey, fieldName) == true)
-                        {
-                            System.out.println("[Warning] Line = " + lineNumber + " : Recon Field '" + fieldName + "' exists. Field will not be added:\n" + strLine);
-                            isFieldRecordFromFileValid = false;
-                            break;
-                        }
-                        
-                        //Check if reconciliation field has already been added to staging
-                        if(reconFieldDuplicationValidator.containsKey(fieldName))
-                        {
-                            System.out.println("[Warning] Line = " + lineNumber + " : Recon Field '" + fieldName + "' exists in staging. Field will not be added:\n" + strLine);
-                            isFieldRecordFromFileValid = false;
-                            break;
-                        }
-                        
-                        reconFieldDuplicationValidator.put(fieldName, null);
-                        reconFieldObj.setReconFieldName(fieldName);
-                    }
-
-                    else if(fieldAttributeName.equalsIgnoreCase(RECON_FIELD_ATTR_TYPE))
-                    {
-                        String fieldType = fieldAttributeValueToken[i];
-                        
-                        if(fieldType.equalsIgnoreCase(RECON_FIELD_TYPE_MULTI_VALUE))
-                        {
-                            System.out.println("[Warning] Line = " + lineNumber + " : Field type '" + fieldType + "' is not supported. Field will not be added:\n" + strLine);
-                            isFieldRecordFromFileValid = false;
-                            break; 
-                        }
-                        
-                         //check if the variant type is valid
-                        if(!isReconFieldTypeValid(fieldType))
-                        {
-                            System.out.println("[Warning] Line = " + lineNumber + " : Field type '" + fieldType + "' is not valid. Field will not be added:\n" + strLine);
-                            isFieldRecordFromFileValid = false;
-                            break; 
-                        }
-                        
-                        reconFieldObj.setReconFieldType(fieldType);
-                    }
-
-                    else if(fieldAttributeName.equalsIgnoreCase(RECON_FIELD_ATTR_ISREQUIRED))
+                    for(ReconciliationField newReconFieldToAdd : entry.getValue())
                     {
-                        String isRequiredStr = fieldAttributeValueToken[i];
-                        boolean isRequired;
-                        
-                        //check if the field type is valid
-                        if(isRequiredStr.equalsIgnoreCase("1"))
-                        {
-                            isRequired = true;
-                        }
-                        
-                        else if(isRequiredStr.equalsIgnoreCase("0") || isRequiredStr.equalsIgnoreCase(""))
-                        {
-                            isRequired = false;
-                        }
-                            
-                        else
-                        {
-                            System.out.println("[Warning] Line = " + lineNumber + " : Field type '" + isRequiredStr + "' is not valid. Field will not be added:\n" + strLine);
-                            isFieldRecordFromFileValid = false;
-                            break; 
-                        }
-                        
-                        reconFieldObj.setIsRequired(isRequired);
+                        transformer.appendChild(RESOURCE_PATH, entry.getKey(), createReconFieldElement(document, newReconFieldToAdd, reconFieldUpdateTimestamps.get(entry.getKey())));
                     }
                 }
                 
-                //add form field object if field record in file is valid
-                if(isFieldRecordFromFileValid)
+                String newResourceObjectsXML = transformer.transform(resourceObjectsXML);
+                
+                //One snapshot per resource object so each can be rolled back on its own
+                if(snapshotStore != null)
                 {
-                    newReconFieldArray.add(reconFieldObj); 
+                    for(Map.Entry<String,String> resourceObjectXML : splitResourceObjects(resourceObjectsXML).entrySet())
+                    {
+                        MetadataSnapshotStore.saveSnapshot(snapshotStore, RESOURCE_EXPORT_TYPE, resourceObjectXML.getKey(), resourceObjectXML.getValue());
+                    }
                 }
                 
+                importResourceObject(importOps, newResourceObjectsXML, "CustomReconFieldUtilBatchAdd");
             }
             
-            System.out.println(newReconFieldArray);
-            
-            //Do not perform export and import resource metadata if no recon fields are to be added
-            if(newReconFieldArray.isEmpty())
+            for(ReconFieldBatchEntry batchEntry : stagedEntries)
             {
-                System.out.println("No reconciliation fields to add.");
-                return true;
+                batchEntry.setSuccess(true);
             }
+        }
+        
+        catch (Exception ex)
+        {
+            Logger.getLogger(ReconFieldUtility.class.getName()).log(Level.SEVERE, String.format("Resource objects %s could not be imported.", newReconFieldsByResourceObject.keySet()), ex);
             
-            String resourceObjectXML = ReconFieldUtility.exportResourceObject(exportOps, resourceObjectName); //Export the resource metadata as a String
-            Document document = HelperUtility.parseStringXMLIntoDocument(resourceObjectXML); //convert xml to a Document
-            
-            //Add reconciliation fields to the resource metadata
-            for(ReconciliationField newReconFieldToAdd: newReconFieldArray)
-            { 
-                addReconField(document, newReconFieldToAdd);
+            for(ReconFieldBatchEntry batchEntry : stagedEntries)
+            {
+                batchEntry.setErrorMessage(ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage());
             }
-            
-            String newObjectResourceXML = HelperUtility.parseDocumentIntoStringXML(document);
-            System.out.println(newObjectResourceXML);
-            importResourceObject(importOps, newObjectResourceXML, "CustomReconFieldUtilAdd");
-            return true;
-        } 
+        }
+        
+        //Consolidated report
+        int numFailed = 0;
+        System.out.printf("%-8s%-30s%-10s%-10s%s\n", "Line", "Resource Object", "Fields", "Status", "Error");
+        System.out.printf("%-8s%-30s%-10s%-10s%s\n", "=====", "===============", "======", "======", "=====");
+        
+        for(ReconFieldBatchEntry batchEntry : batchEntries)
+        {
+            numFailed += batchEntry.getSuccess() ? 0 : 1;
+            System.out.printf("%-8s%-30s%-10s%-10s%s\n", batchEntry.getLineNumber(), batchEntry.getResourceObjectName(), batchEntry.getNumFields(), 
+                    batchEntry.getSuccess() ? "Success" : "Failed", batchEntry.getErrorMessage() == null ? "" : batchEntry.getErrorMessage());
+        }
+        
+        System.out.printf("[Info]: %s of %s files succeeded in %s ms.\n", batchEntries.size() - numFailed, batchEntries.size(), System.currentTimeMillis() - startTime);
+        return batchEntries;
+    }
+    
+    /*
+     * Read the reconciliation fields to add from a flat file. 
+     * See readReconFieldsFromFile(br, delimiter, dbProvider, resourceObjectKey, reconFieldIndex, reconFieldDuplicationValidator).
+     * @param   fileName    file that contains the reconciliation fields to add
+     */
+    private static ArrayList<ReconciliationField> readReconFieldsFromFile(String fileName, String delimiter, tcDataProvider dbProvider, Long resourceObjectKey, ReconFieldIndex reconFieldIndex, HashMap<String,String> reconFieldDuplicationValidator) throws FileNotFoundException, IOException, BadFileFormatException, MissingRequiredFieldException, MissingHeaderException, tcDataSetException, tcDataAccessException
+    {
+        FileInputStream fstream = null;
+        DataInputStream in = null;
+        BufferedReader br = null;
+        
+        try 
+        {    
+            fstream = new FileInputStream(fileName); //Open File
+            in = new DataInputStream(fstream); //Get the object of DataInputStream
+            br = new BufferedReader(new InputStreamReader(in));
+            return readReconFieldsFromFile(br, delimiter, dbProvider, resourceObjectKey, reconFieldIndex, reconFieldDuplicationValidator);
+        }
         
         finally
         {
@@ -339,7 +526,7 @@ public class ReconFieldUtility
                 try {
                     br.close();
                 } catch (IOException ex) {
-                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
+                    Logger.getLogger(ReconFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
                 }
             }
             
@@ -348,7 +535,7 @@ public class ReconFieldUtility
                 try {
                     in.close(); //Close the input stream
                 } catch (IOException ex) {
-                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
+                    Logger.getLogger(ReconFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
                 }
             }
             
@@ -357,10 +544,124 @@ public class ReconFieldUtility
                 try {
                     fstream.close();
                 } catch (IOException ex) {
-                    Logger.getLogger(ProcessFormFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
+                    Logger.getLogger(ReconFieldUtility.class.getName()).log(Level.SEVERE, null, ex);
                 }
             }
-        }      
+        }
+    }
+    
+    /*
+     * Read the reconciliation fields to add from a flat file. The first line is the header.
+     * Records that are invalid, that exist in the resource object, or that are already in staging are skipped.
+     * @param   br                              reader positioned at the start of the file
+     * @param   delimiter                       Use to separate values in file
+     * @param   dbProvider                      connection to the OIM Schema
+     * @param   resourceObjectKey               resource object to add fields to
+     * @param   reconFieldIndex                 recon fields of the resource object; null to validate each record against ORF
+     * @param   reconFieldDuplicationValidator  names of the recon fields in staging; updated with the fields read
+     * @return  recon fields to add
+     */
+    private static ArrayList<ReconciliationField> readReconFieldsFromFile(BufferedReader br, String delimiter, tcDataProvider dbProvider, Long resourceObjectKey, ReconFieldIndex reconFieldIndex, HashMap<String,String> reconFieldDuplicationValidator) throws IOException, BadFileFormatException, MissingRequiredFieldException, MissingHeaderException, tcDataSetException, tcDataAccessException
+    {
+        String strLine; //var to store a line of a file
+        int lineNumber = 0;
+        ArrayList<ReconciliationField> newReconFieldArray = new ArrayList<ReconciliationField>(); //store all recon form fields to be added
+        
+        //First line contains the attributes of a reconciliation field
+        //Each record in flat file must have values for these attributes
+        DelimitedRecordSchema reconFieldSchema = new DelimitedRecordSchema(delimiter, 
+                new String[] {RECON_FIELD_ATTR_NAME, RECON_FIELD_ATTR_TYPE, RECON_FIELD_ATTR_ISREQUIRED}, 
+                new String[] {RECON_FIELD_ATTR_NAME, RECON_FIELD_ATTR_TYPE}, false);
+        
+        try
+        {
+            reconFieldSchema.bindHeader(br.readLine());
+        }
+        
+        catch (BadFileFormatException ex)
+        {
+            System.out.println("[Error]: " + ex.getMessage());
+            throw ex;
+        }
+        
+        catch (MissingRequiredFieldException ex)
+        {
+            System.out.println("[Error]: " + ex.getMessage());
+            throw ex;
+        }
+        
+        lineNumber++;
+        
+        //Read each recon field from file
+        while ((strLine = br.readLine()) != null)  
+        {
+            lineNumber++;
+            DelimitedRecord reconFieldRecord = reconFieldSchema.parseRecord(strLine);
+            ReconciliationField reconFieldObj = new ReconciliationField();
+            
+            if(reconFieldRecord == null)
+            {
+                System.out.println("[Warning] Line = " + lineNumber + " : Size of row is invalid. Field will not be added:\n" + strLine);
+                continue;
+            }
+            
+            boolean isFieldRecordFromFileValid = false;
+            String fieldName = reconFieldRecord.getValue(RECON_FIELD_ATTR_NAME);
+            String fieldType = reconFieldRecord.getValue(RECON_FIELD_ATTR_TYPE);
+            String isRequiredStr = reconFieldRecord.getValue(RECON_FIELD_ATTR_ISREQUIRED); //null if the column is not in the header
+            boolean doesReconFieldNameExist = (reconFieldIndex != null) ? reconFieldIndex.hasReconFieldName(fieldName) : doesReconFieldNameExist(dbProvider, resourceObjectKey, fieldName);
+            
+            //Check if the recon field name exist
+            if(doesReconFieldNameExist == true)
+            {
+                System.out.println("[Warning] Line = " + lineNumber + " : Recon Field '" + fieldName + "' exists. Field will not be added:\n" + strLine);
+            }
+            
+            //Check if reconciliation field has already been added to staging
+            else if(reconFieldDuplicationValidator.containsKey(fieldName))
+            {
+                System.out.println("[Warning] Line = " + lineNumber + " : Recon Field '" + fieldName + "' exists in staging. Field will not be added:\n" + strLine);
+            }
+            
+            else if(fieldType.equalsIgnoreCase(RECON_FIELD_TYPE_MULTI_VALUE))
+            {
+                System.out.println("[Warning] Line = " + lineNumber + " : Field type '" + fieldType + "' is not supported. Field will not be added:\n" + strLine);
+            }
+            
+            //check if the variant type is valid
+            else if(!isReconFieldTypeValid(fieldType))
+            {
+                System.out.println("[Warning] Line = " + lineNumber + " : Field type '" + fieldType + "' is not valid. Field will not be added:\n" + strLine);
+            }
+            
+            else if(isRequiredStr != null && !isRequiredStr.equals("1") && !isRequiredStr.equals("0") && !isRequiredStr.isEmpty())
+            {
+                System.out.println("[Warning] Line = " + lineNumber + " : Field type '" + isRequiredStr + "' is not valid. Field will not be added:\n" + strLine);
+            }
+            
+            else
+            {
+                reconFieldDuplicationValidator.put(fieldName, null);
+                reconFieldObj.setReconFieldName(fieldName);
+                reconFieldObj.setReconFieldType(fieldType);
+                
+                if(isRequiredStr != null)
+                {
+                    reconFieldObj.setIsRequired(isRequiredStr.equals("1"));
+                }
+                
+                isFieldRecordFromFileValid = true;
+            }
+            
+            //add form field object if field record in file is valid
+            if(isFieldRecordFromFileValid)
+            {
+                newReconFieldArray.add(reconFieldObj); 
+            }
+            
+        }
+        
+        return newReconFieldArray;
     }
     
     /*
@@ -385,7 +686,30 @@ public class ReconFieldUtility
      * @param   resourceObjectName  Name of the resource object to remove recon fields from
      */
     public static Boolean removeReconFieldDSFF(tcDataProvider dbProvider, tcExportOperationsIntf exportOps, tcImportOperationsIntf importOps, String fileName, String resourceObjectName) throws tcDataSetException, tcDataAccessException, ResourceObjectNameNotFoundException, FileNotFoundException, IOException, tcAPIException, ParserConfigurationException, SAXException, TransformerConfigurationException, TransformerException, SQLException, NamingException, DDMException, TransformationException, tcBulkException, XPathExpressionException
+    {
+        return removeReconFieldDSFF(dbProvider, exportOps, importOps, fileName, resourceObjectName, new MetadataImportOptions());
+    }
+    
+    /*
+     * Remove reconciliation fields specified in a flat file. Same behavior as 
+     * removeReconFieldDSFF(dbProvider, exportOps, importOps, fileName, resourceObjectName) with options.
+     * If planOnly is set, the reconciliation fields that would be removed are printed 
+     * [planRemoveReconFields] and the resource object xml is neither written nor imported.
+     * The exported resource object xml is saved in the snapshotStore (the default store unless set) 
+     * before the fields are removed, so the import can be reverted with rollbackResourceObject.
+     * preloadReconFields does not apply; the reconciliation fields are always loaded into a ReconFieldIndex.
+     * 
+     * @param   dbProvider          connection to the OIM Schema
+     * @param   exportOps           tcExportOperationsIntf service object
+     * @param   importOps           tcImportOperationsIntf service object
+     * @param   fileName            file that contains the reconciliation fields to remove
+     * @param   resourceObjectName  Name of the resource object to remove recon fields from
+     * @param   options             planOnly and snapshotStore; see MetadataImportOptions
+     */
+    public static Boolean removeReconFieldDSFF(tcDataProvider dbProvider, tcExportOperationsIntf exportOps, tcImportOperationsIntf importOps, String fileName, String resourceObjectName, MetadataImportOptions options) throws tcDataSetException, tcDataAccessException, ResourceObjectNameNotFoundException, FileNotFoundException, IOException, tcAPIException, ParserConfigurationException, SAXException, TransformerConfigurationException, TransformerException, SQLException, NamingException, DDMException, TransformationException, tcBulkException, XPathExpressionException
     {     
+        boolean planOnly = options.getPlanOnly();
+        MetadataSnapshotStore snapshotStore = options.getSnapshotStore();
         FileInputStream fstream = null;
         DataInputStream in = null;
         BufferedReader br = null;
@@ -407,6 +731,7 @@ public class ReconFieldUtility
             
             Long resourceObjectKey = getResourceObjectKey(dbProvider, resourceObjectName);
             System.out.println("Resource Object Key = " + resourceObjectKey);
+            ReconFieldIndex reconFieldIndex = getReconFieldIndex(dbProvider, resourceObjectKey); //every recon field of the resource object in one query
             HashMap<String,String> reconFieldToRemove = new HashMap<String,String>(); //store the recon field names to be removed
                     
             //Read each recon field name from file
@@ -416,21 +741,21 @@ public class ReconFieldUtility
                 String fieldName = strLine;
       
                 //Check if the recon field name exist
-                if(doesReconFieldNameExist(dbProvider, resourceObjectKey, fieldName) == false)
+                if(reconFieldIndex.hasReconFieldName(fieldName) == false)
                 {      
                     System.out.println("[Warning] Line = " + lineNumber + " : Recon Field '" + fieldName + "' does not exists.");
                     continue;
                 }
                 
                 //Check if the recon field is a multivalued attribute
-                if(isReconFieldMulitvalued(dbProvider, resourceObjectKey, fieldName) == true)
+                if(reconFieldIndex.isMultiValued(fieldName) == true)
                 {
                     System.out.println("[Warning] Line = " + lineNumber + " : Recon Field'" + fieldName + "' is a mulitvalued attribute.");
                     continue;
                 }
                 
                 //Check if the recon field is a child attribute
-                if(isReconFieldChildAttribute(dbProvider, resourceObjectKey , fieldName) == true)
+                if(reconFieldIndex.isChildAttribute(fieldName) == true)
                 {
                     System.out.println("[Warning] Line = " + lineNumber + " : Recon Field'" + fieldName + "' is a child attribute.");
                     continue;   
@@ -443,7 +768,7 @@ public class ReconFieldUtility
                     continue;
                 }
                 
-                String reconFieldKey = MappingReconFieldToFormFieldUtility.getReconFieldKey(dbProvider, resourceObjectKey, fieldName);
+                String reconFieldKey = reconFieldIndex.getReconFieldKey(fieldName);
              
                 //Validate if a recon field has a mapping
                 if(MappingReconFieldToFormFieldUtility.isReconFieldMapped(dbProvider, reconFieldKey) == true)
@@ -465,17 +790,28 @@ public class ReconFieldUtility
             }
             
             String resourceObjectXML = ReconFieldUtility.exportResourceObject(exportOps, resourceObjectName); //Export the resource metadata as a String
-            Document document = HelperUtility.parseStringXMLIntoDocument(resourceObjectXML); //convert xml to a Document
+            String newObjectResourceXML;
             
             //Remove reconciliation fields to the resource metadata
-            for(Map.Entry<String,String> entry: reconFieldToRemove.entrySet())
+            try
+            {
+                if(planOnly)
+                {
+                    System.out.println("[Info]: Plan for resource object " + resourceObjectName + ". Nothing is imported.");
+                    System.out.println(planRemoveReconFields(resourceObjectXML, reconFieldToRemove.keySet()));
+                    return true;
+                }
+                
+                newObjectResourceXML = removeReconFields(resourceObjectXML, reconFieldToRemove.keySet());
+            }
+            
+            catch (XMLStreamException ex)
             {
-                String reconFieldName = entry.getKey();  
-                removeReconField(document,reconFieldName);
+                throw new TransformerException(ex);
             }
             
-            String newObjectResourceXML = HelperUtility.parseDocumentIntoStringXML(document);
             System.out.println(newObjectResourceXML);
+            MetadataSnapshotStore.saveSnapshot(snapshotStore, RESOURCE_EXPORT_TYPE, resourceObjectName, resourceObjectXML);
             importResourceObject(importOps, newObjectResourceXML, "CustomReconFieldUtilRemove");
             return true;
         } 
@@ -526,15 +862,41 @@ public class ReconFieldUtility
      */
     public static void addReconField(Document document, ReconciliationField newReconFieldToAdd) throws XPathExpressionException
     {          
+        addReconField(new MetadataDocumentNavigator(document), newReconFieldToAdd);
+    }
+    
+    /*
+     * Adds a reconciliation field to the resource xml. Same as addReconField(document, newReconFieldToAdd)
+     * except the Resource tag and OBJ_UPDATE are resolved once by the navigator, so the 
+     * navigator should be reused when adding many reconciliation fields to the same document.
+     * @param navigator             navigator of an object resource xml
+     * @param newReconFieldToAdd    reconciliation field to add to document
+     */
+    public static void addReconField(MetadataDocumentNavigator navigator, ReconciliationField newReconFieldToAdd) throws XPathExpressionException
+    {          
+        String reconFieldUpdateTimestamp = navigator.getFirstElementText(RESOURCE_OBJECT_UPDATE_TAG);
+        Element newReconField = createReconFieldElement(navigator.getDocument(), newReconFieldToAdd, reconFieldUpdateTimestamp);
+        
+        //Insert reconField within the resource tag
+        if(!navigator.appendChild(RESOURCE_PATH, newReconField))
+        {
+            System.out.println("[Error]: Recon Field '" + newReconFieldToAdd.getReconFieldName() + "' cannot be added. No Resource tag in the resource object xml.");
+        }
+    }
+    
+    /*
+     * Creates the ReconField tag of a reconciliation field. 
+     * See addReconField(document, newReconFieldToAdd) for a sample of the tag.
+     * @param document                  document used to create the tag
+     * @param newReconFieldToAdd        reconciliation field 
+     * @param reconFieldUpdateTimestamp value of ORF_UPDATE (OBJ_UPDATE of the resource object)
+     * @return ReconField tag
+     */
+    public static Element createReconFieldElement(Document document, ReconciliationField newReconFieldToAdd, String reconFieldUpdateTimestamp)
+    {
         String reconFieldName = newReconFieldToAdd.getReconFieldName();
         String reconFieldType = newReconFieldToAdd.getReconFieldType();
         Boolean isRequired = newReconFieldToAdd.getIsRequired();
-        String reconFieldUpdateTimestamp = getResourceObjectUpdateTimestamp(document);
-                
-        //Locate proper level to add the new recon field into the xml
-        XPathFactory xPathFactory = XPathFactory.newInstance();
-        XPath xpath = xPathFactory.newXPath();
-        NodeList nodes =  (NodeList) xpath.evaluate("xl-ddm-data/Resource", document, XPathConstants.NODESET);
             
         //ReconField tag and its properties
         Element newReconField = document.createElement(RECON_FIELD_TAG);
@@ -554,10 +916,100 @@ public class ReconFieldUtility
         newReconField.appendChild(rfAttrUpdate);
         newReconField.appendChild(rfAttrFieldType);
         newReconField.appendChild(rfAttrIsRequired);
+        return newReconField;
+    }
+    
+    /*
+     * Adds reconciliation fields to the resource xml without parsing the xml into a Document. 
+     * The xml is copied event by event and the ReconField tags are appended to the Resource tag.
+     * Same result as addReconField(document, newReconFieldToAdd) for each reconciliation field.
+     * @param resourceObjectXML     xml of a resource object
+     * @param newReconFieldsToAdd   reconciliation fields to add
+     * @return xml of the resource object with the reconciliation fields
+     */
+    public static String addReconFields(String resourceObjectXML, ArrayList<ReconciliationField> newReconFieldsToAdd) throws ParserConfigurationException, XMLStreamException
+    {
+        return createAddReconFieldsTransformer(resourceObjectXML, newReconFieldsToAdd).transform(resourceObjectXML);
+    }
+    
+    /*
+     * Determine the reconciliation fields that addReconFields(resourceObjectXML, newReconFieldsToAdd)
+     * would add without writing the resource xml.
+     * @param resourceObjectXML     xml of a resource object
+     * @param newReconFieldsToAdd   reconciliation fields to add
+     * @return ReconField tags that would be added or updated
+     */
+    public static MetadataChangePlan planAddReconFields(String resourceObjectXML, ArrayList<ReconciliationField> newReconFieldsToAdd) throws ParserConfigurationException, XMLStreamException
+    {
+        return createAddReconFieldsTransformer(resourceObjectXML, newReconFieldsToAdd).plan(resourceObjectXML);
+    }
+    
+    /*
+     * Stage the ReconField tags of the reconciliation fields to add to the resource xml.
+     * @param resourceObjectXML     xml of a resource object
+     * @param newReconFieldsToAdd   reconciliation fields to add
+     * @return transformer that appends the ReconField tags to the Resource tag
+     */
+    private static MetadataXMLStreamTransformer createAddReconFieldsTransformer(String resourceObjectXML, ArrayList<ReconciliationField> newReconFieldsToAdd) throws ParserConfigurationException, XMLStreamException
+    {
+        String reconFieldUpdateTimestamp = HelperUtility.getFirstElementText(resourceObjectXML, RESOURCE_OBJECT_UPDATE_TAG);
+        Document document = HelperUtility.createEmptyDocument(); //only holds the new tags
+        MetadataXMLStreamTransformer transformer = new MetadataXMLStreamTransformer();
+        
+        for(ReconciliationField newReconFieldToAdd: newReconFieldsToAdd)
+        {
+            transformer.appendChild(RESOURCE_PATH, createReconFieldElement(document, newReconFieldToAdd, reconFieldUpdateTimestamp));
+        }
+        
+        return transformer;
+    }
+    
+    /*
+     * Removes reconciliation fields from the resource xml without parsing the xml into a Document.
+     * Same result as removeReconField(document, reconFieldName) for each reconciliation field.
+     * @param resourceObjectXML     xml of a resource object
+     * @param reconFieldNames       reconciliation fields to remove
+     * @return xml of the resource object without the reconciliation fields
+     */
+    public static String removeReconFields(String resourceObjectXML, Collection<String> reconFieldNames) throws XMLStreamException
+    {
+        MetadataXMLStreamTransformer transformer = new MetadataXMLStreamTransformer();
+        
+        for(String reconFieldName: reconFieldNames)
+        {
+            transformer.removeElement(RESOURCE_PATH + "/" + RECON_FIELD_TAG, reconFieldName);
+        }
+        
+        String newResourceObjectXML = transformer.transform(resourceObjectXML);
+        
+        for(String reconFieldName: reconFieldNames)
+        {
+            if(!transformer.wasRemoved(RESOURCE_PATH + "/" + RECON_FIELD_TAG, reconFieldName))
+            {
+                System.out.println("[Warning]: Recon Field '" + reconFieldName + "' is not in the resource object xml.");
+            }
+        }
+        
+        return newResourceObjectXML;
+    }
+    
+    /*
+     * Determine the reconciliation fields that removeReconFields(resourceObjectXML, reconFieldNames)
+     * would remove without writing the resource xml.
+     * @param resourceObjectXML     xml of a resource object
+     * @param reconFieldNames       reconciliation fields to remove
+     * @return ReconField tags that would be removed
+     */
+    public static MetadataChangePlan planRemoveReconFields(String resourceObjectXML, Collection<String> reconFieldNames) throws XMLStreamException
+    {
+        MetadataXMLStreamTransformer transformer = new MetadataXMLStreamTransformer();
+        
+        for(String reconFieldName: reconFieldNames)
+        {
+            transformer.removeElement(RESOURCE_PATH + "/" + RECON_FIELD_TAG, reconFieldName);
+        }
         
-        //Get the resource node tag and insert reconField within the resource tag
-        Node resourceNode = nodes.item(0); 
-        resourceNode.appendChild(newReconField); 
+        return transformer.plan(resourceObjectXML);
     }
     
     /*
@@ -569,12 +1021,22 @@ public class ReconFieldUtility
      */
     public static void removeReconField(Document document, String reconFieldName) throws XPathExpressionException
     {  
-        XPathFactory xpf = XPathFactory.newInstance();
-        XPath xpath = xpf.newXPath();
-        XPathExpression expression = xpath.compile("xl-ddm-data/Resource/ReconField[@name=\""+ reconFieldName +"\"]");
-            
-        Node reconFieldNode = (Node) expression.evaluate(document, XPathConstants.NODE); //pinpoint recon field to remove
-        reconFieldNode.getParentNode().removeChild(reconFieldNode); //Get the parent node then remove target child node        
+        removeReconField(new MetadataDocumentNavigator(document), reconFieldName);
+    }
+    
+    /*
+     * Removes a reconciliation field from the resource xml. Same as removeReconField(document, reconFieldName)
+     * except the ReconField tags are indexed once by the navigator, so the navigator should be 
+     * reused when removing many reconciliation fields from the same document.
+     * @param   navigator          navigator of an object resource xml
+     * @param   reconFieldName     reconciliation field to remove from document
+     */
+    public static void removeReconField(MetadataDocumentNavigator navigator, String reconFieldName) throws XPathExpressionException
+    {  
+        if(!navigator.removeNamedElement(RESOURCE_PATH + "/" + RECON_FIELD_TAG, reconFieldName))
+        {
+            System.out.println("[Warning]: Recon Field '" + reconFieldName + "' is not in the resource object xml.");
+        }
     }
     
     /*
@@ -584,21 +1046,65 @@ public class ReconFieldUtility
      * @return  the XML of the resource as a String
      */
     public static String exportResourceObject(tcExportOperationsIntf exportOps, String resourceObjectName) throws tcAPIException
+    {
+        return HelperUtility.exportObject(exportOps, "Resource", resourceObjectName);
+    }
+    
+    /*
+     * Export many resource objects as one XML with one call to getExportXML.
+     * @param   exportOps               tcExportOperationsIntf service object
+     * @param   resourceObjectNames     names of the resource objects to export
+     * @return  the XML of the resources as a String
+     */
+    public static String exportResourceObjects(tcExportOperationsIntf exportOps, Collection<String> resourceObjectNames) throws tcAPIException, ResourceObjectNameNotFoundException
     {
          String type = "Resource";
          String description = null;
-         Collection resourceObject = exportOps.findObjects(type, resourceObjectName);
-         int numObjects = resourceObject.size();
+         ArrayList<RootObject> resourceObjects = new ArrayList<RootObject>();
          
-         //enforce one resource object to be exported at a time
-         if(numObjects == 1)
+         for(String resourceObjectName : resourceObjectNames)
          {
-             String resourceObjectXML = exportOps.getExportXML(resourceObject, description);
-             return resourceObjectXML;
+             Collection<RootObject> resourceObject = exportOps.findObjects(type, resourceObjectName);
+             
+             //each name must match exactly one resource object
+             if(resourceObject.size() != 1)
+             {
+                 throw new ResourceObjectNameNotFoundException(String.format("Resource Object name %s matches %s resource objects.", resourceObjectName, resourceObject.size()));
+             }
+             
+             resourceObjects.addAll(resourceObject);
          }
          
-         System.out.println("Only one object can be exported at a time.");
-         return null;
+         return exportOps.getExportXML(resourceObjects, description);
+    }
+    
+    /*
+     * Split the XML of many resource objects [E.g. exportResourceObjects] into the XML of each 
+     * resource object. The XML of a resource object is the whole XML without the other Resource tags.
+     * @param   resourceObjectsXML  XML of many resource objects
+     * @return  name of each resource object -> XML of the resource object
+     */
+    public static HashMap<String,String> splitResourceObjects(String resourceObjectsXML) throws XMLStreamException
+    {
+        HashMap<String,String> resourceObjectXMLByName = new HashMap<String,String>();
+        HashSet<String> resourceObjectNames = HelperUtility.getElementNames(resourceObjectsXML, RESOURCE_PATH);
+        
+        for(String resourceObjectName : resourceObjectNames)
+        {
+            MetadataXMLStreamTransformer transformer = new MetadataXMLStreamTransformer();
+            
+            for(String otherResourceObjectName : resourceObjectNames)
+            {
+                if(!otherResourceObjectName.equals(resourceObjectName))
+                {
+                    transformer.removeElement(RESOURCE_PATH, otherResourceObjectName);
+                }
+            }
+            
+            resourceObjectXMLByName.put(resourceObjectName, transformer.transform(resourceObjectsXML));
+        }
+        
+        return resourceObjectXMLByName;
     }
     
     /*
@@ -610,9 +1116,57 @@ public class ReconFieldUtility
      */
     public static void importResourceObject(tcImportOperationsIntf importOps, String newObjectResourceXML, String fileName) throws SQLException, NamingException, DDMException, tcAPIException, TransformationException, tcBulkException
     {     
-        importOps.acquireLock(true);
-        Collection<RootObject> justImported = importOps.addXMLFile(fileName, newObjectResourceXML);
-        importOps.performImport(justImported);
+        HelperUtility.importObject(importOps, newObjectResourceXML, fileName);
+    }
+    
+    /*
+     * Revert an import by importing the resource object xml saved in a snapshot.
+     * The resource object is exported again; reconciliation fields that are in the export but 
+     * not in the snapshot are removed first, then the snapshot is imported, which adds back 
+     * reconciliation fields removed after the snapshot was taken. A last export verifies 
+     * the added reconciliation fields are gone.
+     * @param   exportOps       tcExportOperationsIntf service object
+     * @param   importOps       tcImportOperationsIntf service object
+     * @param   snapshotStore   store of the xml before import
+     * @param   snapshotId      id or beginning of the id of the snapshot
+     * @return  boolean value to indicate if the resource object was rolled back to the snapshot
+     */
+    public static Boolean rollbackResourceObject(tcExportOperationsIntf exportOps, tcImportOperationsIntf importOps, MetadataSnapshotStore snapshotStore, String snapshotId) throws IOException, SQLException, NamingException, DDMException, tcAPIException, TransformationException, tcBulkException, XMLStreamException
+    {
+        MetadataSnapshot snapshot = snapshotStore.getSnapshot(snapshotId);
+        
+        if(snapshot == null || !RESOURCE_EXPORT_TYPE.equals(snapshot.getObjectType()))
+        {
+            System.out.println("[Error]: Snapshot " + snapshotId + " of a resource object does not exist.");
+            return false;
+        }
+        
+        String snapshotXML = snapshotStore.load(snapshot.getSnapshotId());
+        String resourceObjectXML = exportResourceObject(exportOps, snapshot.getObjectName()); //Current resource metadata
+        HashSet<String> addedReconFieldNames = HelperUtility.getElementNames(resourceObjectXML, RESOURCE_PATH + "/" + RECON_FIELD_TAG);
+        addedReconFieldNames.removeAll(HelperUtility.getElementNames(snapshotXML, RESOURCE_PATH + "/" + RECON_FIELD_TAG));
+        
+        //Remove the reconciliation fields added after the snapshot was taken
+        if(!addedReconFieldNames.isEmpty())
+        {
+            System.out.println("[Info]: Removing reconciliation fields added after the snapshot: " + addedReconFieldNames);
+            importResourceObject(importOps, removeReconFields(resourceObjectXML, addedReconFieldNames), "CustomReconFieldUtilRollbackRemove");
+        }
+        
+        importResourceObject(importOps, snapshotXML, "CustomReconFieldUtilRollback");
+        
+        //Verify against a fresh export
+        HashSet<String> remainingReconFieldNames = HelperUtility.getElementNames(exportResourceObject(exportOps, snapshot.getObjectName()), RESOURCE_PATH + "/" + RECON_FIELD_TAG);
+        remainingReconFieldNames.retainAll(addedReconFieldNames);
+        
+        if(!remainingReconFieldNames.isEmpty())
+        {
+            System.out.println("[Error]: Reconciliation fields " + remainingReconFieldNames + " remain after rolling back to snapshot " + snapshot);
+            return false;
+        }
+        
+        System.out.println("[Info]: Rolled back to snapshot " + snapshot);
+        return true;
     }
     
     /*
@@ -622,24 +1176,8 @@ public class ReconFieldUtility
      */
     public static String getResourceObjectUpdateTimestamp(Document document) throws XPathExpressionException
     {         
-        XPathFactory xPathFactory = XPathFactory.newInstance();
-        XPath xpath = xPathFactory.newXPath();
-        XPathExpression expr = xpath.compile("//OBJ_UPDATE"); //Get all tags with "ReconField" tag name regardless of depth
-        NodeList nodes = (NodeList) expr.evaluate(document, XPathConstants.NODESET);
-        int numReconFieldNodes = nodes.getLength();
- 
-        for(int i = 0; i < numReconFieldNodes; i++)
-        {
-            Node node = nodes.item(i);
-            String textContent = node.getTextContent();
-            
-            if(textContent != null || !textContent.isEmpty())
-            {
-                return textContent;
-            }
-        }
-        
-        return null;
+        NodeList nodes = document.getElementsByTagName(RESOURCE_OBJECT_UPDATE_TAG); //Get all tags with "OBJ_UPDATE" tag name regardless of depth
+        return nodes.getLength() == 0 ? null : nodes.item(0).getTextContent();
     }
     
     /*
@@ -780,6 +1318,83 @@ public class ReconFieldUtility
         return false;
     }
     
+    /*
+     * Load all the reconciliation fields of a resource object with one query.
+     * @param   dbProvider          connection to the OIM Schema 
+     * @param   resourceObjectKey   resource object
+     * @return  index of the recon fields by name
+     */
+    public static ReconFieldIndex getReconFieldIndex(tcDataProvider dbProvider, Long resourceObjectKey) throws tcDataSetException, tcDataAccessException
+    {
+        tcDataSet orfDataSet = null;
+        PreparedStatementUtil ps = null;
+        
+        try 
+        {
+            String query = "SELECT ORF_KEY, ORF_FIELDNAME, ORF_FIELDTYPE, ORF_PARENT_ORF_KEY FROM ORF WHERE OBJ_KEY = ?";
+            ps = new PreparedStatementUtil();
+            ps.setStatement(dbProvider, query);
+            ps.setLong(1, resourceObjectKey);
+            ps.execute();
+            orfDataSet = ps.getDataSet();
+            ReconFieldIndex reconFieldIndex = new ReconFieldIndex(resourceObjectKey);
+            int numRecords = orfDataSet.getTotalRowCount();
+            
+            for(int i = 0; i < numRecords; i++)
+            {
+                orfDataSet.goToRow(i);
+                String fieldType = orfDataSet.getString("ORF_FIELDTYPE");
+                String parentFieldKey = orfDataSet.getString("ORF_PARENT_ORF_KEY");
+                reconFieldIndex.addReconField(orfDataSet.getString("ORF_KEY"), orfDataSet.getString("ORF_FIELDNAME"), fieldType, RECON_FIELD_TYPE_MULTI_VALUE.equalsIgnoreCase(fieldType), parentFieldKey != null && !parentFieldKey.isEmpty());
+            }
+            
+            return reconFieldIndex;
+        } 
+        
+        finally
+        {
+        }
+    }
+    
+    /*
+     * Get a fingerprint of the reconciliation fields of a resource object.
+     * The fingerprint changes when a reconciliation field is added, removed, or updated.
+     * @param   dbProvider          connection to the OIM Schema 
+     * @param   resourceObjectKey   resource object (OBJ.OBJ_KEY)
+     * @return  number of reconciliation fields and a hash of the fields
+     */
+    public static String getReconFieldFingerprint(tcDataProvider dbProvider, Long resourceObjectKey) throws tcDataSetException, tcDataAccessException, UnsupportedEncodingException
+    {
+        tcDataSet orfDataSet = null;
+        PreparedStatementUtil ps = null;
+        
+        try 
+        {
+            String query = "SELECT ORF_KEY, ORF_FIELDNAME, ORF_FIELDTYPE, ORF_REQUIRED, ORF_PARENT_ORF_KEY FROM ORF WHERE OBJ_KEY = ?";
+            ps = new PreparedStatementUtil();
+            ps.setStatement(dbProvider, query);
+            ps.setLong(1, resourceObjectKey);
+            ps.execute();
+            orfDataSet = ps.getDataSet();
+            int numRecords = orfDataSet.getTotalRowCount();
+            ArrayList<String> reconFields = new ArrayList<String>(numRecords);
+            
+            for(int i = 0; i < numRecords; i++)
+            {
+                orfDataSet.goToRow(i);
+                reconFields.add(orfDataSet.getString("ORF_KEY") + "\t" + orfDataSet.getString("ORF_FIELDNAME") + "\t" 
+                        + orfDataSet.getString("ORF_FIELDTYPE") + "\t" + orfDataSet.getString("ORF_REQUIRED") + "\t" 
+                        + orfDataSet.getString("ORF_PARENT_ORF_KEY"));
+            }
+            
+            return numRecords + "-" + HelperUtility.getHash(reconFields);
+        } 
+        
+        finally
+        {
+        }
+    }
+    
     /*
      * Determine if the field type of a reconciliation field is valid.
      * @param   fieldType   name of field type
@@ -882,7 +1497,7 @@ public class ReconFieldUtility
             ps.execute();
             orfDataSet = ps.getDataSet();
             int numRecords = orfDataSet.getTotalRowCount();
-            writer.printf("%s%s%s%s%s\n", "ReconFieldName", delimiter, "FieldType", delimiter, "isRequired");
+            writer.printf("%s\n", DelimitedRecordSchema.join(new String[] {RECON_FIELD_ATTR_NAME, RECON_FIELD_ATTR_TYPE, RECON_FIELD_ATTR_ISREQUIRED}, delimiter));
            
             for(int i = 0; i < numRecords; i++)
             {
@@ -890,7 +1505,7 @@ public class ReconFieldUtility
                 String reconFieldName = orfDataSet.getString("ORF_FIELDNAME"); 
                 String reconFieldType = orfDataSet.getString("ORF_FIELDTYPE");
                 String isRequired = orfDataSet.getString("ORF_REQUIRED");
-                writer.printf("%s%s%s%s%s\n", reconFieldName, delimiter, reconFieldType, delimiter, isRequired);
+                writer.printf("%s\n", DelimitedRecordSchema.join(new String[] {reconFieldName, reconFieldType, isRequired}, delimiter));
             }
         }
       
@@ -0,0 +1,111 @@
+package project.rayedchan.custom.objects;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+import project.rayedchan.exception.BadFileFormatException;
+import project.rayedchan.exception.MissingHeaderException;
+import project.rayedchan.exception.MissingRequiredFieldException;
+
+/**
+ * @author rayedchan
+ * Tests the splitting, quoting, and header binding of DelimitedRecordSchema.
+ */
+public class DelimitedRecordSchemaTest
+{
+    private static String [] VALID_ATTRIBUTE_NAMES = {"FieldLabel", "VariantType", "Length"};
+    private static String [] REQUIRED_ATTRIBUTE_NAMES = {"FieldLabel"};
+
+    @Test
+    public void splitKeepsEmptyValues()
+    {
+        assertArrayEquals(new String[] {"a", "", "c", ""}, DelimitedRecordSchema.split("a,,c,", ","));
+    }
+
+    @Test
+    public void splitTreatsDelimiterAsLiteral()
+    {
+        assertArrayEquals(new String[] {"a", "b.c"}, DelimitedRecordSchema.split("a|b.c", "|"));
+        assertArrayEquals(new String[] {"a", "b"}, DelimitedRecordSchema.split("a::b", "::"));
+    }
+
+    @Test
+    public void splitReadsQuotedValues()
+    {
+        assertArrayEquals(new String[] {"Smith, John", "say \"hi\"", "x"}, DelimitedRecordSchema.split("\"Smith, John\",\"say \"\"hi\"\"\",x", ","));
+    }
+
+    @Test
+    public void quoteOnlyWhenNeeded()
+    {
+        assertEquals("plain", DelimitedRecordSchema.quote("plain", ","));
+        assertEquals("\"a,b\"", DelimitedRecordSchema.quote("a,b", ","));
+        assertEquals("\"say \"\"hi\"\"\"", DelimitedRecordSchema.quote("say \"hi\"", ","));
+    }
+
+    @Test
+    public void joinIsReadBackBySplit()
+    {
+        String [] values = {"Smith, John", "", "\"quoted\"", "null", "a\tb"};
+
+        for(String delimiter : new String[] {",", "\t", "|"})
+        {
+            assertArrayEquals(values, DelimitedRecordSchema.split(DelimitedRecordSchema.join(values, delimiter), delimiter));
+        }
+    }
+
+    @Test
+    public void headerIsBoundCaseInsensitive() throws Exception
+    {
+        DelimitedRecordSchema schema = new DelimitedRecordSchema(",", VALID_ATTRIBUTE_NAMES, REQUIRED_ATTRIBUTE_NAMES, false);
+        schema.bindHeader("length, fieldlabel");
+        DelimitedRecord record = schema.parseRecord("100,FirstName");
+
+        assertEquals(1, schema.getColumnIndex("FieldLabel"));
+        assertEquals(-1, schema.getColumnIndex("VariantType"));
+        assertEquals("FirstName", record.getValue("FieldLabel"));
+        assertEquals("100", record.getValue("Length"));
+        assertNull(record.getValue("VariantType"));
+    }
+
+    @Test
+    public void recordWithWrongNumberOfValuesIsRejected() throws Exception
+    {
+        DelimitedRecordSchema schema = new DelimitedRecordSchema(",", VALID_ATTRIBUTE_NAMES, REQUIRED_ATTRIBUTE_NAMES, false);
+        schema.bindHeader("FieldLabel,Length");
+
+        assertNull(schema.parseRecord("FirstName"));
+        assertNull(schema.parseRecord("FirstName,100,extra"));
+    }
+
+    @Test(expected = MissingHeaderException.class)
+    public void missingHeaderIsRejected() throws Exception
+    {
+        new DelimitedRecordSchema(",", VALID_ATTRIBUTE_NAMES, REQUIRED_ATTRIBUTE_NAMES, false).bindHeader(null);
+    }
+
+    @Test(expected = BadFileFormatException.class)
+    public void unknownAttributeIsRejected() throws Exception
+    {
+        new DelimitedRecordSchema(",", VALID_ATTRIBUTE_NAMES, REQUIRED_ATTRIBUTE_NAMES, false).bindHeader("FieldLabel,Color");
+    }
+
+    @Test(expected = BadFileFormatException.class)
+    public void repeatedAttributeIsRejected() throws Exception
+    {
+        new DelimitedRecordSchema(",", VALID_ATTRIBUTE_NAMES, REQUIRED_ATTRIBUTE_NAMES, false).bindHeader("FieldLabel,fieldLabel");
+    }
+
+    @Test(expected = MissingRequiredFieldException.class)
+    public void missingRequiredAttributeIsRejected() throws Exception
+    {
+        new DelimitedRecordSchema(",", VALID_ATTRIBUTE_NAMES, REQUIRED_ATTRIBUTE_NAMES, false).bindHeader("Length");
+    }
+
+    @Test(expected = BadFileFormatException.class)
+    public void headerIsCaseSensitiveWhenRequested() throws Exception
+    {
+        new DelimitedRecordSchema(",", VALID_ATTRIBUTE_NAMES, REQUIRED_ATTRIBUTE_NAMES, true).bindHeader("fieldlabel");
+    }
+}
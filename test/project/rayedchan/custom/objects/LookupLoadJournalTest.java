@@ -0,0 +1,128 @@
+package project.rayedchan.custom.objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import org.junit.Test;
+import project.rayedchan.exception.BadFileFormatException;
+
+/**
+ * @author rayedchan
+ * Tests the applied entries recorded and resumed by LookupLoadJournal.
+ */
+public class LookupLoadJournalTest
+{
+    private static String LOOKUP_NAME = "Lookup.AD.Groups";
+
+    @Test
+    public void resumesAppliedCodeKeys() throws Exception
+    {
+        File journalFile = createJournalFile();
+        LookupLoadJournal journal = new LookupLoadJournal(journalFile.getPath(), LOOKUP_NAME);
+        journal.recordApplied("Admins");
+        journal.recordApplied("Users");
+        journal.recordApplied("Admins");
+        journal.close();
+
+        journal = new LookupLoadJournal(journalFile.getPath(), LOOKUP_NAME);
+
+        try
+        {
+            assertTrue(journal.isApplied("Admins"));
+            assertTrue(journal.isApplied("Users"));
+            assertFalse(journal.isApplied("Guests"));
+            assertEquals(2, journal.getNumApplied());
+        }
+
+        finally
+        {
+            journal.close();
+        }
+
+        assertEquals(3, readLines(journalFile).size());
+    }
+
+    @Test
+    public void codeKeysAreWrittenInBatches() throws Exception
+    {
+        File journalFile = createJournalFile();
+        LookupLoadJournal journal = new LookupLoadJournal(journalFile.getPath(), LOOKUP_NAME);
+
+        try
+        {
+            for(int i = 1; i < LookupLoadJournal.FLUSH_BATCH_SIZE; i++)
+            {
+                journal.recordApplied("Key" + i);
+            }
+
+            //Only the lookup name until a full batch is recorded
+            assertEquals(1, readLines(journalFile).size());
+
+            journal.recordApplied("Key" + LookupLoadJournal.FLUSH_BATCH_SIZE);
+            ArrayList<String> lines = readLines(journalFile);
+            assertEquals(LookupLoadJournal.FLUSH_BATCH_SIZE + 1, lines.size());
+            assertEquals(LOOKUP_NAME, lines.get(0));
+        }
+
+        finally
+        {
+            journal.close();
+        }
+    }
+
+    @Test(expected = BadFileFormatException.class)
+    public void journalOfAnotherLookupIsRejected() throws Exception
+    {
+        File journalFile = createJournalFile();
+        new LookupLoadJournal(journalFile.getPath(), LOOKUP_NAME).close();
+        new LookupLoadJournal(journalFile.getPath(), "Lookup.LDAP.Groups");
+    }
+
+    @Test
+    public void deleteRemovesTheJournal() throws Exception
+    {
+        File journalFile = createJournalFile();
+        LookupLoadJournal journal = new LookupLoadJournal(journalFile.getPath(), LOOKUP_NAME);
+        journal.recordApplied("Admins");
+        journal.close();
+
+        assertTrue(journal.delete());
+        assertFalse(journalFile.exists());
+    }
+
+    private static File createJournalFile() throws IOException
+    {
+        File journalFile = File.createTempFile("journal", ".txt");
+        journalFile.deleteOnExit();
+        return journalFile;
+    }
+
+    private static ArrayList<String> readLines(File file) throws IOException
+    {
+        ArrayList<String> lines = new ArrayList<String>();
+        BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+
+        try
+        {
+            String line;
+
+            while((line = br.readLine()) != null)
+            {
+                lines.add(line);
+            }
+        }
+
+        finally
+        {
+            br.close();
+        }
+
+        return lines;
+    }
+}
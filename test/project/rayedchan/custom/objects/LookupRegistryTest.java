@@ -0,0 +1,40 @@
+package project.rayedchan.custom.objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.util.Arrays;
+import org.junit.Test;
+
+/**
+ * @author rayedchan
+ * Tests the lookup names answered by LookupRegistry.
+ */
+public class LookupRegistryTest
+{
+    @Test
+    public void existsIsCaseSensitive()
+    {
+        LookupRegistry registry = new LookupRegistry(Arrays.asList("Lookup.AD.Groups", "Lookup.LDAP.Groups"));
+
+        assertTrue(registry.exists("Lookup.AD.Groups"));
+        assertFalse(registry.exists("lookup.ad.groups"));
+        assertEquals("Lookup.AD.Groups", registry.getLookupName("LOOKUP.AD.GROUPS"));
+        assertNull(registry.getLookupName("Lookup.DB.Groups"));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    public void removeKeepsNameThatDiffersByCase()
+    {
+        LookupRegistry registry = new LookupRegistry(Arrays.asList("Lookup.AD.Groups"));
+        registry.add("LOOKUP.AD.GROUPS");
+        registry.remove("Lookup.AD.Groups");
+
+        assertFalse(registry.exists("Lookup.AD.Groups"));
+        assertTrue(registry.exists("LOOKUP.AD.GROUPS"));
+        assertEquals("LOOKUP.AD.GROUPS", registry.getLookupName("lookup.ad.groups"));
+        assertEquals(1, registry.size());
+    }
+}
@@ -0,0 +1,88 @@
+package project.rayedchan.custom.objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import org.junit.Test;
+import project.rayedchan.exception.BadFileFormatException;
+
+/**
+ * @author rayedchan
+ * Tests the records read from a batch manifest by ManifestReader.
+ */
+public class ManifestReaderTest
+{
+    private static String [] COLUMN_NAMES = {ManifestReader.OBJECT_NAME_COLUMN, ManifestReader.FILE_NAME_COLUMN, ManifestReader.DELIMITER_COLUMN};
+
+    @Test
+    public void readsAlignedRecordsAndSkipsBlankLines() throws Exception
+    {
+        ManifestReader manifestReader = new ManifestReader(createManifest("AD User\t\t/home/oracle/ad.txt\ttab\n\n  \nLDAP User\t/home/oracle/ldap.txt\tcomma \n"), COLUMN_NAMES);
+
+        try
+        {
+            DelimitedRecord record = manifestReader.nextRecord();
+            assertEquals("AD User", record.getValue(ManifestReader.OBJECT_NAME_COLUMN));
+            assertEquals("/home/oracle/ad.txt", record.getValue(ManifestReader.FILE_NAME_COLUMN));
+            assertEquals(1, manifestReader.getLineNumber());
+
+            record = manifestReader.nextRecord();
+            assertEquals("comma", record.getValue(ManifestReader.DELIMITER_COLUMN));
+            assertEquals(4, manifestReader.getLineNumber());
+            assertNull(manifestReader.nextRecord());
+        }
+
+        finally
+        {
+            manifestReader.close();
+        }
+    }
+
+    @Test(expected = BadFileFormatException.class)
+    public void recordWithWrongNumberOfColumnsIsRejected() throws Exception
+    {
+        ManifestReader manifestReader = new ManifestReader(createManifest("AD User\t/home/oracle/ad.txt\n"), COLUMN_NAMES);
+
+        try
+        {
+            manifestReader.nextRecord();
+        }
+
+        finally
+        {
+            manifestReader.close();
+        }
+    }
+
+    @Test
+    public void delimiterNamesAreTranslated()
+    {
+        assertEquals("\t", ManifestReader.toDelimiter("TAB"));
+        assertEquals(",", ManifestReader.toDelimiter("comma"));
+        assertEquals(";", ManifestReader.toDelimiter("semicolon"));
+        assertEquals("|", ManifestReader.toDelimiter("|"));
+    }
+
+    private static String createManifest(String content) throws IOException
+    {
+        File manifestFile = File.createTempFile("manifest", ".txt");
+        manifestFile.deleteOnExit();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(manifestFile), "UTF-8");
+
+        try
+        {
+            writer.write(content);
+        }
+
+        finally
+        {
+            writer.close();
+        }
+
+        return manifestFile.getPath();
+    }
+}
@@ -0,0 +1,89 @@
+package project.rayedchan.custom.objects;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.junit.Test;
+
+/**
+ * @author rayedchan
+ * Tests the records read from a memory-mapped file by MappedDelimitedFileReader.
+ */
+public class MappedDelimitedFileReaderTest
+{
+    @Test
+    public void splitsRecordsLikeStringTokenizer() throws Exception
+    {
+        MappedDelimitedFileReader reader = new MappedDelimitedFileReader(createFile("Admins\t\tAdministrators\r\nUsers\tAll users"), "\t", "UTF-8");
+
+        try
+        {
+            assertArrayEquals(new String [] {"Admins", "Administrators"}, reader.nextRecord());
+            assertEquals(1, reader.getLineNumber());
+            assertArrayEquals(new String [] {"Users", "All users"}, reader.nextRecord());
+            assertEquals("Users\tAll users", reader.getLine());
+            assertNull(reader.nextRecord());
+        }
+
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void readsRecordsAcrossWindows() throws Exception
+    {
+        int mapWindowSize = MappedDelimitedFileReader.MAP_WINDOW_SIZE;
+        MappedDelimitedFileReader.MAP_WINDOW_SIZE = 5;
+        MappedDelimitedFileReader reader = null;
+
+        try
+        {
+            reader = new MappedDelimitedFileReader(createFile("Gr\u00f6\u00dfe,Size\nCaf\u00e9,Coffee Shop\n"), ",", "UTF-8");
+            assertArrayEquals(new String [] {"Gr\u00f6\u00dfe", "Size"}, reader.nextRecord());
+            assertArrayEquals(new String [] {"Caf\u00e9", "Coffee Shop"}, reader.nextRecord());
+            assertNull(reader.nextRecord());
+            assertEquals(2, reader.getLineNumber());
+        }
+
+        finally
+        {
+            MappedDelimitedFileReader.MAP_WINDOW_SIZE = mapWindowSize;
+
+            if(reader != null)
+            {
+                reader.close();
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void multiByteDelimiterIsRejected() throws Exception
+    {
+        new MappedDelimitedFileReader(createFile("Admins\u00a7Administrators\n"), "\u00a7", "UTF-8");
+    }
+
+    private static String createFile(String content) throws IOException
+    {
+        File file = File.createTempFile("lookup", ".txt");
+        file.deleteOnExit();
+        OutputStream out = new FileOutputStream(file);
+
+        try
+        {
+            out.write(content.getBytes("UTF-8"));
+        }
+
+        finally
+        {
+            out.close();
+        }
+
+        return file.getPath();
+    }
+}
@@ -0,0 +1,160 @@
+package project.rayedchan.custom.objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Test;
+
+/**
+ * @author rayedchan
+ * Tests the snapshots saved, verified and resolved by MetadataSnapshotStore.
+ */
+public class MetadataSnapshotStoreTest
+{
+    private static String RESOURCE_XML = "<xl-ddm-data><Resource name=\"AD User\"><OBJ_UPDATE>1361032854000</OBJ_UPDATE></Resource></xl-ddm-data>";
+    private static String PROCESS_XML = "<xl-ddm-data><Process name=\"AD User \u00c9\"><PKG_UPDATE>1361032854000</PKG_UPDATE></Process></xl-ddm-data>";
+
+    @Test
+    public void savedXmlIsLoaded() throws Exception
+    {
+        File snapshotDirectory = createSnapshotDirectory();
+
+        try
+        {
+            MetadataSnapshotStore store = new MetadataSnapshotStore(snapshotDirectory.getPath());
+            MetadataSnapshot resourceSnapshot = store.save("Resource", "AD User", RESOURCE_XML);
+            MetadataSnapshot processSnapshot = store.save("Process", "AD User \u00c9", PROCESS_XML);
+
+            assertEquals(RESOURCE_XML, store.load(resourceSnapshot.getSnapshotId()));
+            assertEquals(PROCESS_XML, store.load(processSnapshot.getSnapshotId()));
+        }
+
+        finally
+        {
+            deleteSnapshotDirectory(snapshotDirectory);
+        }
+    }
+
+    @Test
+    public void unchangedXmlIsSavedOnce() throws Exception
+    {
+        File snapshotDirectory = createSnapshotDirectory();
+
+        try
+        {
+            MetadataSnapshotStore store = new MetadataSnapshotStore(snapshotDirectory.getPath());
+            MetadataSnapshot firstSnapshot = store.save("Resource", "AD User", RESOURCE_XML);
+            MetadataSnapshot secondSnapshot = store.save("Resource", "AD User", RESOURCE_XML);
+
+            assertEquals(firstSnapshot.getSnapshotId(), secondSnapshot.getSnapshotId());
+            assertEquals(2, store.getSnapshots().size());
+            assertEquals(2, store.getSnapshots("Resource", "ad user").size());
+            assertEquals(0, store.getSnapshots("Process", "AD User").size());
+            assertEquals(2, snapshotDirectory.list().length); //index and one snapshot file
+        }
+
+        finally
+        {
+            deleteSnapshotDirectory(snapshotDirectory);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptedSnapshotIsRejected() throws Exception
+    {
+        File snapshotDirectory = createSnapshotDirectory();
+
+        try
+        {
+            MetadataSnapshotStore store = new MetadataSnapshotStore(snapshotDirectory.getPath());
+            MetadataSnapshot snapshot = store.save("Resource", "AD User", RESOURCE_XML);
+            OutputStream out = new GZIPOutputStream(new FileOutputStream(new File(snapshotDirectory, snapshot.getSnapshotId() + MetadataSnapshotStore.SNAPSHOT_FILE_EXTENSION)));
+
+            try
+            {
+                out.write(PROCESS_XML.getBytes("UTF-8"));
+            }
+
+            finally
+            {
+                out.close();
+            }
+
+            store.load(snapshot.getSnapshotId());
+        }
+
+        finally
+        {
+            deleteSnapshotDirectory(snapshotDirectory);
+        }
+    }
+
+    @Test
+    public void snapshotIsFoundByIdPrefix() throws Exception
+    {
+        File snapshotDirectory = createSnapshotDirectory();
+
+        try
+        {
+            MetadataSnapshotStore store = new MetadataSnapshotStore(snapshotDirectory.getPath());
+            MetadataSnapshot resourceSnapshot = store.save("Resource", "AD User", RESOURCE_XML);
+            MetadataSnapshot processSnapshot = store.save("Process", "AD User \u00c9", PROCESS_XML);
+            String resourceSnapshotId = resourceSnapshot.getSnapshotId();
+
+            assertEquals(resourceSnapshotId, store.getSnapshot(resourceSnapshotId.substring(0, 12)).getSnapshotId());
+            assertEquals(resourceSnapshotId, store.getSnapshot(resourceSnapshotId.substring(0, 12).toUpperCase()).getSnapshotId());
+            assertEquals(processSnapshot.getSnapshotId(), store.getSnapshot(processSnapshot.getSnapshotId()).getSnapshotId());
+            assertNull(store.getSnapshot("")); //every snapshot matches
+            assertNull(store.getSnapshot("g")); //not hex
+        }
+
+        finally
+        {
+            deleteSnapshotDirectory(snapshotDirectory);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void unknownSnapshotIsRejected() throws Exception
+    {
+        File snapshotDirectory = createSnapshotDirectory();
+
+        try
+        {
+            MetadataSnapshotStore store = new MetadataSnapshotStore(snapshotDirectory.getPath());
+            store.load("../" + MetadataSnapshotStore.INDEX_FILE_NAME);
+        }
+
+        finally
+        {
+            deleteSnapshotDirectory(snapshotDirectory);
+        }
+    }
+
+    private static File createSnapshotDirectory() throws IOException
+    {
+        File snapshotDirectory = File.createTempFile("snapshots", "");
+        assertTrue(snapshotDirectory.delete());
+        return snapshotDirectory; //created by the store
+    }
+
+    private static void deleteSnapshotDirectory(File snapshotDirectory)
+    {
+        File [] files = snapshotDirectory.listFiles();
+
+        if(files != null)
+        {
+            for(File file : files)
+            {
+                file.delete();
+            }
+        }
+
+        snapshotDirectory.delete();
+    }
+}
@@ -0,0 +1,81 @@
+package project.rayedchan.custom.objects;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamException;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * @author rayedchan
+ * Tests the insertions and removals applied by MetadataXMLStreamTransformer.
+ */
+public class MetadataXMLStreamTransformerTest
+{
+    private static String RESOURCE_XML = "<xl-ddm-data><Resource name=\"AD User\"><ReconField name=\"First\"/><ReconField name=\"Last\"/></Resource></xl-ddm-data>";
+
+    @Test
+    public void appendsAndRemovesElements() throws Exception
+    {
+        MetadataXMLStreamTransformer transformer = new MetadataXMLStreamTransformer();
+        transformer.appendChild("xl-ddm-data/Resource", createElement("ReconField", "Email"));
+        transformer.removeElement("xl-ddm-data/Resource/ReconField", "Last");
+        String xml = transformer.transform(RESOURCE_XML);
+
+        assertTrue(xml.contains("<ReconField name=\"Email\"></ReconField></Resource>"));
+        assertFalse(xml.contains("\"Last\""));
+        assertTrue(transformer.wasRemoved("xl-ddm-data/Resource/ReconField", "Last"));
+    }
+
+    @Test
+    public void appendsToNamedParent() throws Exception
+    {
+        String resourcesXML = "<xl-ddm-data><Resource name=\"AD User\"></Resource><Resource name=\"x&quot;] | //*[@name=&quot;\"></Resource></xl-ddm-data>";
+        MetadataXMLStreamTransformer transformer = new MetadataXMLStreamTransformer();
+        transformer.appendChild("xl-ddm-data/Resource", "x\"] | //*[@name=\"", createElement("ReconField", "Email"));
+        String xml = transformer.transform(resourcesXML);
+
+        assertTrue(xml.contains("<Resource name=\"AD User\"></Resource>"));
+        assertTrue(xml.contains("<ReconField name=\"Email\"></ReconField></Resource></xl-ddm-data>"));
+        assertTrue(transformer.plan(resourcesXML).getWarnings().isEmpty());
+    }
+
+    @Test
+    public void removesNamedElementWithItsChildren() throws Exception
+    {
+        String resourcesXML = "<xl-ddm-data><Resource name=\"AD User\"><ReconField name=\"First\"/></Resource><Resource name=\"LDAP User\"><ReconField name=\"Last\"/></Resource></xl-ddm-data>";
+        MetadataXMLStreamTransformer transformer = new MetadataXMLStreamTransformer();
+        transformer.removeElement("xl-ddm-data/Resource", "AD User");
+        String xml = transformer.transform(resourcesXML);
+
+        assertFalse(xml.contains("\"AD User\""));
+        assertFalse(xml.contains("\"First\""));
+        assertTrue(xml.contains("<Resource name=\"LDAP User\"><ReconField name=\"Last\"></ReconField></Resource>"));
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void insertionWithoutNamedParentIsRejected() throws Exception
+    {
+        MetadataXMLStreamTransformer transformer = new MetadataXMLStreamTransformer();
+        transformer.appendChild("xl-ddm-data/Resource", "Email", createElement("ReconField", "Email"));
+        transformer.transform(RESOURCE_XML);
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void insertionWithoutParentIsRejected() throws Exception
+    {
+        MetadataXMLStreamTransformer transformer = new MetadataXMLStreamTransformer();
+        transformer.appendChild("xl-ddm-data/Process", createElement("ProcessTask", "Email Updated"));
+        transformer.transform(RESOURCE_XML);
+    }
+
+    private static Element createElement(String tagName, String name) throws Exception
+    {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element element = document.createElement(tagName);
+        element.setAttribute(MetadataXMLStreamTransformer.NAME_ATTR, name);
+        return element;
+    }
+}